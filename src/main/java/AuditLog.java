@@ -0,0 +1,427 @@
+// AuditLog.java - Tamper-evident, group-committed log of every settled ticket
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+//AuditLog writes one line per settled ticket: the drawing, the numbers drawn,
+//the player's picks, spots, matches and the winnings calculateWinnings paid.
+//Each line ends with a SHA-256 hash of the previous line's hash plus this line,
+//so changing, removing or reordering any record breaks every hash after it;
+//verify() walks a file and reports the first record that does not check out.
+//
+//  seq|timeMillis|drawing|drawn numbers|picks|spots|matches|winnings|hash
+//
+//A way ticket (calculateWayWinnings) is one record too: its picks are every
+//number on the ticket, the spots field is the number of ways followed by 'w'
+//("12w"), and matches is '-' since each way has its own count.
+//
+//Settling threads never touch the file. append() claims a slot in a fixed ring
+//buffer and returns; a single writer thread drains every entry that is ready,
+//hashes and writes them, and makes the whole batch durable with one force().
+//Under load a batch holds many drawings, so durability costs one sync per batch
+//rather than one per drawing. awaitDurable() blocks until a given entry is on
+//disk for callers that must not continue before that.
+//
+//A batch that fails to write is cut back off the file and retried as a whole.
+//The chain, the consumed position and the durable position move only once its
+//bytes are forced. After MAX_WRITE_ATTEMPTS failures the writer stops, so the
+//file never holds a gap. append() and awaitDurable() then throw.
+
+public class AuditLog implements AutoCloseable {
+    // Entries the ring holds; producers wait when the writer is this far behind
+    private static final int RING_SIZE = 4096;
+
+    // Largest batch written with one force()
+    private static final int MAX_BATCH = 1024;
+
+    // Writer's nap when nothing is ready
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    // Tries at writing one batch before the writer gives up, and the pause between them
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    private static final long RETRY_PAUSE_NANOS = 100_000_000;
+
+    // Hash chained to by the first record
+    private static final String GENESIS_HASH = "0".repeat(64);
+
+    private final FileChannel file;
+
+    // Numbers are 1..poolSize
+    private final int poolSize;
+
+    // Ring buffer: slot i holds entry seq when published[i] == seq
+    private final Entry[] ring = new Entry[RING_SIZE];
+    private final AtomicLongArray published = new AtomicLongArray(RING_SIZE);
+
+    // Next sequence number to hand out, and the next one the writer will take
+    private final AtomicLong nextSequence;
+    private volatile long consumed;
+
+    // Last sequence known to be on disk
+    private volatile long durable;
+    private final Object durableMonitor = new Object();
+
+    // Hash of the last record forced to disk (writer thread only)
+    private String lastHash;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Error that stopped the writer, if any
+    private volatile IOException failure;
+
+    // Batches written (one force() each)
+    private final AtomicLong batches = new AtomicLong();
+
+    //Opens (or creates) a log file for a game with numbers 1..poolSize and continues its
+    //hash chain. A last record torn by a crash is cut off first (see recoverTail).
+    public AuditLog(Path path, int poolSize) throws IOException {
+        this.poolSize = poolSize;
+        Tail tail = Files.exists(path) ? recoverTail(path) : new Tail(0, GENESIS_HASH);
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.lastHash = tail.hash;
+        this.nextSequence = new AtomicLong(tail.sequence + 1);
+        this.consumed = tail.sequence + 1;
+        this.durable = tail.sequence;
+        for (int i = 0; i < RING_SIZE; i++) published.set(i, -1);
+
+        this.writer = new Thread(this::writeLoop, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    //Queues one settled ticket and returns its sequence number. Does not wait for the
+     //disk; waits only if the writer has fallen a whole ring behind.
+
+    public long append(int drawingNumber, Set<Integer> drawn, Set<Integer> picks, int spots,
+                       int matches, double winnings) {
+        checkUsable();
+        return enqueue(new Entry(System.currentTimeMillis(), drawingNumber, NumberMask.toMask(drawn, poolSize),
+                NumberMask.toMask(picks, poolSize), spots, matches, 0, winnings));
+    }
+
+    //Queues one settled way ticket (every number on it as the picks) and returns its
+     //sequence number, like append
+
+    public long appendWays(int drawingNumber, Set<Integer> drawn, Set<Integer> picks, long ways, double winnings) {
+        checkUsable();
+        return enqueue(new Entry(System.currentTimeMillis(), drawingNumber, NumberMask.toMask(drawn, poolSize),
+                NumberMask.toMask(picks, poolSize), 0, 0, ways, winnings));
+    }
+
+    private long enqueue(Entry entry) {
+        long seq = nextSequence.getAndIncrement();
+        while (seq - consumed >= RING_SIZE) {
+            if (failure != null) checkUsable();
+            LockSupport.parkNanos(IDLE_PARK_NANOS);  // ring full: let the writer catch up
+        }
+        int slot = (int) (seq % RING_SIZE);
+        ring[slot] = entry;
+        published.set(slot, seq);  // Volatile write publishes the entry to the writer
+
+        if (!running) {
+            // Closed (or failed) after the check above: the writer may already have
+            // exited, so wait for it to write this entry or report it lost
+            while (durable < seq && writer.isAlive()) LockSupport.parkNanos(IDLE_PARK_NANOS);
+            if (durable < seq) {
+                checkUsable();
+            }
+        }
+        return seq;
+    }
+
+    //Finds where an existing file's chain ends. A crash can only tear the last line, so
+     //that line must end in a newline and its hash must follow from the line before it;
+     //if not, the file is truncated back to the end of the last good record. A bad line
+     //anywhere else is not crash damage, so it is reported rather than cut.
+
+    private static Tail recoverTail(Path path) throws IOException {
+        long size = Files.size(path);
+        long offset = 0;
+        long lineStart = 0;
+        long lineNumber = 0;
+        String line = null;
+        String previousHash = GENESIS_HASH;
+        long previousSequence = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String next;
+            while ((next = reader.readLine()) != null) {
+                long nextStart = offset;
+                offset += next.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (next.isEmpty()) continue;
+                if (line != null) {
+                    // Not the last line: it must be whole
+                    Tail parsed = parse(line);
+                    if (parsed == null) throw new IOException("audit log record " + lineNumber + " is damaged: " + path);
+                    previousSequence = parsed.sequence;
+                    previousHash = parsed.hash;
+                }
+                line = next;
+                lineStart = nextStart;
+                lineNumber++;
+            }
+        }
+        if (line == null) return new Tail(0, GENESIS_HASH);
+
+        Tail last = offset <= size ? parse(line) : null;  // no newline: the write was cut short
+        if (last != null && last.hash.equals(chain(newDigest(), previousHash, line.substring(0, line.lastIndexOf('|'))))) {
+            return last;
+        }
+        System.err.println("Audit log: dropping record " + lineNumber + ", torn by a crash");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(lineStart);
+            channel.force(false);
+        }
+        return new Tail(previousSequence, previousHash);
+    }
+
+    //Sequence number and hash of one line, or null if it does not have them
+
+    private static Tail parse(String line) {
+        int first = line.indexOf('|');
+        int last = line.lastIndexOf('|');
+        if (first <= 0 || last == first || line.length() - last - 1 != GENESIS_HASH.length()) return null;
+        try {
+            return new Tail(Long.parseLong(line.substring(0, first)), line.substring(last + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //Blocks until the entry with this sequence number has been forced to disk
+
+    public void awaitDurable(long seq) throws InterruptedException {
+        synchronized (durableMonitor) {
+            while (durable < seq) {
+                if (!writer.isAlive()) checkUsable();
+                durableMonitor.wait(10);
+            }
+        }
+    }
+
+    //Throws IllegalStateException if the log is closed or its writer has stopped on an
+     //error; settlement calls this before changing any state it would have to log
+
+    void checkUsable() {
+        if (failure != null) throw new IllegalStateException("audit log writer stopped: " + failure.getMessage(), failure);
+        if (!running) throw new IllegalStateException("audit log is closed");
+    }
+
+    //Sequence number of the last entry on disk
+
+    public long getDurableSequence() {
+        return durable;
+    }
+
+    //Number of force() calls made so far
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    //Writes everything queued, then stops the writer and closes the file. Throws if
+     //the writer stopped on an error, since some entries never reached the file.
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        file.close();
+        if (failure != null) throw new IOException("audit log writer stopped", failure);
+    }
+
+    //Writer thread: take every ready entry (up to MAX_BATCH), write them, force once
+
+    private void writeLoop() {
+        MessageDigest sha256 = newDigest();
+        StringBuilder batch = new StringBuilder();
+        while (true) {
+            long first = consumed;
+            long next = first;
+            String hash = lastHash;
+            batch.setLength(0);
+            while (next - first < MAX_BATCH) {
+                int slot = (int) (next % RING_SIZE);
+                if (published.get(slot) != next) break;
+                Entry entry = ring[slot];
+                ring[slot] = null;
+                hash = appendLine(batch, sha256, hash, next, entry);
+                next++;
+            }
+
+            if (next == first) {
+                if (!running && nextSequence.get() == consumed) return;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            if (!writeBatch(batch.toString().getBytes(StandardCharsets.UTF_8))) {
+                synchronized (durableMonitor) {
+                    durableMonitor.notifyAll();  // waiters see the failure
+                }
+                return;
+            }
+            lastHash = hash;
+            batches.incrementAndGet();
+            consumed = next;  // frees the slots for producers
+            synchronized (durableMonitor) {
+                durable = next - 1;
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+
+    //Appends one batch and forces it, retrying the whole batch after a failure. Bytes
+     //from a failed try are cut off first so a retry never leaves half a line behind.
+     //Returns false, with failure set, if it could not be written.
+
+    private boolean writeBatch(byte[] batch) {
+        for (int attempt = 1; ; attempt++) {
+            long start = -1;
+            try {
+                start = file.size();
+                ByteBuffer bytes = ByteBuffer.wrap(batch);
+                while (bytes.hasRemaining()) file.write(bytes);
+                file.force(false);
+                return true;
+            } catch (IOException e) {
+                System.err.println("Could not write audit log (attempt " + attempt + "): " + e.getMessage());
+                if (attempt == MAX_WRITE_ATTEMPTS || start < 0 || !cutBack(start)) {
+                    failure = e;
+                    running = false;
+                    return false;
+                }
+                LockSupport.parkNanos(RETRY_PAUSE_NANOS);
+            }
+        }
+    }
+
+    private boolean cutBack(long size) {
+        try {
+            if (file.size() > size) file.truncate(size);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not undo a failed audit log write: " + e.getMessage());
+            return false;
+        }
+    }
+
+    //Adds one record to batch, chained to previousHash; returns the record's hash
+
+    private String appendLine(StringBuilder batch, MessageDigest sha256, String previousHash, long seq, Entry entry) {
+        String body = seq + "|" + entry.timeMillis + "|" + entry.drawingNumber + "|" +
+                joinNumbers(entry.drawn) + "|" + joinNumbers(entry.picks) + "|" +
+                (entry.ways > 0 ? entry.ways + "w|-" : entry.spots + "|" + entry.matches) + "|" +
+                String.format(Locale.ROOT, "%.2f", entry.winnings);
+        String hash = chain(sha256, previousHash, body);
+        batch.append(body).append('|').append(hash).append('\n');
+        return hash;
+    }
+
+    //Checks every hash in a log file. Returns the number of records if the chain is
+     //intact, or -(line number) of the first record that was altered.
+
+    public static long verify(Path path) throws IOException {
+        MessageDigest sha256 = newDigest();
+        String previous = GENESIS_HASH;
+        long records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                records++;
+                int split = line.lastIndexOf('|');
+                if (split < 0) return -records;
+                String expected = chain(sha256, previous, line.substring(0, split));
+                if (!expected.equals(line.substring(split + 1))) return -records;
+                previous = expected;
+            }
+        }
+        return records;
+    }
+
+    private static String chain(MessageDigest sha256, String previousHash, String body) {
+        sha256.reset();
+        sha256.update(previousHash.getBytes(StandardCharsets.US_ASCII));
+        sha256.update(body.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : sha256.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String joinNumbers(long[] mask) {
+        StringBuilder text = new StringBuilder();
+        for (int number : NumberMask.toSet(mask)) {
+            if (text.length() > 0) text.append(',');
+            text.append(number);
+        }
+        return text.toString();
+    }
+
+    //Where an existing file's chain ends
+
+    private static class Tail {
+        private final long sequence;
+        private final String hash;
+
+        Tail(long sequence, String hash) {
+            this.sequence = sequence;
+            this.hash = hash;
+        }
+    }
+
+    //One settled ticket waiting in the ring
+
+    private static class Entry {
+        private final long timeMillis;
+        private final int drawingNumber;
+        private final long[] drawn;
+        private final long[] picks;
+        private final int spots;
+        private final int matches;
+
+        // Ways of a way ticket (0 for a straight ticket)
+        private final long ways;
+        private final double winnings;
+
+        Entry(long timeMillis, int drawingNumber, long[] drawn, long[] picks, int spots, int matches, long ways,
+              double winnings) {
+            this.timeMillis = timeMillis;
+            this.drawingNumber = drawingNumber;
+            this.drawn = drawn;
+            this.picks = picks;
+            this.spots = spots;
+            this.matches = matches;
+            this.ways = ways;
+            this.winnings = winnings;
+        }
+    }
+}
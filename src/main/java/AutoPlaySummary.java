@@ -0,0 +1,89 @@
+// AutoPlaySummary.java - Running totals for unattended auto-play
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+//AutoPlaySummary accumulates results while auto-play runs many drawings on one ticket.
+//The drawing loop records each result and the UI reads a copy at a fixed refresh
+//rate, so updates are cheap and independent of how fast drawings settle.
+//Methods are synchronized because the recorder and the reader are different threads;
+//each call holds the lock for a few field updates only.
+
+public class AutoPlaySummary {
+    // Drawings requested and played so far
+    private int totalDrawings;
+    private int drawingsPlayed;
+
+    // Spots on the ticket being played
+    private int spots;
+
+    // Winnings over every auto-played drawing
+    private double totalWon;
+
+    // Most matches seen in one drawing and the biggest single win
+    private int bestHit;
+    private double bestWin;
+
+    // hitHistogram[m] = drawings that finished with m matches
+    private long[] hitHistogram = new long[1];
+
+    //Starts a new run of the given length for a ticket with this many spots
+
+    public synchronized void reset(int spots, int totalDrawings) {
+        this.spots = spots;
+        this.totalDrawings = totalDrawings;
+        this.drawingsPlayed = 0;
+        this.totalWon = 0.0;
+        this.bestHit = 0;
+        this.bestWin = 0.0;
+        this.hitHistogram = new long[spots + 1];
+    }
+
+    //Records one settled drawing
+
+    public synchronized void record(int matches, double winnings) {
+        drawingsPlayed++;
+        totalWon += winnings;
+        hitHistogram[matches]++;
+        if (matches > bestHit) bestHit = matches;
+        if (winnings > bestWin) bestWin = winnings;
+    }
+
+    //Formats the current totals for the results panel
+
+    public synchronized String describe() {
+        StringBuilder text = new StringBuilder();
+        text.append("Auto Play: ").append(drawingsPlayed).append("/").append(totalDrawings).append(" drawings\n");
+        text.append(String.format("Total won: $%.2f\n", totalWon));
+        text.append("Best hit: ").append(bestHit).append(" of ").append(spots)
+                .append(String.format(" (best win $%.2f)\n", bestWin));
+        text.append("Hits:");
+        for (int m = 0; m < hitHistogram.length; m++) {
+            text.append(' ').append(m).append(':').append(hitHistogram[m]);
+        }
+        return text.toString();
+    }
+
+    //Drawings played so far
+
+    public synchronized int getDrawingsPlayed() {
+        return drawingsPlayed;
+    }
+
+    //Total winnings over the auto-played drawings
+
+    public synchronized double getTotalWon() {
+        return totalWon;
+    }
+
+    //Most matches seen in one drawing
+
+    public synchronized int getBestHit() {
+        return bestHit;
+    }
+
+    //Copy of the hit-count histogram
+
+    public synchronized long[] getHitHistogram() {
+        return hitHistogram.clone();
+    }
+}
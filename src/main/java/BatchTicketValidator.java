@@ -0,0 +1,441 @@
+// BatchTicketValidator.java - Settles a large file of paper tickets against one drawing
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//BatchTicketValidator re-validates a file of tickets against one drawing for the
+//back office. Each line is a spot count followed by that many numbers, separated
+//by spaces, commas or tabs ("4 3,11,19,27"); blank lines and lines starting with
+//'#' are skipped. Every ticket is checked (playable spot count, numbers in the
+//pool, no repeats, the right count), matched and paid with the definition's
+//payout table, the same rules GameState settles with.
+//
+//The file is split into byte ranges that are memory-mapped and settled in
+//parallel on a fork/join pool, like SubsetFrequencyMiner. A line belongs to the
+//range it starts in. Lines are parsed straight from the mapped bytes into a
+//NumberMask bitmap, so no Strings or Integer sets are made per ticket; matching
+//is a bitCount of the ticket AND the drawing.
+//
+//The report lists the totals, the ticket count for each spot count and number of
+//matches, counts of each kind of invalid line, and the line numbers of every
+//winning and invalid ticket.
+//
+//Usage: BatchTicketValidator <tickets file> <drawn numbers, e.g. 1,5,9,...> [report file]
+//       BatchTicketValidator --generate <tickets file> <count>
+
+public class BatchTicketValidator {
+    // Bytes settled by one task before it stops splitting
+    private static final int CHUNK_BYTES = 4 << 20;
+
+    // Longest line read past the end of a chunk to finish its last ticket; a line
+    // running further is settled as MALFORMED rather than cut short
+    private static final int MAX_LINE_BYTES = 4096;
+
+    // Reasons a line is rejected, indexing Settlement.invalid
+    static final int BAD_SPOTS = 0;
+    static final int WRONG_COUNT = 1;
+    static final int OUT_OF_RANGE = 2;
+    static final int DUPLICATE = 3;
+    static final int MALFORMED = 4;
+    private static final String[] INVALID_REASONS = {"unplayable spot count", "wrong number count",
+            "number out of range", "repeated number", "malformed line"};
+
+    private final GameDefinition definition;
+    private final long[] drawMask;
+    private final ForkJoinPool pool;
+
+    //Creates a validator for one drawing of the standard game on the common pool
+    public BatchTicketValidator(Set<Integer> drawn) {
+        this(GameDefinition.STANDARD, drawn, ForkJoinPool.commonPool());
+    }
+
+    //Creates a validator for one drawing of any variant
+    public BatchTicketValidator(GameDefinition definition, Set<Integer> drawn, ForkJoinPool pool) {
+        if (drawn.size() != definition.getDrawSize()) {
+            throw new IllegalArgumentException("expected " + definition.getDrawSize() + " drawn numbers, got " + drawn.size());
+        }
+        for (int n : drawn) {
+            if (n < 1 || n > definition.getPoolSize()) {
+                throw new IllegalArgumentException("drawn numbers must be between 1 and " + definition.getPoolSize());
+            }
+        }
+        this.definition = definition;
+        this.drawMask = NumberMask.toMask(drawn, definition.getPoolSize());
+        this.pool = pool;
+    }
+
+    //Settles every ticket in the file
+
+    public Settlement validate(Path tickets) throws IOException {
+        try (FileChannel channel = FileChannel.open(tickets, StandardOpenOption.READ)) {
+            return pool.invoke(new ChunkTask(channel, 0, channel.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //Settles the lines that start in [from, to), splitting the range while it is large
+
+    @SuppressWarnings("serial")  // never serialized
+    private class ChunkTask extends RecursiveTask<Settlement> {
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+
+        ChunkTask(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Settlement compute() {
+            if (to - from <= CHUNK_BYTES) {
+                try {
+                    return settleChunk();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            long mid = from + (to - from) / 2;
+            ChunkTask left = new ChunkTask(channel, from, mid);
+            left.fork();
+            Settlement right = new ChunkTask(channel, mid, to).compute();
+            Settlement result = left.join();
+            result.append(right);
+            return result;
+        }
+
+        private Settlement settleChunk() throws IOException {
+            Settlement result = new Settlement(definition.getMaxSpots());
+            // Map one byte before the range (to see whether a line starts at from)
+            // and enough after it to finish the last line
+            long start = Math.max(0, from - 1);
+            long end = Math.min(channel.size(), to + MAX_LINE_BYTES);
+            if (end <= start) return result;
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            int limit = bytes.limit();
+            int pos = (int) (from - start);
+            int stop = (int) (to - start);
+
+            // Skip the end of a line that started in the previous range
+            if (from > 0 && bytes.get(pos - 1) != '\n') {
+                while (pos < limit && bytes.get(pos) != '\n') pos++;
+                pos++;
+            }
+
+            long[] ticket = new long[drawMask.length];
+            while (pos < stop && pos < limit) {
+                int lineEnd = pos;
+                while (lineEnd < limit && bytes.get(lineEnd) != '\n') lineEnd++;
+                if (lineEnd == limit && end < channel.size()) {
+                    // Runs past the mapped bytes: too long to be a ticket, and the
+                    // next range skips the rest of it as a line started here
+                    result.lines++;
+                    result.addInvalid(result.lines, MALFORMED);
+                    break;
+                }
+                settleLine(bytes, pos, lineEnd, ticket, result);
+                pos = lineEnd + 1;
+            }
+            return result;
+        }
+    }
+
+    //Parses and settles one line [pos, end) straight from the mapped bytes
+
+    private void settleLine(MappedByteBuffer bytes, int pos, int end, long[] ticket, Settlement result) {
+        result.lines++;
+        long localLine = result.lines;
+        if (end > pos && bytes.get(end - 1) == '\r') end--;
+
+        // Skip leading blanks; blank lines and comments are not tickets
+        while (pos < end && isSeparator(bytes.get(pos))) pos++;
+        if (pos == end || bytes.get(pos) == '#') return;
+
+        Arrays.fill(ticket, 0);
+        int spots = -1;
+        int count = 0;
+        int reason = -1;
+        while (pos < end) {
+            byte b = bytes.get(pos);
+            if (isSeparator(b)) {
+                pos++;
+                continue;
+            }
+            if (b < '0' || b > '9') {
+                reason = MALFORMED;
+                break;
+            }
+            int value = 0;
+            while (pos < end && (b = bytes.get(pos)) >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                if (value > 1_000_000) value = 1_000_000;  // stays out of range without overflowing
+                pos++;
+            }
+            if (pos < end && !isSeparator(bytes.get(pos))) {
+                reason = MALFORMED;
+                break;
+            }
+            if (spots < 0) {
+                spots = value;
+                continue;
+            }
+            if (value < 1 || value > definition.getPoolSize()) {
+                if (reason < 0) reason = OUT_OF_RANGE;
+                continue;
+            }
+            if (NumberMask.contains(ticket, value)) {
+                if (reason < 0) reason = DUPLICATE;
+                continue;
+            }
+            NumberMask.set(ticket, value);
+            count++;
+        }
+
+        if (reason < 0 && !definition.isAllowedSpots(spots)) reason = BAD_SPOTS;
+        if (reason < 0 && count != spots) reason = WRONG_COUNT;
+        if (reason >= 0) {
+            result.addInvalid(localLine, reason);
+            return;
+        }
+
+        int matches = NumberMask.countMatches(ticket, drawMask);
+        result.addTicket(localLine, spots, matches, definition.payoutFor(spots, matches));
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == ',' || b == '\t';
+    }
+
+    //Totals and notable lines from settling a range of the file. Line numbers are
+    //counted within the range and shifted when ranges are appended in file order.
+
+    public static class Settlement {
+        // Lines read, including blank and comment lines
+        private long lines;
+
+        private long validTickets;
+        private double totalPayout;
+
+        // tickets[spots][matches]
+        private final long[][] tickets;
+
+        // Invalid lines by reason
+        private final long[] invalid = new long[INVALID_REASONS.length];
+
+        // Winning tickets: line, spots, matches, payout
+        private long[] winnerLines = new long[16];
+        private int[] winnerSpots = new int[16];
+        private int[] winnerMatches = new int[16];
+        private double[] winnerPayouts = new double[16];
+        private int winners;
+
+        // Invalid lines and their reasons
+        private long[] invalidLines = new long[16];
+        private int[] invalidReasons = new int[16];
+        private int invalidCount;
+
+        Settlement(int maxSpots) {
+            this.tickets = new long[maxSpots + 1][maxSpots + 1];
+        }
+
+        void addTicket(long line, int spots, int matches, double payout) {
+            validTickets++;
+            tickets[spots][matches]++;
+            if (payout > 0) {
+                totalPayout += payout;
+                addWinner(line, spots, matches, payout);
+            }
+        }
+
+        void addInvalid(long line, int reason) {
+            invalid[reason]++;
+            addInvalidLine(line, reason);
+        }
+
+        //Adds the settlement of the range right after this one
+
+        void append(Settlement next) {
+            for (int i = 0; i < next.winners; i++) {
+                addWinner(next.winnerLines[i] + lines, next.winnerSpots[i], next.winnerMatches[i], next.winnerPayouts[i]);
+            }
+            for (int i = 0; i < next.invalidCount; i++) {
+                addInvalidLine(next.invalidLines[i] + lines, next.invalidReasons[i]);
+            }
+            for (int r = 0; r < invalid.length; r++) invalid[r] += next.invalid[r];
+            for (int s = 0; s < tickets.length; s++) {
+                for (int m = 0; m < tickets[s].length; m++) tickets[s][m] += next.tickets[s][m];
+            }
+            validTickets += next.validTickets;
+            totalPayout += next.totalPayout;
+            lines += next.lines;
+        }
+
+        private void addWinner(long line, int spots, int matches, double payout) {
+            if (winners == winnerLines.length) {
+                int size = winners * 2;
+                winnerLines = Arrays.copyOf(winnerLines, size);
+                winnerSpots = Arrays.copyOf(winnerSpots, size);
+                winnerMatches = Arrays.copyOf(winnerMatches, size);
+                winnerPayouts = Arrays.copyOf(winnerPayouts, size);
+            }
+            winnerLines[winners] = line;
+            winnerSpots[winners] = spots;
+            winnerMatches[winners] = matches;
+            winnerPayouts[winners] = payout;
+            winners++;
+        }
+
+        private void addInvalidLine(long line, int reason) {
+            if (invalidCount == invalidLines.length) {
+                invalidLines = Arrays.copyOf(invalidLines, invalidCount * 2);
+                invalidReasons = Arrays.copyOf(invalidReasons, invalidCount * 2);
+            }
+            invalidLines[invalidCount] = line;
+            invalidReasons[invalidCount] = reason;
+            invalidCount++;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getValidTickets() {
+            return validTickets;
+        }
+
+        public long getInvalidTickets() {
+            long total = 0;
+            for (long count : invalid) total += count;
+            return total;
+        }
+
+        //Invalid lines for one reason (BAD_SPOTS, WRONG_COUNT, ...)
+
+        public long getInvalid(int reason) {
+            return invalid[reason];
+        }
+
+        public double getTotalPayout() {
+            return totalPayout;
+        }
+
+        //Valid tickets with this spot count and number of matches
+
+        public long getTickets(int spots, int matches) {
+            return spots < tickets.length && matches <= spots ? tickets[spots][matches] : 0;
+        }
+
+        public int getWinnerCount() {
+            return winners;
+        }
+
+        //1-based line number of the i-th winning ticket, in file order
+
+        public long getWinnerLine(int i) {
+            return winnerLines[i];
+        }
+
+        public double getWinnerPayout(int i) {
+            return winnerPayouts[i];
+        }
+
+        //Writes the settlement report
+
+        public void writeReport(Path report, Set<Integer> drawn) throws IOException {
+            try (BufferedWriter out = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+                out.write("drawn=" + new TreeSet<>(drawn).toString().replaceAll("[\\[\\] ]", "") + "\n");
+                out.write("lines=" + lines + "\n");
+                out.write("valid=" + validTickets + "\n");
+                out.write("invalid=" + getInvalidTickets() + "\n");
+                out.write("winners=" + winners + "\n");
+                out.write(String.format(Locale.ROOT, "payout=%.2f%n", totalPayout));
+                out.write("\n# spots matches tickets\n");
+                for (int s = 0; s < tickets.length; s++) {
+                    for (int m = 0; m <= s; m++) {
+                        if (tickets[s][m] > 0) out.write(s + " " + m + " " + tickets[s][m] + "\n");
+                    }
+                }
+                out.write("\n# invalid lines by reason\n");
+                for (int r = 0; r < invalid.length; r++) {
+                    if (invalid[r] > 0) out.write(INVALID_REASONS[r] + ": " + invalid[r] + "\n");
+                }
+                out.write("\n# winners: line spots matches payout\n");
+                for (int i = 0; i < winners; i++) {
+                    out.write(String.format(Locale.ROOT, "%d %d %d %.2f%n",
+                            winnerLines[i], winnerSpots[i], winnerMatches[i], winnerPayouts[i]));
+                }
+                out.write("\n# invalid: line reason\n");
+                for (int i = 0; i < invalidCount; i++) {
+                    out.write(invalidLines[i] + " " + INVALID_REASONS[invalidReasons[i]] + "\n");
+                }
+            }
+        }
+    }
+
+    //Writes count random standard tickets, in the 1/4/8/10 spot mix LoadGenerator uses
+
+    static void generate(Path file, long count) throws IOException {
+        Random random = new Random();
+        int[] spotMix = {1, 4, 8, 8, 10};
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            StringBuilder line = new StringBuilder();
+            for (long i = 0; i < count; i++) {
+                int spots = spotMix[random.nextInt(spotMix.length)];
+                line.setLength(0);
+                line.append(spots);
+                Set<Integer> numbers = new LinkedHashSet<>();
+                while (numbers.size() < spots) numbers.add(random.nextInt(80) + 1);
+                char separator = ' ';
+                for (int n : numbers) {
+                    line.append(separator).append(n);
+                    separator = ',';
+                }
+                out.write(line.append('\n').toString());
+            }
+        }
+    }
+
+    //Settles a ticket file from the command line (see class comment for usage)
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("--generate")) {
+            generate(Paths.get(args[1]), Long.parseLong(args[2]));
+            return;
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: BatchTicketValidator <tickets file> <drawn numbers> [report file]");
+            System.err.println("       BatchTicketValidator --generate <tickets file> <count>");
+            return;
+        }
+
+        Set<Integer> drawn = new TreeSet<>();
+        for (String number : args[1].split(",")) drawn.add(Integer.parseInt(number.trim()));
+        Path tickets = Paths.get(args[0]);
+        Path report = Paths.get(args.length > 2 ? args[2] : args[0] + ".report");
+
+        long start = System.nanoTime();
+        Settlement settlement = new BatchTicketValidator(drawn).validate(tickets);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        settlement.writeReport(report, drawn);
+
+        System.out.printf("Settled %d tickets (%d invalid) in %d ms; %d winners paying $%.2f%n",
+                settlement.getValidTickets(), settlement.getInvalidTickets(), elapsedMs,
+                settlement.getWinnerCount(), settlement.getTotalPayout());
+        System.out.println("Report written to " + report);
+    }
+}
@@ -6,7 +6,8 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 import java.util.*;
 
-//BetCard represents a Keno betting card with 80 numbers (1-80) arranged in an 8x10 grid.
+//BetCard represents a Keno betting card with one button per number in the game's pool,
+//arranged in rows of 10 (80 numbers in an 8x10 grid for the standard game).
 //Users can select a specified number of spots (numbers) for their bet, and the card
 //provides visual feedback for selections, matches, and game state.
 
@@ -17,17 +18,26 @@ public class BetCard {
     // Maximum number of spots the user can select for this bet
     private int maxSpots;
 
+    // Variant the card is for; sets how many numbers it shows
+    private final GameDefinition definition;
+
     // Set of currently selected numbers (prevents duplicates)
     private Set<Integer> selectedNumbers;
 
-    // List of all 80 button references for easy access and styling
+    // List of all button references (one per number) for easy access and styling
     private List<Button> numberButtons;
 
     // Flag indicating whether user can currently select numbers
     private boolean selectionEnabled;
 
-    //Constructor initializes the betting card with default values and creates the grid.
+    //Constructor initializes a standard game betting card with default values and creates the grid.
     public BetCard() {
+        this(GameDefinition.STANDARD);
+    }
+
+    //Constructor for a card of any Keno variant
+    public BetCard(GameDefinition definition) {
+        this.definition = definition;
         this.gridPane = new GridPane();
         this.selectedNumbers = new HashSet<>();
         this.numberButtons = new ArrayList<>();
@@ -37,7 +47,7 @@ public class BetCard {
         initializeGrid();
     }
 
-    //Creates the 8x10 grid of number buttons (1-80) with spacing and padding.
+    //Creates the grid of number buttons (8x10 for 1-80) with spacing and padding.
      //All buttons are initially disabled until a bet amount is selected.
 
     private void initializeGrid() {
@@ -46,10 +56,10 @@ public class BetCard {
         gridPane.setVgap(5);  // Vertical gap
         gridPane.setPadding(new javafx.geometry.Insets(10));
 
-        // Create 8x10 grid of buttons (numbers 1-80)
+        // Create grid of buttons, row by row; the last row may be partly empty
         int number = 1;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < definition.getGridRows(); row++) {
+            for (int col = 0; col < definition.getGridColumns() && number <= definition.getPoolSize(); col++) {
                 Button button = createNumberButton(number);
                 numberButtons.add(button);
                 gridPane.add(button, col, row);
@@ -59,7 +69,7 @@ public class BetCard {
     }
 
     //Creates a single number button with the specified number.
-     //param number The number to display on the button (1-80)
+     //param number The number to display on the button (1 to the pool size)
      //return Configured Button object with event handler
 
     private Button createNumberButton(int number) {
@@ -129,35 +139,39 @@ public class BetCard {
     }
 
     //Automatically selects random numbers for the user (Quick Pick feature).
-     //Selects exactly 'maxSpots' unique random numbers from 1-80.
+     //Selects exactly 'maxSpots' unique random numbers from the pool.
 
     public void quickPick() {
         // Only allow quick pick if selection is enabled and spots are set
         if (!selectionEnabled || maxSpots == 0) return;
 
-        // Clear any existing selections
-        selectedNumbers.clear();
-        resetAllButtons();
-
         // Generate random unique numbers
         List<Integer> allNumbers = new ArrayList<>();
-        for (int i = 1; i <= 80; i++) {
+        for (int i = 1; i <= definition.getPoolSize(); i++) {
             allNumbers.add(i);
         }
         Collections.shuffle(allNumbers);  // Randomize the order
 
         // Select first 'maxSpots' numbers from shuffled list
-        for (int i = 0; i < maxSpots; i++) {
-            int number = allNumbers.get(i);
+        applyPicks(allNumbers.subList(0, maxSpots));
+    }
+
+    //Selects the given numbers for the user (used by Quick Pick and Suggested Picks).
+     //Replaces any existing selection; ignored if selection is not enabled or the count is wrong.
+
+    public void applyPicks(Collection<Integer> numbers) {
+        if (!selectionEnabled || numbers.size() != maxSpots) return;
+
+        // Clear any existing selections
+        selectedNumbers.clear();
+        resetAllButtons();
+
+        for (int number : numbers) {
             selectedNumbers.add(number);
 
-            // Find and highlight the corresponding button in gold
-            for (Button button : numberButtons) {
-                if (Integer.parseInt(button.getText()) == number) {
-                    button.setStyle("-fx-background-color: gold; -fx-font-size: 14px; -fx-font-weight: bold;");
-                    break;
-                }
-            }
+            // Highlight the corresponding button in gold
+            Button button = numberButtons.get(number - 1);
+            button.setStyle("-fx-background-color: gold; -fx-font-size: 14px; -fx-font-weight: bold;");
         }
 
         updateButtonStates();
@@ -213,12 +227,16 @@ public class BetCard {
      // Light blue: Numbers that were neither selected nor drawn
 
     public void highlightMatches(Set<Integer> drawnNumbers) {
+        KenoEvents.Highlight event = new KenoEvents.Highlight();
+        event.begin();
+        int matches = 0;
         for (Button button : numberButtons) {
             int buttonNumber = Integer.parseInt(button.getText());
 
             if (selectedNumbers.contains(buttonNumber) && drawnNumbers.contains(buttonNumber)) {
                 // This number was selected AND drawn - highlight as match (WIN)
                 button.setStyle("-fx-background-color: limegreen; -fx-text-fill: white; -fx-font-size: 14px; -fx-font-weight: bold;");
+                matches++;
             } else if (selectedNumbers.contains(buttonNumber)) {
                 // This number was selected but NOT drawn
                 button.setStyle("-fx-background-color: gold; -fx-font-size: 14px; -fx-font-weight: bold;");
@@ -230,6 +248,10 @@ public class BetCard {
                 button.setStyle("-fx-background-color: lightblue; -fx-font-size: 14px; -fx-font-weight: bold;");
             }
         }
+
+        event.buttons = numberButtons.size();
+        event.matches = matches;
+        event.commit();
     }
 
     // Getters
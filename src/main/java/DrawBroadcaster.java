@@ -0,0 +1,281 @@
+// DrawBroadcaster.java - Pushes each drawing to many passive displays over NIO
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+//DrawBroadcaster sends every drawing to all connected displays from a single
+//selector thread using non-blocking sockets, so thousands of screens cost one
+//thread. Each drawing is encoded once into a small binary frame:
+//
+//  byte 0      'K' (frame marker)
+//  byte 1      bitmap length in bytes (10 for the 80 number game)
+//  bytes 2-5   drawing number (big-endian int)
+//  bytes 6-    drawing bitmap, number n is bit (n-1) % 8 of byte (n-1) / 8
+//
+//Every client has a bounded queue of frames waiting to be written. A client that
+//falls so far behind that its queue is full is disconnected instead of holding
+//memory or slowing everyone else down. Displays only read; anything they send is discarded.
+
+public class DrawBroadcaster {
+    // Frame marker byte
+    static final byte FRAME_MARKER = 'K';
+
+    // Frames a client may have waiting before it is dropped
+    private static final int MAX_QUEUED_FRAMES = 32;
+
+    // Numbers in the game's pool; sets the bitmap length
+    private final int poolSize;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+
+    // Frames published by other threads, picked up by the selector thread
+    private final ConcurrentLinkedQueue<ByteBuffer> published = new ConcurrentLinkedQueue<>();
+
+    // Counters readable from any thread
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong clientsDropped = new AtomicLong();
+    private volatile int clientCount;
+
+    private volatile boolean running;
+    private Thread selectorThread;
+
+    //Binds a standard game feed to a port (0 picks a free port)
+    public DrawBroadcaster(int port) throws IOException {
+        this(port, GameDefinition.STANDARD.getPoolSize());
+    }
+
+    //Binds a feed for a game with the given pool size to a port (0 picks a free port)
+    public DrawBroadcaster(int port, int poolSize) throws IOException {
+        this.poolSize = poolSize;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    //Starts the selector thread
+
+    public void start() {
+        running = true;
+        selectorThread = new Thread(this::runLoop, "keno-broadcast");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    //Stops the selector thread and disconnects every client. A feed that was never
+     //started just releases its port.
+
+    public void stop() {
+        running = false;
+        if (selectorThread == null) {
+            // The loop that closes them never ran
+            closeQuietly(serverChannel);
+            closeQuietly(selector);
+            published.clear();
+            return;
+        }
+        selector.wakeup();
+        try {
+            selectorThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Queues a drawing for every connected display. Safe to call from any thread.
+     //Dropped while the feed is not running, since nothing would ever send it.
+
+    public void publish(int drawingNumber, Set<Integer> drawnNumbers) {
+        if (!running) return;
+        published.add(encode(drawingNumber, drawnNumbers, poolSize));
+        selector.wakeup();
+    }
+
+    //Encodes one drawing as a frame (see class comment)
+
+    static ByteBuffer encode(int drawingNumber, Set<Integer> drawnNumbers, int poolSize) {
+        int bitmapBytes = (poolSize + 7) / 8;
+        ByteBuffer frame = ByteBuffer.allocate(6 + bitmapBytes);
+        frame.put(FRAME_MARKER);
+        frame.put((byte) bitmapBytes);
+        frame.putInt(drawingNumber);
+        byte[] bitmap = new byte[bitmapBytes];
+        for (int num : drawnNumbers) {
+            bitmap[(num - 1) >>> 3] |= (byte) (1 << ((num - 1) & 7));
+        }
+        frame.put(bitmap);
+        frame.flip();
+        return frame.asReadOnlyBuffer();
+    }
+
+    //Port the feed is listening on
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    //Displays currently connected
+
+    public int getClientCount() {
+        return clientCount;
+    }
+
+    //Displays disconnected for falling behind
+
+    public long getClientsDropped() {
+        return clientsDropped.get();
+    }
+
+    //Frames fully written to displays
+
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    //Selector loop: accept, fan out new frames, flush writable clients
+
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                fanOut();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Client client = (Client) key.attachment();
+                        if (key.isReadable()) discardInput(client);
+                        if (key.isValid() && key.isWritable()) flush(client);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Only the selector itself failing ends the feed; connection errors are handled per client
+            System.err.println("Display feed stopped: " + e.getMessage());
+        } finally {
+            running = false;  // later publish calls are dropped
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+            published.clear();
+        }
+    }
+
+    //Accepts every pending display. A failure only affects that connection (or, if accept
+     //itself fails, e.g. out of file descriptors, waits for the next select); the feed keeps running.
+
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException e) {
+                System.err.println("Could not accept display: " + e.getMessage());
+                return;
+            }
+            if (channel == null) return;
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Client client = new Client(channel);
+                client.key = channel.register(selector, SelectionKey.OP_READ, client);
+                clientCount++;
+            } catch (IOException e) {
+                // The display reset before we finished setting it up
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    //Adds every newly published frame to each client's queue and tries to send it right away
+
+    private void fanOut() {
+        ByteBuffer frame;
+        while ((frame = published.poll()) != null) {
+            for (SelectionKey key : selector.keys()) {
+                if (!(key.attachment() instanceof Client) || !key.isValid()) continue;
+                Client client = (Client) key.attachment();
+                if (client.queue.size() >= MAX_QUEUED_FRAMES) {
+                    clientsDropped.incrementAndGet();
+                    close(client);
+                    continue;
+                }
+                client.queue.addLast(frame.duplicate());  // Shares the encoded bytes
+                flush(client);
+            }
+        }
+    }
+
+    //Writes as much of the client's queue as the socket takes; waits for OP_WRITE otherwise
+
+    private void flush(Client client) {
+        try {
+            while (!client.queue.isEmpty()) {
+                ByteBuffer head = client.queue.peekFirst();
+                client.channel.write(head);
+                if (head.hasRemaining()) break;  // Socket buffer full
+                client.queue.removeFirst();
+                framesSent.incrementAndGet();
+            }
+            int interest = client.queue.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+            if (client.key.isValid()) client.key.interestOps(interest);
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    private void discardInput(Client client) {
+        try {
+            client.readBuffer.clear();
+            if (client.channel.read(client.readBuffer) < 0) close(client);
+        } catch (IOException e) {
+            close(client);
+        }
+    }
+
+    private void close(Client client) {
+        if (client.key.isValid()) {
+            client.key.cancel();
+            clientCount--;
+        }
+        closeQuietly(client.channel);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Nothing more to do for a connection being dropped
+        }
+    }
+
+    //Per-display state, only touched by the selector thread
+
+    private static class Client {
+        final SocketChannel channel;
+        final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        final ByteBuffer readBuffer = ByteBuffer.allocate(64);
+        SelectionKey key;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
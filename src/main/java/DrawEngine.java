@@ -0,0 +1,336 @@
+// DrawEngine.java - Scheduled drawings with batched ticket settlement
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+//DrawEngine runs drawings on a fixed schedule and settles every ticket submitted
+//for each one. Tickets are only queued when they arrive; the draw thread takes the
+//whole open batch, runs one drawing and settles the batch with GameState's matching
+//and payout rules. Submitting threads never touch the GameState, so it stays
+//single-threaded like it is in the JavaFX game.
+
+public class DrawEngine {
+    // Settled results are kept for this many drawings, then dropped
+    private static final int RESULT_RETENTION_DRAWINGS = 1000;
+
+    // Time for each runDraw: drawing plus settling its whole batch (see MetricsRegistry)
+    private static final LatencyHistogram DRAW_TIME = MetricsRegistry.global().histogram("engine_draw_time");
+
+    // Engine state used by the draw thread only
+    private final GameState gameState;
+
+    // Ticket ids
+    private final AtomicLong nextTicketId = new AtomicLong(1);
+
+    // Every ticket still retained, pending or settled
+    private final ConcurrentHashMap<Long, Ticket> tickets = new ConcurrentHashMap<>();
+
+    // Tickets waiting for the next drawing; swapped out whole by the draw thread
+    private final Object batchLock = new Object();
+    private List<Ticket> openBatch = new ArrayList<>();
+    private int openDrawingNumber = 1;
+
+    // Ticket ids settled by each retained drawing, oldest first
+    private final ArrayDeque<long[]> settledByDrawing = new ArrayDeque<>();
+
+    // Latest drawing, published for readers on other threads
+    private volatile Set<Integer> lastDrawnNumbers = Collections.emptySet();
+    private volatile int lastDrawingNumber = 0;
+
+    // Told about every drawing once its tickets are settled (drawing number, numbers)
+    private final List<BiConsumer<Integer, Set<Integer>>> drawListeners = new CopyOnWriteArrayList<>();
+
+    // Runs the drawing schedule
+    private ScheduledExecutorService scheduler;
+
+    //Creates a standard game engine without a progressive jackpot
+    public DrawEngine() {
+        this(GameDefinition.STANDARD, null);
+    }
+
+    //Creates a standard game engine whose tickets feed and can win the given jackpot pool
+    public DrawEngine(JackpotPool jackpotPool) {
+        this(GameDefinition.STANDARD, jackpotPool);
+    }
+
+    //Creates an engine for any variant, with an optional jackpot pool (null for none)
+    public DrawEngine(GameDefinition definition, JackpotPool jackpotPool) {
+        this(definition, jackpotPool, new DrawHistory(definition.getPoolSize()));
+    }
+
+    //Creates an engine that records its drawings into the given history
+     //(an OffHeapDrawHistory for long-running servers)
+
+    public DrawEngine(GameDefinition definition, JackpotPool jackpotPool, DrawHistory drawHistory) {
+        this.gameState = new GameState(definition, drawHistory);
+        gameState.setJackpotPool(jackpotPool);
+    }
+
+    //Queues a ticket for the next drawing and returns it (status PENDING).
+     //Throws IllegalArgumentException if the ticket is not a valid Keno ticket.
+
+    public Ticket submit(int spots, Set<Integer> numbers) {
+        gameState.getDefinition().validateTicket(spots, numbers);
+        Ticket ticket;
+        synchronized (batchLock) {
+            ticket = new Ticket(nextTicketId.getAndIncrement(), openDrawingNumber, spots, new TreeSet<>(numbers));
+            openBatch.add(ticket);
+        }
+        tickets.put(ticket.getId(), ticket);
+        return ticket;
+    }
+
+    //Looks up a ticket by id (null if unknown or no longer retained)
+
+    public Ticket getTicket(long id) {
+        return tickets.get(id);
+    }
+
+    //Runs one drawing and settles every ticket queued for it.
+     //Called by the schedule; may also be called directly when no schedule is running.
+     //If the drawing itself fails, the open batch keeps waiting for the next one; if
+     //settling fails part way, the tickets not yet settled are rejected, never left pending.
+
+    public synchronized int runDraw() {
+        long startNanos = System.nanoTime();
+        // Draw before taking the batch, so a failure leaves the batch and its number as they were
+        Set<Integer> drawn = gameState.runDrawing();
+        int drawingNumber = gameState.getCurrentDrawingNumber();
+
+        long cutoffNanos = System.nanoTime();  // Tickets arriving after this wait for the next drawing
+        List<Ticket> batch;
+        synchronized (batchLock) {
+            batch = openBatch;
+            openBatch = new ArrayList<>();
+            openDrawingNumber = drawingNumber + 1;
+        }
+
+        // Match on bitmaps and settle each ticket with one snapshot publish
+        int poolSize = gameState.getDefinition().getPoolSize();
+        long[] drawMask = NumberMask.toMask(drawn, poolSize);
+        long[] batchIds = new long[batch.size()];
+        int settled = 0;
+        try {
+            for (; settled < batch.size(); settled++) {
+                Ticket ticket = batch.get(settled);
+                int matches = NumberMask.countMatches(NumberMask.toMask(ticket.getNumbers(), poolSize), drawMask);
+                double winnings = gameState.settleTicket(ticket.getSpots(), ticket.getNumbers(), matches);
+                ticket.settle(matches, winnings, cutoffNanos);
+                batchIds[settled] = ticket.getId();
+            }
+        } finally {
+            for (int i = settled; i < batch.size(); i++) {
+                batch.get(i).reject(cutoffNanos);
+                batchIds[i] = batch.get(i).getId();
+            }
+            lastDrawnNumbers = Collections.unmodifiableSet(new TreeSet<>(drawn));
+            lastDrawingNumber = drawingNumber;
+            retire(batchIds);
+        }
+
+        DRAW_TIME.record(System.nanoTime() - startNanos);
+
+        for (BiConsumer<Integer, Set<Integer>> listener : drawListeners) {
+            listener.accept(drawingNumber, lastDrawnNumbers);
+        }
+        return drawingNumber;
+    }
+
+    //Registers a callback run on the draw thread after each drawing settles.
+     //Listeners should hand work off quickly (e.g. queue a broadcast) to keep draws on time.
+
+    public void addDrawListener(BiConsumer<Integer, Set<Integer>> listener) {
+        drawListeners.add(listener);
+    }
+
+    //Starts running drawings every interval
+
+    public void start(long interval, TimeUnit unit) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "keno-draw");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::runDrawSafely, interval, interval, unit);
+    }
+
+    //Stops the drawing schedule and waits briefly for a drawing in progress to settle
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    //Number of the drawing that newly submitted tickets will play in
+
+    public int getOpenDrawingNumber() {
+        synchronized (batchLock) {
+            return openDrawingNumber;
+        }
+    }
+
+    //Numbers drawn in the most recent drawing
+
+    public Set<Integer> getLastDrawnNumbers() {
+        return lastDrawnNumbers;
+    }
+
+    //Number of the most recent drawing (0 before the first)
+
+    public int getLastDrawingNumber() {
+        return lastDrawingNumber;
+    }
+
+    //Variant the engine draws; fixed for the engine's life, so readable from any thread
+
+    public GameDefinition getDefinition() {
+        return gameState.getDefinition();
+    }
+
+    //Jackpot pool the engine's tickets feed (null for none).
+     //Not tied to the draw thread: the pool can be read from any thread.
+
+    public JackpotPool getJackpotPool() {
+        return gameState.getJackpotPool();
+    }
+
+    //Writes every ticket this engine settles to an audit log (null to stop).
+     //Call before start(); the log is only used from the draw thread.
+
+    public synchronized void setAuditLog(AuditLog auditLog) {
+        gameState.setAuditLog(auditLog);
+    }
+
+    //Takes drawings from a pregenerator so the RNG's cost stays off the draw deadline
+     //(null to generate each drawing when it runs). Call before start().
+
+    public synchronized void setDrawSource(DrawPregenerator drawSource) {
+        gameState.setDrawSource(drawSource);
+    }
+
+    //History of every drawing run by this engine. Only an OffHeapDrawHistory may be
+     //read while the engine is drawing; a heap DrawHistory is for the draw thread.
+
+    public DrawHistory getDrawHistory() {
+        return gameState.getDrawHistory();
+    }
+
+    //Total paid out across every settled ticket
+
+    public synchronized double getTotalPaid() {
+        return gameState.getTotalWinnings();
+    }
+
+    //A failed drawing must not cancel the schedule, so report it and keep going
+
+    private void runDrawSafely() {
+        try {
+            runDraw();
+        } catch (RuntimeException e) {
+            System.err.println("Could not run drawing: " + e);
+        }
+    }
+
+    //Drops results of drawings older than the retention window
+
+    private void retire(long[] settledIds) {
+        settledByDrawing.addLast(settledIds);
+        while (settledByDrawing.size() > RESULT_RETENTION_DRAWINGS) {
+            for (long id : settledByDrawing.removeFirst()) {
+                tickets.remove(id);
+            }
+        }
+    }
+
+    //One submitted ticket. Settlement fields are written once by the draw thread
+    //and published through the volatile status.
+
+    public static class Ticket {
+        private final long id;
+        private final int drawingNumber;
+        private final int spots;
+        private final Set<Integer> numbers;
+        private int matches;
+        private double winnings;
+        private long cutoffNanos;
+        private long settledNanos;
+        private boolean rejected;
+        private volatile boolean settled;
+
+        Ticket(long id, int drawingNumber, int spots, Set<Integer> numbers) {
+            this.id = id;
+            this.drawingNumber = drawingNumber;
+            this.spots = spots;
+            this.numbers = Collections.unmodifiableSet(numbers);
+        }
+
+        void settle(int matches, double winnings, long cutoffNanos) {
+            this.matches = matches;
+            this.winnings = winnings;
+            this.cutoffNanos = cutoffNanos;
+            this.settledNanos = System.nanoTime();
+            this.settled = true;  // Volatile write publishes the fields above
+        }
+
+        //Marks a ticket its drawing could not settle; it pays nothing and is no longer pending
+
+        void reject(long cutoffNanos) {
+            this.rejected = true;
+            settle(0, 0.0, cutoffNanos);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        //Drawing this ticket plays in
+
+        public int getDrawingNumber() {
+            return drawingNumber;
+        }
+
+        public int getSpots() {
+            return spots;
+        }
+
+        public Set<Integer> getNumbers() {
+            return numbers;
+        }
+
+        //true once the ticket's drawing has run (settled or rejected)
+
+        public boolean isSettled() {
+            return settled;
+        }
+
+        //true if the drawing ran but could not settle this ticket (see runDraw)
+
+        public boolean isRejected() {
+            return settled && rejected;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        public double getWinnings() {
+            return winnings;
+        }
+
+        //Time from the drawing's ticket cutoff until this ticket was settled
+
+        public long getSettlementLatencyNanos() {
+            return settledNanos - cutoffNanos;
+        }
+    }
+}
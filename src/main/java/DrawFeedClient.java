@@ -0,0 +1,107 @@
+// DrawFeedClient.java - Test client standing in for passive result displays
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+
+//DrawFeedClient opens one or many connections to a DrawBroadcaster and decodes
+//the frames it receives, so the feed can be tested without the venue's screens.
+//All connections share one selector; the first connection prints each drawing.
+//Usage: DrawFeedClient [host] [port] [connections]
+
+public class DrawFeedClient {
+
+    //Decodes one complete frame at the buffer's position; returns null if more bytes are needed.
+     //On success the buffer is advanced past the frame.
+
+    static Drawing decode(ByteBuffer buffer) {
+        if (buffer.remaining() < 2) return null;
+        int start = buffer.position();
+        if (buffer.get(start) != DrawBroadcaster.FRAME_MARKER) {
+            throw new IllegalStateException("not a draw frame");
+        }
+        int bitmapBytes = buffer.get(start + 1) & 0xFF;
+        if (buffer.remaining() < 6 + bitmapBytes) return null;
+
+        buffer.position(start + 2);
+        int drawingNumber = buffer.getInt();
+        Set<Integer> numbers = new TreeSet<>();
+        for (int i = 0; i < bitmapBytes; i++) {
+            int bits = buffer.get() & 0xFF;
+            for (int b = 0; b < 8; b++) {
+                if ((bits & (1 << b)) != 0) numbers.add(i * 8 + b + 1);
+            }
+        }
+        return new Drawing(drawingNumber, numbers);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8081;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        Selector selector = Selector.open();
+        for (int i = 0; i < connections; i++) {
+            SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Object[]{i, ByteBuffer.allocate(1024)});
+        }
+        System.out.println("Connected " + connections + " display(s) to " + host + ":" + port);
+
+        long frames = 0;
+        while (!selector.keys().isEmpty()) {
+            selector.select();
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Object[] state = (Object[]) key.attachment();
+                ByteBuffer buffer = (ByteBuffer) state[1];
+                SocketChannel channel = (SocketChannel) key.channel();
+
+                if (channel.read(buffer) < 0) {
+                    key.cancel();
+                    channel.close();
+                    continue;
+                }
+                buffer.flip();
+                Drawing drawing;
+                while ((drawing = decode(buffer)) != null) {
+                    frames++;
+                    if ((int) state[0] == 0) {
+                        System.out.println("Drawing " + drawing.getDrawingNumber() + ": " + drawing.getNumbers() +
+                                " (" + frames + " frames received)");
+                    }
+                }
+                buffer.compact();
+            }
+        }
+        System.out.println("Feed closed after " + frames + " frames");
+    }
+
+    //One decoded drawing
+
+    static class Drawing {
+        private final int drawingNumber;
+        private final Set<Integer> numbers;
+
+        Drawing(int drawingNumber, Set<Integer> numbers) {
+            this.drawingNumber = drawingNumber;
+            this.numbers = numbers;
+        }
+
+        int getDrawingNumber() {
+            return drawingNumber;
+        }
+
+        Set<Integer> getNumbers() {
+            return numbers;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// DrawHistory.java - Compact record of past drawings
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//DrawHistory stores every drawing as a packed bitmap (see NumberMask) in one
+//growable long[] so millions of draws cost a few bytes each instead of a
+//HashSet<Integer> per draw. Drawings are addressed by a 0-based index in the
+//order they were appended.
+//
+//OffHeapDrawHistory overrides the storage methods (append, word, copyDraw, size)
+//to keep the bitmaps outside the Java heap for very long histories; the
+//analytics (DrawHistoryIndex, SubsetFrequencyMiner) only use those methods, so
+//they work with either.
+
+public class DrawHistory {
+    // Size of the number pool (80 for standard Keno)
+    private final int poolSize;
+
+    // Number of longs used per drawing
+    private final int wordsPerDraw;
+
+    // Packed drawings, wordsPerDraw longs each
+    private long[] words;
+
+    // Number of drawings stored
+    private int size;
+
+    //Creates an empty history for the standard 80 number pool
+    public DrawHistory() {
+        this(80);
+    }
+
+    //Creates an empty history for a pool of the given size
+    public DrawHistory(int poolSize) {
+        this.poolSize = poolSize;
+        this.wordsPerDraw = NumberMask.wordsFor(poolSize);
+        this.words = new long[0];  // allocated on first append
+        this.size = 0;
+    }
+
+    //Appends a drawing and returns its index
+
+    public int append(Set<Integer> drawnNumbers) {
+        return append(NumberMask.toMask(drawnNumbers, poolSize));
+    }
+
+    //Appends a drawing already packed as a bitmap and returns its index
+
+    public int append(long[] mask) {
+        int offset = size * wordsPerDraw;
+        if (offset + wordsPerDraw > words.length) {
+            words = Arrays.copyOf(words, Math.max(wordsPerDraw * 1024, words.length * 2));
+        }
+        System.arraycopy(mask, 0, words, offset, wordsPerDraw);
+        return size++;
+    }
+
+    //Returns one word of a stored drawing's bitmap
+
+    public long word(int draw, int w) {
+        return words[draw * wordsPerDraw + w];
+    }
+
+    //Copies a stored drawing's bitmap into dst (length wordsPerDraw)
+
+    public void copyDraw(int draw, long[] dst) {
+        System.arraycopy(words, draw * wordsPerDraw, dst, 0, wordsPerDraw);
+    }
+
+    //Returns the numbers of a stored drawing
+
+    public Set<Integer> getNumbers(int draw) {
+        long[] mask = new long[wordsPerDraw];
+        copyDraw(draw, mask);
+        return NumberMask.toSet(mask);
+    }
+
+    //Number of drawings stored
+
+    public int size() {
+        return size;
+    }
+
+    //Size of the number pool
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    //Number of longs used per drawing
+
+    public int getWordsPerDraw() {
+        return wordsPerDraw;
+    }
+}
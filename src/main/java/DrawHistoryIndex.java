@@ -0,0 +1,245 @@
+// DrawHistoryIndex.java - Posting bitmaps over the drawing history
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//DrawHistoryIndex keeps one bitmap per number with one bit per drawing
+//(bit d of number n's bitmap is set when n was drawn in drawing d).
+//Co-occurrence questions become word-wide ANDs and popcounts:
+// - "how many of the last N draws contained all of {7, 23, 51}"
+// - "in which draws did this ticket hit at least 6"
+//Ticket hit counts are computed with a bit-sliced adder, so 64 drawings are
+//counted at once without ever unpacking a drawing.
+//With 20 of 80 numbers drawn each bitmap is about 25% ones, which is already
+//close to its entropy, so the bitmaps are stored as plain words rather than
+//run-length compressed; that keeps every query branch-free.
+
+public class DrawHistoryIndex {
+    // Size of the number pool (80 for standard Keno)
+    private final int poolSize;
+
+    // postings[n] is the bitmap of drawings containing number n (index 0 unused)
+    private long[][] postings;
+
+    // Number of drawings indexed
+    private int size;
+
+    //Creates an empty index for the standard 80 number pool
+    public DrawHistoryIndex() {
+        this(80);
+    }
+
+    //Creates an empty index for a pool of the given size
+    public DrawHistoryIndex(int poolSize) {
+        this.poolSize = poolSize;
+        this.postings = new long[poolSize + 1][16];
+        this.size = 0;
+    }
+
+    //Builds an index over every drawing in a history
+
+    public static DrawHistoryIndex build(DrawHistory history) {
+        DrawHistoryIndex index = new DrawHistoryIndex(history.getPoolSize());
+        long[] mask = new long[history.getWordsPerDraw()];
+        for (int d = 0; d < history.size(); d++) {
+            history.copyDraw(d, mask);
+            index.add(mask);
+        }
+        return index;
+    }
+
+    //Indexes the next drawing
+
+    public void add(Set<Integer> drawnNumbers) {
+        add(NumberMask.toMask(drawnNumbers, poolSize));
+    }
+
+    //Indexes the next drawing, given as a packed bitmap
+
+    public void add(long[] mask) {
+        int word = size >>> 6;
+        if (word >= postings[1].length) {
+            int newLength = postings[1].length * 2;
+            for (int n = 1; n <= poolSize; n++) {
+                postings[n] = Arrays.copyOf(postings[n], newLength);
+            }
+        }
+
+        long bit = 1L << size;
+        for (int w = 0; w < mask.length; w++) {
+            long bits = mask[w];
+            while (bits != 0) {
+                int number = (w << 6) + Long.numberOfTrailingZeros(bits) + 1;
+                postings[number][word] |= bit;
+                bits &= bits - 1;
+            }
+        }
+        size++;
+    }
+
+    //Counts how many of the last N drawings contained every one of the numbers
+
+    public int countContainingAll(int lastN, int... numbers) {
+        int from = Math.max(0, size - lastN);
+        int count = 0;
+        for (int w = from >>> 6; w <= lastWord(); w++) {
+            long bits = rangeMask(w, from);
+            for (int num : numbers) {
+                bits &= postings[num][w];
+            }
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    //Counts how many of the last N drawings hit at least minHits of the ticket's numbers
+
+    public int countWithAtLeast(Collection<Integer> ticket, int minHits, int lastN) {
+        int from = Math.max(0, size - lastN);
+        int[] numbers = toArray(ticket);
+        long[] slices = new long[sliceCount(numbers.length)];
+        int count = 0;
+        for (int w = from >>> 6; w <= lastWord(); w++) {
+            sumTicket(numbers, w, slices);
+            count += Long.bitCount(atLeast(slices, minHits) & rangeMask(w, from));
+        }
+        return count;
+    }
+
+    //Returns the indexes of the last N drawings where the ticket hit at least minHits
+
+    public int[] drawsWithAtLeast(Collection<Integer> ticket, int minHits, int lastN) {
+        int from = Math.max(0, size - lastN);
+        int[] numbers = toArray(ticket);
+        long[] slices = new long[sliceCount(numbers.length)];
+        int[] result = new int[16];
+        int found = 0;
+        for (int w = from >>> 6; w <= lastWord(); w++) {
+            sumTicket(numbers, w, slices);
+            long bits = atLeast(slices, minHits) & rangeMask(w, from);
+            while (bits != 0) {
+                if (found == result.length) {
+                    result = Arrays.copyOf(result, found * 2);
+                }
+                result[found++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    //Counts, for each possible hit count 0..ticket size, how many of the last N
+    //drawings the ticket hit exactly that many times
+
+    public long[] hitHistogram(Collection<Integer> ticket, int lastN) {
+        return hitHistogram(toArray(ticket), lastN);
+    }
+
+    //Same as hitHistogram(Collection, int) for a ticket held as an int array
+
+    public long[] hitHistogram(int[] ticket, int lastN) {
+        int from = Math.max(0, size - lastN);
+        int spots = ticket.length;
+        long[] slices = new long[sliceCount(spots)];
+        long[] histogram = new long[spots + 1];
+        for (int w = from >>> 6; w <= lastWord(); w++) {
+            sumTicket(ticket, w, slices);
+            long valid = rangeMask(w, from);
+            long previous = valid;  // Every drawing has at least 0 hits
+            for (int k = 1; k <= spots; k++) {
+                long current = atLeast(slices, k) & valid;
+                histogram[k - 1] += Long.bitCount(previous & ~current);
+                previous = current;
+            }
+            histogram[spots] += Long.bitCount(previous);
+        }
+        return histogram;
+    }
+
+    //Returns the posting bitmap word w for a number (bits past size() are zero)
+
+    public long postingWord(int number, int w) {
+        return postings[number][w];
+    }
+
+    //Number of drawings indexed
+
+    public int size() {
+        return size;
+    }
+
+    //Size of the number pool
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    //Index of the last posting word holding indexed drawings (-1 when empty)
+
+    int lastWord() {
+        return (size - 1) >> 6;
+    }
+
+    //Mask of the drawings in word w that fall inside [from, size)
+
+    long rangeMask(int w, int from) {
+        long mask = -1L;
+        if (w == from >>> 6) {
+            mask &= -1L << (from & 63);
+        }
+        if (w == lastWord() && (size & 63) != 0) {
+            mask &= (1L << (size & 63)) - 1;
+        }
+        return mask;
+    }
+
+    //Number of bit slices needed to count up to maxCount
+
+    static int sliceCount(int maxCount) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, maxCount));
+    }
+
+    //Adds the ticket numbers' posting words for word w into bit slices
+    //(slices[i] holds bit i of each drawing's hit count)
+
+    void sumTicket(int[] ticket, int w, long[] slices) {
+        Arrays.fill(slices, 0L);
+        for (int num : ticket) {
+            long carry = postings[num][w];
+            for (int i = 0; i < slices.length && carry != 0; i++) {
+                long next = slices[i] & carry;
+                slices[i] ^= carry;
+                carry = next;
+            }
+        }
+    }
+
+    //Copies ticket numbers into an int array for the inner loops
+
+    private static int[] toArray(Collection<Integer> ticket) {
+        int[] numbers = new int[ticket.size()];
+        int i = 0;
+        for (int num : ticket) {
+            numbers[i++] = num;
+        }
+        return numbers;
+    }
+
+    //Bitwise comparison of the sliced counts against k, most significant slice first
+
+    static long atLeast(long[] slices, int k) {
+        if (k >= 1 << slices.length) return 0L;
+        long greater = 0L;
+        long equal = -1L;
+        for (int i = slices.length - 1; i >= 0; i--) {
+            if (((k >>> i) & 1) != 0) {
+                equal &= slices[i];
+            } else {
+                greater |= equal & slices[i];
+                equal &= ~slices[i];
+            }
+        }
+        return greater | equal;
+    }
+}
@@ -0,0 +1,155 @@
+// DrawPregenerator.java - Generates upcoming drawings ahead of time on a background thread
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+//DrawPregenerator moves random number generation off the drawing path. A
+//producer thread draws upcoming sets of numbers with the configured RNG and
+//keeps a bounded ring buffer of them full; GameState.runDrawing then only takes
+//the next one, which costs the same few nanoseconds whatever the RNG. That matters
+//for a secure RNG, whose cost (and occasional stall while it reseeds) used to
+//land on the scheduled drawing and show up late on the display.
+//
+//The ring has one producer and one consumer (the thread running the game's
+//drawings), so it needs no locks: each side only writes its own counter and
+//publishes it with a volatile write. If the ring is ever empty, take() draws
+//inline rather than wait, and counts the miss in the metrics.
+//
+//Start the game or server with -Dkeno.rng=secure (SecureRandom, DRBG) or
+//-Dkeno.rng=strong (SecureRandom.getInstanceStrong) to pick the RNG; the
+//default is java.util.Random.
+
+public class DrawPregenerator implements AutoCloseable {
+    // Drawings kept ready by default
+    public static final int DEFAULT_CAPACITY = 64;
+
+    // Producer's nap when the ring is full
+    private static final long FULL_PARK_NANOS = 1_000_000;
+
+    // Times take() found the ring empty
+    private static final MetricsRegistry.Counter MISSES = MetricsRegistry.global().counter("draw_pregen_misses");
+
+    private final GameDefinition definition;
+    private final Random rng;
+
+    // Ring of drawings (numbers in draw order); capacity is a power of two
+    private final int[][] ring;
+    private final int mask;
+
+    // Next slot the consumer takes and the next the producer fills
+    private volatile long head;
+    private volatile long tail;
+
+    private final Thread producer;
+    private volatile boolean running = true;
+
+    //Creates and starts a pregenerator for a definition, drawing with rng
+    public DrawPregenerator(GameDefinition definition, Random rng, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.definition = definition;
+        this.rng = rng;
+        this.ring = new int[size][];
+        this.mask = size - 1;
+        this.producer = new Thread(this::produce, "draw-pregenerator");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    //Creates a pregenerator with the RNG named by -Dkeno.rng (random, secure or strong)
+
+    public static DrawPregenerator fromProperty(GameDefinition definition) {
+        return new DrawPregenerator(definition, rngNamed(System.getProperty("keno.rng", "random")), DEFAULT_CAPACITY);
+    }
+
+    //RNG for a -Dkeno.rng name
+
+    static Random rngNamed(String name) {
+        switch (name) {
+            case "random":
+                return new Random();
+            case "secure":
+                try {
+                    return SecureRandom.getInstance("DRBG");
+                } catch (NoSuchAlgorithmException e) {
+                    return new SecureRandom();
+                }
+            case "strong":
+                try {
+                    return SecureRandom.getInstanceStrong();
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException("no strong SecureRandom on this platform", e);
+                }
+            default:
+                throw new IllegalArgumentException("keno.rng must be random, secure or strong, not " + name);
+        }
+    }
+
+    //Takes the next drawing (numbers in draw order). Called by one thread only.
+     //Never waits: if nothing is ready the drawing is generated on the calling thread.
+
+    public int[] take() {
+        long h = head;
+        if (h == tail) {
+            MISSES.increment();
+            return generate();
+        }
+        int slot = (int) (h & mask);
+        int[] draw = ring[slot];
+        ring[slot] = null;
+        head = h + 1;  // Volatile write hands the slot back to the producer
+        return draw;
+    }
+
+    public GameDefinition getDefinition() {
+        return definition;
+    }
+
+    //Drawings ready to take
+
+    public int available() {
+        return (int) (tail - head);
+    }
+
+    //Stops the producer thread
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    private void produce() {
+        while (running) {
+            long t = tail;
+            if (t - head > mask) {
+                LockSupport.parkNanos(FULL_PARK_NANOS);  // full: wait for the consumer
+                continue;
+            }
+            ring[(int) (t & mask)] = generate();
+            tail = t + 1;  // Volatile write publishes the drawing
+        }
+    }
+
+    //One drawing: drawSize distinct numbers 1..poolSize, like GameState.runDrawing's loop.
+    //Random and SecureRandom are thread-safe, so the inline fallback can share the RNG.
+
+    private int[] generate() {
+        int poolSize = definition.getPoolSize();
+        int[] numbers = new int[definition.getDrawSize()];
+        long[] seen = new long[definition.getWordsPerDraw()];
+        int count = 0;
+        while (count < numbers.length) {
+            int num = rng.nextInt(poolSize) + 1;
+            if (NumberMask.contains(seen, num)) continue;
+            NumberMask.set(seen, num);
+            numbers[count++] = num;
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,216 @@
+// DrawRecordStore.java - Paged on-disk record of every drawing a player played
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+//DrawRecordStore keeps one fixed-size record per played drawing in a file: the
+//drawing number, the drawn numbers and the player's numbers as bitmaps (see
+//NumberMask), the spot count, matches and winnings. The history browser shows
+//it in a virtualized list, so only the rows on screen are ever decoded.
+//
+//Records are read a page (256 records) at a time and the most recently used
+//pages are cached, so scrolling reads the file in large sequential chunks and
+//scrolling back over recent rows does not touch the disk. Appends write straight
+//to the file and drop the cached copy of the page they land in. All methods are
+//synchronized: the auto play worker appends while the FX thread reads.
+
+public class DrawRecordStore implements AutoCloseable {
+    // Records read from disk at a time
+    static final int PAGE_RECORDS = 256;
+
+    // Pages kept in memory
+    private static final int CACHED_PAGES = 16;
+
+    // Bytes before the bitmaps: drawing number, spots, matches, winnings
+    private static final int FIXED_BYTES = 4 + 2 + 2 + 8;
+
+    private final int poolSize;
+    private final int wordsPerDraw;
+    private final int recordBytes;
+    private final FileChannel channel;
+
+    // Path of a temporary store to delete on close, null otherwise
+    private final Path temporaryFile;
+
+    // Number of records in the file
+    private int size;
+
+    // Most recently used pages, by page number
+    private final LinkedHashMap<Integer, ByteBuffer> pageCache = new LinkedHashMap<Integer, ByteBuffer>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    //Opens (or creates) a store in the given file for a pool of the given size
+    public DrawRecordStore(Path file, int poolSize) throws IOException {
+        this(file, poolSize, false);
+    }
+
+    private DrawRecordStore(Path file, int poolSize, boolean temporary) throws IOException {
+        this.poolSize = poolSize;
+        this.wordsPerDraw = NumberMask.wordsFor(poolSize);
+        this.recordBytes = FIXED_BYTES + 2 * 8 * wordsPerDraw;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.temporaryFile = temporary ? file : null;
+        this.size = (int) (channel.size() / recordBytes);
+    }
+
+    //Creates a store in a temporary file that is deleted when the store is closed
+     //(or when the JVM exits)
+
+    public static DrawRecordStore createTemporary(int poolSize) throws IOException {
+        Path file = Files.createTempFile("keno-draws", ".dat");
+        file.toFile().deleteOnExit();
+        return new DrawRecordStore(file, poolSize, true);
+    }
+
+    //Appends one played drawing and returns its index
+
+    public synchronized int append(int drawingNumber, Set<Integer> drawn, Set<Integer> player,
+                                   int spots, int matches, double winnings) {
+        ByteBuffer record = ByteBuffer.allocate(recordBytes).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(drawingNumber);
+        record.putShort((short) spots);
+        record.putShort((short) matches);
+        record.putDouble(winnings);
+        for (long word : NumberMask.toMask(drawn, poolSize)) record.putLong(word);
+        for (long word : NumberMask.toMask(player, poolSize)) record.putLong(word);
+        record.flip();
+
+        int index = size;
+        try {
+            long position = (long) index * recordBytes;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not record drawing", e);
+        }
+        pageCache.remove(index / PAGE_RECORDS);
+        size++;
+        return index;
+    }
+
+    //Reads one record, loading its page if it is not cached
+
+    public synchronized Record get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("record " + index + " of " + size);
+        }
+        ByteBuffer page = pageCache.get(index / PAGE_RECORDS);
+        if (page == null) {
+            page = readPage(index / PAGE_RECORDS);
+            pageCache.put(index / PAGE_RECORDS, page);
+        }
+
+        int offset = (index % PAGE_RECORDS) * recordBytes;
+        int drawingNumber = page.getInt(offset);
+        int spots = page.getShort(offset + 4);
+        int matches = page.getShort(offset + 6);
+        double winnings = page.getDouble(offset + 8);
+        long[] drawn = new long[wordsPerDraw];
+        long[] player = new long[wordsPerDraw];
+        for (int w = 0; w < wordsPerDraw; w++) {
+            drawn[w] = page.getLong(offset + FIXED_BYTES + 8 * w);
+            player[w] = page.getLong(offset + FIXED_BYTES + 8 * (wordsPerDraw + w));
+        }
+        return new Record(drawingNumber, drawn, player, spots, matches, winnings);
+    }
+
+    private ByteBuffer readPage(int pageNumber) {
+        int first = pageNumber * PAGE_RECORDS;
+        int records = Math.min(PAGE_RECORDS, size - first);
+        ByteBuffer page = ByteBuffer.allocate(records * recordBytes).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            long position = (long) first * recordBytes;
+            while (page.hasRemaining()) {
+                int read = channel.read(page, position + page.position());
+                if (read < 0) throw new IOException("draw record file is truncated");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read drawing records", e);
+        }
+        return page;
+    }
+
+    //Number of records stored
+
+    public synchronized int size() {
+        return size;
+    }
+
+    //Closes the file, deleting it if the store was temporary
+
+    @Override
+    public synchronized void close() throws IOException {
+        pageCache.clear();
+        channel.close();
+        if (temporaryFile != null) {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    //One played drawing, decoded from its record
+
+    public static class Record {
+        private final int drawingNumber;
+        private final long[] drawn;
+        private final long[] player;
+        private final int spots;
+        private final int matches;
+        private final double winnings;
+
+        Record(int drawingNumber, long[] drawn, long[] player, int spots, int matches, double winnings) {
+            this.drawingNumber = drawingNumber;
+            this.drawn = drawn;
+            this.player = player;
+            this.spots = spots;
+            this.matches = matches;
+            this.winnings = winnings;
+        }
+
+        public int getDrawingNumber() {
+            return drawingNumber;
+        }
+
+        public Set<Integer> getDrawnNumbers() {
+            return NumberMask.toSet(drawn);
+        }
+
+        public Set<Integer> getPlayerNumbers() {
+            return NumberMask.toSet(player);
+        }
+
+        //Player's numbers that were drawn
+
+        public Set<Integer> getMatchedNumbers() {
+            long[] matched = new long[drawn.length];
+            for (int w = 0; w < drawn.length; w++) matched[w] = drawn[w] & player[w];
+            return NumberMask.toSet(matched);
+        }
+
+        public int getSpots() {
+            return spots;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        public double getWinnings() {
+            return winnings;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+// FxWatchdog.java - Detects stalls of the JavaFX application thread
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+//FxWatchdog checks at a fixed interval that the JavaFX application thread is
+//still responding. A background thread posts a small "ping" task with
+//Platform.runLater and measures how long the FX thread takes to run it; the time
+//includes anything ahead of it, so long handlers (showDrawingResults, resetGame)
+//and floods of runLater calls (animateDrawing) both show up.
+//
+//If a ping waits longer than the threshold, the watchdog captures the FX thread's
+//stack at that moment, which shows what is blocking it, and reports the stall
+//right away on stderr and as a KenoEvents.FxStall Flight Recorder event, so a
+//screen that stays frozen is still reported. When the ping finally runs, the full
+//duration is recorded in a latency histogram, kept in a short list of recent
+//stalls and reported again. Only one ping is outstanding at a time, so a frozen
+//screen costs the watchdog nothing.
+
+public class FxWatchdog {
+    // Recent stalls kept for display
+    private static final int RECENT_STALLS = 20;
+
+    // Stack frames kept per stall
+    private static final int STACK_DEPTH = 12;
+
+    // Runs tasks on the UI thread (Platform::runLater in the game)
+    private final Consumer<Runnable> uiExecutor;
+    private final long intervalMillis;
+    private final long thresholdNanos;
+
+    // Time for every ping to run, and duration of every stall
+    private final LatencyHistogram responseLatency = new LatencyHistogram();
+    private final LatencyHistogram stallDurations = new LatencyHistogram();
+
+    // Ping waiting for the UI thread, if any
+    private final AtomicReference<Ping> outstanding = new AtomicReference<>();
+
+    // Most recent stalls, newest last
+    private final ArrayDeque<Stall> recentStalls = new ArrayDeque<>();
+
+    // Stalls reported while the UI thread was still blocked
+    private final AtomicLong stallsDetected = new AtomicLong();
+
+    // UI thread, learned from the first ping that runs
+    private volatile Thread uiThread;
+
+    private ScheduledExecutorService scheduler;
+
+    //Creates a watchdog that pings through uiExecutor every intervalMillis and
+    //reports pings that wait thresholdMillis or longer
+    public FxWatchdog(Consumer<Runnable> uiExecutor, long intervalMillis, long thresholdMillis) {
+        this.uiExecutor = uiExecutor;
+        this.intervalMillis = intervalMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    //Starts checking on a daemon thread
+
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "fx-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //Stops checking
+
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    //One tick: send a ping if none is waiting, otherwise see whether the waiting one is late
+
+    void check() {
+        Ping ping = outstanding.get();
+        if (ping == null) {
+            Ping next = new Ping(System.nanoTime());
+            outstanding.set(next);
+            uiExecutor.accept(() -> answer(next));
+            return;
+        }
+        long waited = System.nanoTime() - ping.sentNanos;
+        if (ping.stack == null && waited >= thresholdNanos) {
+            // Still blocked: capture what the UI thread is doing right now and report it
+            Thread thread = uiThread;
+            StackTraceElement[] stack = thread == null ? new StackTraceElement[0] : thread.getStackTrace();
+            ping.stack = Arrays.copyOf(stack, Math.min(stack.length, STACK_DEPTH));
+            reportBlocked(ping, waited);
+        }
+    }
+
+    //Reports a stall that is still going on (watchdog thread)
+
+    private void reportBlocked(Ping ping, long waitedNanos) {
+        stallsDetected.incrementAndGet();
+        String blockedIn = describeStack(ping.stack);
+
+        KenoEvents.FxStall event = new KenoEvents.FxStall();
+        event.stallMillis = waitedNanos / 1_000_000;
+        event.blockedIn = blockedIn;
+        event.ended = false;
+        event.commit();
+
+        System.err.println("FX thread blocked for " + waitedNanos / 1_000_000 + " ms" +
+                (blockedIn.isEmpty() ? "" : ", blocked in:\n" + blockedIn));
+    }
+
+    //Runs on the UI thread when a ping gets its turn
+
+    private void answer(Ping ping) {
+        uiThread = Thread.currentThread();
+        long waited = System.nanoTime() - ping.sentNanos;
+        responseLatency.record(waited);
+        if (waited >= thresholdNanos) {
+            recordStall(ping, waited);
+        }
+        outstanding.compareAndSet(ping, null);
+    }
+
+    //Records the full duration of a stall once the ping has run (UI thread)
+
+    private void recordStall(Ping ping, long waitedNanos) {
+        stallDurations.record(waitedNanos);
+        StackTraceElement[] stack = ping.stack;
+        boolean reported = stack != null;
+        Stall stall = new Stall(System.currentTimeMillis(), waitedNanos, reported ? stack : new StackTraceElement[0]);
+        synchronized (recentStalls) {
+            recentStalls.addLast(stall);
+            if (recentStalls.size() > RECENT_STALLS) recentStalls.removeFirst();
+        }
+
+        ping.event.end();
+        ping.event.stallMillis = waitedNanos / 1_000_000;
+        ping.event.blockedIn = stall.describeStack();
+        ping.event.ended = true;
+        ping.event.commit();
+
+        if (reported) {
+            System.err.println("FX thread responded after " + stall.getMillis() + " ms");
+        } else {
+            // Ended between two checks, so it was not reported while blocked
+            System.err.println("FX thread stalled for " + stall.getMillis() + " ms");
+        }
+    }
+
+    private static String describeStack(StackTraceElement[] stack) {
+        StringBuilder text = new StringBuilder();
+        for (StackTraceElement frame : stack) {
+            text.append("    at ").append(frame).append('\n');
+        }
+        return text.toString();
+    }
+
+    //Time for each ping to be run by the UI thread
+
+    public LatencyHistogram getResponseLatency() {
+        return responseLatency;
+    }
+
+    //Duration of each stall past the threshold
+
+    public LatencyHistogram getStallDurations() {
+        return stallDurations;
+    }
+
+    //Number of stalls that have ended and been recorded
+
+    public long getStallCount() {
+        return stallDurations.getCount();
+    }
+
+    //Number of stalls reported while the UI thread was still blocked
+
+    public long getStallsDetected() {
+        return stallsDetected.get();
+    }
+
+    //How long the UI thread has been blocked right now, in ms (0 if it is responding)
+
+    public long getCurrentStallMillis() {
+        Ping ping = outstanding.get();
+        if (ping == null) return 0;
+        long waited = System.nanoTime() - ping.sentNanos;
+        return waited >= thresholdNanos ? waited / 1_000_000 : 0;
+    }
+
+    //Most recent stalls, oldest first
+
+    public List<Stall> getRecentStalls() {
+        synchronized (recentStalls) {
+            return new ArrayList<>(recentStalls);
+        }
+    }
+
+    //A ping waiting for the UI thread. The stack is written by the watchdog
+    //thread and read by the UI thread, hence volatile.
+
+    private static class Ping {
+        private final long sentNanos;
+        private final KenoEvents.FxStall event = new KenoEvents.FxStall();
+        private volatile StackTraceElement[] stack;
+
+        Ping(long sentNanos) {
+            this.sentNanos = sentNanos;
+            event.begin();
+        }
+    }
+
+    //One recorded stall
+
+    public static class Stall {
+        private final long timeMillis;
+        private final long durationNanos;
+        private final StackTraceElement[] stack;
+
+        Stall(long timeMillis, long durationNanos, StackTraceElement[] stack) {
+            this.timeMillis = timeMillis;
+            this.durationNanos = durationNanos;
+            this.stack = stack;
+        }
+
+        //When the stall ended (System.currentTimeMillis)
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public long getMillis() {
+            return durationNanos / 1_000_000;
+        }
+
+        //Top of the UI thread's stack when the stall passed the threshold (may be empty)
+
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+
+        //Stack as indented lines, one frame per line
+
+        public String describeStack() {
+            return FxWatchdog.describeStack(stack);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+// GameDefinition.java - Pool size, draw size, spot counts and payouts of one Keno variant
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//GameDefinition describes one Keno variant: numbers 1..poolSize, drawSize of them
+//drawn per drawing, and a payout table for each spot count that can be played.
+//GameState, DrawEngine, BetCard, LiveOdds and the game screen all read these values
+//from a definition instead of assuming 80/20 with 1/4/8/10 spots, so one engine runs
+//every variant. STANDARD is the North Carolina game the project started with.
+//
+//Payouts are stored as one array per spot count indexed by matches, so looking one
+//up is two array reads. Bitmaps (NumberMask, DrawHistory) are sized with
+//getWordsPerDraw, which is still two longs for the 80 number game.
+
+public final class GameDefinition {
+    // Largest pool a definition may use; keeps binomial tables and grids reasonable
+    public static final int MAX_POOL_SIZE = 200;
+
+    // Numbers per row on the bet card
+    private static final int GRID_COLUMNS = 10;
+
+    //Standard North Carolina Keno: 80 numbers, 20 drawn, 1/4/8/10 spots, per $1 wagered
+    public static final GameDefinition STANDARD = new GameDefinition("North Carolina Keno", 80, 20, Map.of(
+            1, new double[]{0, 2},
+            4, new double[]{0, 0, 1, 5, 75},
+            8, new double[]{0, 0, 0, 0, 2, 12, 50, 750, 10000},
+            10, new double[]{5, 0, 0, 0, 0, 2, 15, 100, 500, 5000, 25000}));
+
+    private final String name;
+    private final int poolSize;
+    private final int drawSize;
+
+    // payouts[spots][matches], null for spot counts that cannot be played
+    private final double[][] payouts;
+
+    // Spot counts that can be played, in increasing order
+    private final SortedSet<Integer> allowedSpots;
+
+    //Creates a definition. payoutTable maps each playable spot count to its payouts
+     //by number of matches (index 0..spots; missing entries pay nothing).
+     //Throws IllegalArgumentException if the sizes or table do not make sense.
+
+    public GameDefinition(String name, int poolSize, int drawSize, Map<Integer, double[]> payoutTable) {
+        if (poolSize < 1 || poolSize > MAX_POOL_SIZE) {
+            throw new IllegalArgumentException("pool size must be between 1 and " + MAX_POOL_SIZE);
+        }
+        if (drawSize < 1 || drawSize > poolSize) {
+            throw new IllegalArgumentException("draw size must be between 1 and the pool size");
+        }
+        if (payoutTable.isEmpty()) {
+            throw new IllegalArgumentException("a game needs at least one playable spot count");
+        }
+
+        this.name = name;
+        this.poolSize = poolSize;
+        this.drawSize = drawSize;
+        this.allowedSpots = Collections.unmodifiableSortedSet(new TreeSet<>(payoutTable.keySet()));
+        this.payouts = new double[allowedSpots.last() + 1][];
+        for (Map.Entry<Integer, double[]> entry : payoutTable.entrySet()) {
+            int spots = entry.getKey();
+            double[] byMatches = entry.getValue();
+            if (spots < 1 || spots > poolSize) {
+                throw new IllegalArgumentException("spot counts must be between 1 and the pool size");
+            }
+            if (byMatches.length > spots + 1) {
+                throw new IllegalArgumentException("payouts for " + spots + " spots list more than " + spots + " matches");
+            }
+            payouts[spots] = Arrays.copyOf(byMatches, spots + 1);
+        }
+    }
+
+    //Payout for a spot count and number of matches; 0 for anything without a prize
+
+    public double payoutFor(int spots, int matches) {
+        if (spots < 0 || spots >= payouts.length || payouts[spots] == null) return 0.0;
+        if (matches < 0 || matches > spots) return 0.0;
+        return payouts[spots][matches];
+    }
+
+    //true if tickets with this many spots can be played
+
+    public boolean isAllowedSpots(int spots) {
+        return spots >= 0 && spots < payouts.length && payouts[spots] != null;
+    }
+
+    //Checks a straight ticket: a playable spot count and that many distinct numbers in the pool.
+     //Throws IllegalArgumentException describing the first problem found.
+
+    public void validateTicket(int spots, Set<Integer> numbers) {
+        if (!isAllowedSpots(spots)) {
+            throw new IllegalArgumentException("spots must be one of " + allowedSpots);
+        }
+        if (numbers.size() != spots) {
+            throw new IllegalArgumentException("expected " + spots + " distinct numbers, got " + numbers.size());
+        }
+        for (int num : numbers) {
+            if (num < 1 || num > poolSize) {
+                throw new IllegalArgumentException("numbers must be between 1 and " + poolSize);
+            }
+        }
+    }
+
+    //Display name of the variant
+
+    public String getName() {
+        return name;
+    }
+
+    //Numbers are 1..poolSize
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    //Numbers drawn per drawing
+
+    public int getDrawSize() {
+        return drawSize;
+    }
+
+    //Spot counts that can be played, in increasing order
+
+    public SortedSet<Integer> getAllowedSpots() {
+        return allowedSpots;
+    }
+
+    //Playable spot counts for display, e.g. "1, 4, 8, or 10"
+
+    public String describeSpots() {
+        List<String> spots = new ArrayList<>();
+        for (int s : allowedSpots) spots.add(String.valueOf(s));
+        if (spots.size() == 1) return spots.get(0);
+        return String.join(", ", spots.subList(0, spots.size() - 1)) + ", or " + spots.get(spots.size() - 1);
+    }
+
+    //Largest spot count that can be played
+
+    public int getMaxSpots() {
+        return allowedSpots.last();
+    }
+
+    //64-bit words in one drawing's bitmap (see NumberMask)
+
+    public int getWordsPerDraw() {
+        return NumberMask.wordsFor(poolSize);
+    }
+
+    //Columns of the bet card grid
+
+    public int getGridColumns() {
+        return Math.min(GRID_COLUMNS, poolSize);
+    }
+
+    //Rows of the bet card grid (the last one may be partly empty)
+
+    public int getGridRows() {
+        return (poolSize + getGridColumns() - 1) / getGridColumns();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + drawSize + " of " + poolSize + ", spots " + allowedSpots + ")";
+    }
+}
@@ -1,6 +1,11 @@
 // Author: Sara Alaidroos, salai3, salai3@uic.edu
 // Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,6 +15,7 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
+import java.io.IOException;
 import java.util.*;
 import javafx.stage.Stage;
 
@@ -36,9 +42,14 @@ public class GamePlayScene {
     private ToggleGroup spotsToggleGroup;
     private ToggleGroup drawingsToggleGroup;
     private Button autoPickButton;
+    private Button suggestedPickButton;
     private Button startDrawingButton;
     private Button resetButton;
     private Button nextDrawingButton;
+    private Button autoPlayButton;
+    private Button stopAutoPlayButton;
+    private TextField autoPlayCountField;
+    private CheckBox skipAnimationCheckBox;
     private BetCard betCard;
     private Label statusMessage;
     private Label selectedSpotsLabel;
@@ -47,8 +58,12 @@ public class GamePlayScene {
     // Results display components
     private Label drawnNumbersDisplay;
     private Label matchesDisplay;
+    private Label oddsDisplay;
     private Label winsDisplay;
     private Label totalWinsDisplay;
+    private Label jackpotDisplay;
+    private Label autoPlayDisplay;
+    private Label statsDisplay;
 
     //layout containers
     private VBox rootLayout;
@@ -58,11 +73,99 @@ public class GamePlayScene {
     //game state
     private boolean drawingInProgress = false;
 
+    // live odds for the drawing being revealed (only touched on the FX thread)
+    private final LiveOdds liveOdds;
+    private final StringBuilder oddsText = new StringBuilder();
+
+    // auto-play: many drawings on one ticket without clicks
+    private static final int MAX_AUTO_PLAY_DRAWINGS = 100000;
+    private static final Duration AUTO_PLAY_REFRESH = Duration.millis(250);  // summary redraw rate
+    private static final Duration AUTO_PLAY_PAUSE = Duration.millis(1000);   // gap between animated drawings
+    private final AutoPlaySummary autoPlaySummary = new AutoPlaySummary();
+    private boolean autoPlaySession = false;          // current session is auto play (FX thread only)
+    private volatile boolean autoPlayActive = false;  // keep starting drawings; cleared by Stop
+    private Thread autoPlayWorker;
+    private volatile boolean autoPlayWorkerRunning = false;  // cleared by the worker before it posts autoPlayWorkerFinished
+    private boolean resetPending = false;             // reset clicked while the worker was stopping (FX thread only)
+    private Timeline autoPlayRefresh;
+
+    // Metrics overlay (Menu > Show Metrics); refreshed at a fixed rate while shown
+    private static final Duration METRICS_REFRESH = Duration.millis(500);
+    private final MetricsRegistry metrics = MetricsRegistry.global();
+    private final LatencyHistogram frameTimes = metrics.histogram("fx_frame_time");
+    private Label metricsOverlay;
+    private Timeline metricsRefresh;
+    private AnimationTimer frameTimer;
+
+    // Drawing reveal: one number every 500 ms, paced by frame time (see animateDrawing)
+    private static final long REVEAL_INTERVAL_NANOS = 500_000_000L;
+    private final LatencyHistogram revealFrameTimes = metrics.histogram("fx_reveal_frame_time");
+    private final MetricsRegistry.Counter revealCatchUps = metrics.counter("fx_reveal_catch_up_frames");
+    private AnimationTimer revealTimer;
+
+    // Every drawing played, on disk for the history window (null if no file could be made)
+    private static final Duration HISTORY_REFRESH = Duration.millis(500);
+    private DrawRecordStore drawRecords;
+
     //intializes gameplay scene references to main app and game state
     public GamePlayScene(KenoGame mainApp, GameState gameState) {
         this.mainApp = mainApp;
         this.gameState = gameState;
+        this.liveOdds = new LiveOdds(gameState.getDefinition());
+        try {
+            this.drawRecords = DrawRecordStore.createTemporary(gameState.getDefinition().getPoolSize());
+        } catch (IOException e) {
+            System.err.println("Drawing history unavailable: " + e.getMessage());
+        }
         initialize();
+        resumeRestoredSession();
+    }
+
+    //picks up a session restored by SessionJournal after a crash: puts the ticket back
+    //on the card and shows the last drawing, so play continues where it stopped
+    private void resumeRestoredSession() {
+        GameStateSnapshot state = gameState.getSnapshot();
+        totalWinsDisplay.setText("Total Won: $" + String.format("%.2f", state.getTotalWinnings()));
+        int spots = state.getPlayerSpots();
+        if (spots == 0 || state.getTotalDrawings() == 0 || state.getPlayerNumbers().size() != spots) return;
+
+        selectToggle(spotsToggleGroup, String.valueOf(spots));
+        selectToggle(drawingsToggleGroup, String.valueOf(state.getTotalDrawings()));
+        betCard.enableSelection(spots);
+        betCard.applyPicks(state.getPlayerNumbers());
+        if (state.getCurrentDrawingNumber() == 0) {
+            updateStatusMessage("Restored your ticket from the last session.");
+            validateStartConditions();
+            return;
+        }
+
+        // a drawing was played: show it and lock the ticket as showDrawingResults would
+        setControlsDisabled(true);
+        Set<Integer> matches = state.getMatches();
+        betCard.highlightMatches(state.getCurrentDrawnNumbers());
+        drawnNumbersDisplay.setText("Drawn Numbers: " + state.getCurrentDrawnNumbers());
+        matchesDisplay.setText("Matches: " + matches.size() + " (" + matches + ")");
+        winsDisplay.setText("This Drawing: $" + String.format("%.2f", state.getCurrentDrawingWinnings()));
+        if (state.hasMoreDrawings()) {
+            nextDrawingButton.setDisable(false);
+            drawingProgressLabel.setText("Restored after drawing " + state.getCurrentDrawingNumber() + " of " +
+                    state.getTotalDrawings() + ". Click 'Next Drawing'.");
+            updateStatusMessage("Restored your session from the last run.");
+        } else {
+            drawingProgressLabel.setText("All drawings complete! Total winnings: $" + String.format("%.2f", state.getTotalWinnings()));
+            startDrawingButton.setDisable(true);
+            updateStatusMessage("Restored your finished session. Click 'Reset' to play again.");
+        }
+    }
+
+    //selects the toggle with the given text, if there is one
+    private static void selectToggle(ToggleGroup group, String text) {
+        for (Toggle toggle : group.getToggles()) {
+            if (((ToggleButton) toggle).getText().equals(text)) {
+                group.selectToggle(toggle);
+                return;
+            }
+        }
     }
 
     //setup layout
@@ -82,21 +185,28 @@ public class GamePlayScene {
         // Menu items
         MenuItem rulesMenuItem = new MenuItem("Rules");
         MenuItem oddsMenuItem = new MenuItem("Odds");
+        MenuItem historyMenuItem = new MenuItem("History");
         MenuItem newLookMenuItem = new MenuItem("New Look");
+        CheckMenuItem metricsMenuItem = new CheckMenuItem("Show Metrics");
         MenuItem exitMenuItem = new MenuItem("Exit");
 
         // Actions
         rulesMenuItem.setOnAction(e -> showRules());
         oddsMenuItem.setOnAction(e -> showOdds());
+        historyMenuItem.setOnAction(e -> showHistory());
+        historyMenuItem.setDisable(drawRecords == null);
         newLookMenuItem.setOnAction(e -> applyNewLook()); // We'll fix this next
+        metricsMenuItem.setOnAction(e -> setMetricsVisible(metricsMenuItem.isSelected()));
         exitMenuItem.setOnAction(e -> System.exit(0));
 
         // Organize Menu Items
         mainMenu.getItems().addAll(
                 rulesMenuItem,
                 oddsMenuItem,
+                historyMenuItem,
                 new SeparatorMenuItem(),
                 newLookMenuItem,
+                metricsMenuItem,
                 new SeparatorMenuItem(),
                 exitMenuItem
         );
@@ -112,9 +222,9 @@ public class GamePlayScene {
         );
     }
 
-    //instates bet card, 80 bit gird
+    //instates bet card, one button per number in the game's pool
     private void createBetCard() {
-        betCard = new BetCard();
+        betCard = new BetCard(gameState.getDefinition());
     }
 
     //handles user select number of drawings
@@ -137,24 +247,15 @@ public class GamePlayScene {
         spotsLabel.setTextFill(Color.web(WHITE));
 
         spotsToggleGroup = new ToggleGroup();
-        ToggleButton spot1 = createToggleButton("1");
-        ToggleButton spot4 = createToggleButton("4");
-        ToggleButton spot8 = createToggleButton("8");
-        ToggleButton spot10 = createToggleButton("10");
-
-        //buttons for toggle group
-        spot1.setToggleGroup(spotsToggleGroup);
-        spot4.setToggleGroup(spotsToggleGroup);
-        spot8.setToggleGroup(spotsToggleGroup);
-        spot10.setToggleGroup(spotsToggleGroup);
-
-        //attach handler for each spot
-        spot1.setOnAction(e -> handleSpotSelection(1));
-        spot4.setOnAction(e -> handleSpotSelection(4));
-        spot8.setOnAction(e -> handleSpotSelection(8));
-        spot10.setOnAction(e -> handleSpotSelection(10));
-
-        HBox spotsBox = new HBox(10, spotsLabel, spot1, spot4, spot8, spot10);
+        HBox spotsBox = new HBox(10, spotsLabel);
+
+        //one button per playable spot count, each in the toggle group with its own handler
+        for (int spots : gameState.getDefinition().getAllowedSpots()) {
+            ToggleButton spotButton = createToggleButton(String.valueOf(spots));
+            spotButton.setToggleGroup(spotsToggleGroup);
+            spotButton.setOnAction(e -> handleSpotSelection(spots));
+            spotsBox.getChildren().add(spotButton);
+        }
         spotsBox.setAlignment(Pos.CENTER_LEFT);
 
         // Drawings selection
@@ -187,6 +288,9 @@ public class GamePlayScene {
         autoPickButton = createActionButton("Auto-pick");
         autoPickButton.setOnAction(e -> handleAutoPick());
 
+        suggestedPickButton = createActionButton("Suggested Picks");
+        suggestedPickButton.setOnAction(e -> handleSuggestedPick());
+
         startDrawingButton = createActionButton("Start Drawing");
         startDrawingButton.setOnAction(e -> handleStartDrawing());
         startDrawingButton.setDisable(true);
@@ -198,9 +302,32 @@ public class GamePlayScene {
         nextDrawingButton.setOnAction(e -> handleNextDrawing());
         nextDrawingButton.setDisable(true);
 
-        HBox actionButtons = new HBox(10, autoPickButton, startDrawingButton, resetButton, nextDrawingButton);
+        HBox actionButtons = new HBox(10, autoPickButton, suggestedPickButton, startDrawingButton, resetButton, nextDrawingButton);
         actionButtons.setAlignment(Pos.CENTER);
 
+        // Auto play
+        Label autoPlayLabel = new Label("Auto Play:");
+        autoPlayLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        autoPlayLabel.setTextFill(Color.web(WHITE));
+
+        autoPlayCountField = new TextField("100");
+        autoPlayCountField.setPrefColumnCount(6);
+
+        skipAnimationCheckBox = new CheckBox("Skip animation");
+        skipAnimationCheckBox.setFont(Font.font("Arial", 12));
+        skipAnimationCheckBox.setTextFill(Color.web(WHITE));
+        skipAnimationCheckBox.setSelected(true);
+
+        autoPlayButton = createActionButton("Auto Play");
+        autoPlayButton.setOnAction(e -> handleAutoPlay());
+
+        stopAutoPlayButton = createActionButton("Stop");
+        stopAutoPlayButton.setOnAction(e -> stopAutoPlay());
+        stopAutoPlayButton.setDisable(true);
+
+        HBox autoPlayBox = new HBox(10, autoPlayLabel, autoPlayCountField, skipAnimationCheckBox, autoPlayButton, stopAutoPlayButton);
+        autoPlayBox.setAlignment(Pos.CENTER_LEFT);
+
         // Status messages
         statusMessage = new Label("Please select number of spots to begin.");
         statusMessage.setFont(Font.font("Arial", FontWeight.BOLD, 14));
@@ -223,7 +350,7 @@ public class GamePlayScene {
                 "-fx-border-width: 2; " +
                 "-fx-border-radius: 8;");
         controls.getChildren().addAll(
-                spotsBox, drawingsBox, actionButtons, statusMessage, selectedSpotsLabel, drawingProgressLabel
+                spotsBox, drawingsBox, actionButtons, autoPlayBox, statusMessage, selectedSpotsLabel, drawingProgressLabel
         );
 
         // Make control panel take full width
@@ -305,6 +432,12 @@ public class GamePlayScene {
         matchesDisplay.setWrapText(true);
         matchesDisplay.setAlignment(Pos.TOP_LEFT);
 
+        oddsDisplay = new Label("Live Odds: ");
+        oddsDisplay.setFont(Font.font("Arial", 12));
+        oddsDisplay.setTextFill(Color.web(WHITE));
+        oddsDisplay.setWrapText(true);
+        oddsDisplay.setAlignment(Pos.TOP_LEFT);
+
         winsDisplay = new Label("This Drawing: $0.00");
         winsDisplay.setFont(Font.font("Arial", FontWeight.BOLD, 14));
         winsDisplay.setTextFill(Color.web(GOLD));
@@ -315,7 +448,25 @@ public class GamePlayScene {
         totalWinsDisplay.setTextFill(Color.web(GOLD));
         totalWinsDisplay.setAlignment(Pos.CENTER);
 
-        VBox resultsContent = new VBox(10, resultsTitle, drawnNumbersDisplay, matchesDisplay, winsDisplay, totalWinsDisplay);
+        jackpotDisplay = new Label("");
+        jackpotDisplay.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        jackpotDisplay.setTextFill(Color.web(PINK));
+        jackpotDisplay.setAlignment(Pos.CENTER);
+        showJackpot();
+
+        autoPlayDisplay = new Label("");
+        autoPlayDisplay.setFont(Font.font("Arial", 12));
+        autoPlayDisplay.setTextFill(Color.web(WHITE));
+        autoPlayDisplay.setWrapText(true);
+        autoPlayDisplay.setAlignment(Pos.TOP_LEFT);
+
+        statsDisplay = new Label("");
+        statsDisplay.setFont(Font.font("Arial", 11));
+        statsDisplay.setTextFill(Color.web(WHITE));
+        statsDisplay.setWrapText(true);
+        statsDisplay.setAlignment(Pos.TOP_LEFT);
+
+        VBox resultsContent = new VBox(10, resultsTitle, drawnNumbersDisplay, matchesDisplay, oddsDisplay, winsDisplay, totalWinsDisplay, jackpotDisplay, autoPlayDisplay, statsDisplay);
         resultsContent.setPadding(new Insets(15));
         resultsContent.setAlignment(Pos.TOP_CENTER);
 
@@ -358,15 +509,87 @@ public class GamePlayScene {
         topContainer.getChildren().add(controlPanel);
         mainContent.setTop(topContainer);
 
+        // Metrics overlay floats over the top right corner without taking clicks
+        metricsOverlay = new Label();
+        metricsOverlay.setFont(Font.font("Monospaced", 12));
+        metricsOverlay.setTextFill(Color.web(WHITE));
+        metricsOverlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.75); -fx-padding: 8; -fx-background-radius: 6;");
+        metricsOverlay.setMouseTransparent(true);
+        metricsOverlay.setVisible(false);
+        StackPane contentStack = new StackPane(mainContent, metricsOverlay);
+        StackPane.setAlignment(metricsOverlay, Pos.TOP_RIGHT);
+        StackPane.setMargin(metricsOverlay, new Insets(10));
+        VBox.setVgrow(contentStack, Priority.ALWAYS);
+
         // Root layout
         rootLayout = new VBox();
         rootLayout.setStyle("-fx-background-color: " + DARK_PURPLE + ";");
-        rootLayout.getChildren().addAll(menuBar, mainContent);
+        rootLayout.getChildren().addAll(menuBar, contentStack);
+    }
+
+    //shows or hides the metrics overlay; frame times are only measured while it is shown
+    private void setMetricsVisible(boolean visible) {
+        if (metricsRefresh == null) {
+            metricsRefresh = new Timeline(new KeyFrame(METRICS_REFRESH, e -> showMetrics()));
+            metricsRefresh.setCycleCount(Timeline.INDEFINITE);
+            frameTimer = new AnimationTimer() {
+                private long lastFrameNanos;
+
+                @Override
+                public void handle(long now) {
+                    if (lastFrameNanos != 0) frameTimes.record(now - lastFrameNanos);
+                    lastFrameNanos = now;
+                }
+
+                @Override
+                public void stop() {
+                    super.stop();
+                    lastFrameNanos = 0;
+                }
+            };
+        }
+        metricsOverlay.setVisible(visible);
+        if (visible) {
+            frameTimer.start();
+            metricsRefresh.play();
+            showMetrics();
+        } else {
+            frameTimer.stop();
+            metricsRefresh.stop();
+        }
+    }
+
+    //redraws the metrics overlay from the registry
+    private void showMetrics() {
+        LatencyHistogram settle = metrics.histogram("keno_settle_time");
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        long maxMb = runtime.maxMemory() / (1024 * 1024);
+        FxWatchdog watchdog = mainApp.getWatchdog();
+        metricsOverlay.setText(String.format(
+                "Draws/s     %8.1f%n" +
+                "Settle p50  %8.1f us%n" +
+                "Settle p99  %8.1f us%n" +
+                "Frame p50   %8.1f ms%n" +
+                "Frame p99   %8.1f ms%n" +
+                "Pulse p99   %8.1f ms%n" +
+                "FX stalls   %8d%n" +
+                "Catch-ups   %8d%n" +
+                "Heap        %5d/%d MB",
+                metrics.counter("keno_draws").ratePerSecond(),
+                settle.percentile(0.50) / 1e3,
+                settle.percentile(0.99) / 1e3,
+                frameTimes.percentile(0.50) / 1e6,
+                frameTimes.percentile(0.99) / 1e6,
+                watchdog.getResponseLatency().percentile(0.99) / 1e6,
+                watchdog.getStallCount(),
+                revealCatchUps.get(),
+                usedMb, maxMb));
     }
 
     //game logic
 
-    //select 1, 4, 8, 10 spots
+    //select one of the playable spot counts (1, 4, 8, 10 in the standard game)
     private void handleSpotSelection(int spots) {
         gameState.setPlayerSpots(spots);
         betCard.enableSelection(spots);
@@ -386,6 +609,47 @@ public class GamePlayScene {
         validateStartConditions();
     }
 
+    //handle suggested picks: numbers that would have paid the most over past drawings.
+    //the search runs off the FX thread; falls back to auto-pick with no history yet
+    private void handleSuggestedPick() {
+        int spots = gameState.getPlayerSpots();
+        if (spots == 0) {
+            statusMessage.setText("Please select number of spots first.");
+            return;
+        }
+        if (gameState.getDrawHistory().size() == 0) {
+            handleAutoPick();
+            updateStatusMessage("No past drawings yet - used Auto-pick instead.");
+            return;
+        }
+
+        // The auto play worker also appends drawings, so only index while no drawing or
+        // auto play is running (the button is disabled then too); search in the background
+        if (drawingInProgress) return;
+        DrawHistoryIndex index = DrawHistoryIndex.build(gameState.getDrawHistory());
+        autoPickButton.setDisable(true);
+        suggestedPickButton.setDisable(true);
+        updateStatusMessage("Finding suggested picks over " + index.size() + " past drawing(s)...");
+
+        Thread search = new Thread(() -> {
+            TicketOptimizer.Result result = new TicketOptimizer(index, gameState.getDefinition()).optimize(spots);
+
+            Platform.runLater(() -> {
+                if (drawingInProgress) return;  // Controls stay locked until the drawing ends
+                autoPickButton.setDisable(false);
+                suggestedPickButton.setDisable(false);
+                if (gameState.getPlayerSpots() != spots) return;  // Player changed spot count meanwhile
+
+                betCard.applyPicks(result.getNumbers());
+                gameState.setPlayerNumbers(betCard.getSelectedNumbers());
+                updateStatusMessage("Suggested picks would have won $" + String.format("%.2f", result.getTotalPayout()) +
+                        " over " + index.size() + " past drawing(s).");
+                validateStartConditions();
+            });
+        }, "keno-suggested-picks");
+        search.setDaemon(true);
+        search.start();
+    }
 
     //handles start button click, begins drawing selection with selected numbers
     private void handleStartDrawing() {
@@ -404,73 +668,135 @@ public class GamePlayScene {
 
     //intiates the next drawing in sequence, updates progress, starts animation
     private void startNextDrawing() {
-        drawingProgressLabel.setText("Drawing " + gameState.getCurrentDrawingNumber() + " of " + gameState.getTotalDrawings());
+        GameStateSnapshot state = gameState.getSnapshot();
+        drawingProgressLabel.setText("Drawing " + state.getCurrentDrawingNumber() + " of " + state.getTotalDrawings());
         drawnNumbersDisplay.setText("Drawn Numbers: Drawing...");
         matchesDisplay.setText("Matches: ");
         winsDisplay.setText("This Drawing: $0.00");
         animateDrawing();
     }
 
-    //animates drawing process by revealing numbers one at time
+    //animates drawing process by revealing numbers one at time, paced by frame time:
+    //a frame that arrives late reveals every number that came due and rebuilds the
+    //labels once, so slow screens finish the drawing on time (see RevealPacer)
     private void animateDrawing() {
         Set<Integer> drawnNumbers = gameState.runDrawing();
         List<Integer> drawnList = new ArrayList<>(drawnNumbers);
         Collections.shuffle(drawnList);
 
-        new Thread(() -> {
-            StringBuilder displayedNumbers = new StringBuilder("Drawn Numbers: ");
-
-            for (int i = 0; i < drawnList.size(); i++) {
-                int number = drawnList.get(i);
-                final String currentDisplay = displayedNumbers.toString() + number;
-
-                Platform.runLater(() -> {
-                    drawnNumbersDisplay.setText(currentDisplay);
-                });
-
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+        // odds before any number is revealed; the snapshot's numbers are immutable
+        GameStateSnapshot state = gameState.getSnapshot();
+        Set<Integer> playerNumbers = state.getPlayerNumbers();
+        liveOdds.reset(state.getPlayerSpots());
+        showLiveOdds();
+
+        RevealPacer pacer = new RevealPacer(drawnList.size(), REVEAL_INTERVAL_NANOS, revealFrameTimes);
+        StringBuilder displayedNumbers = new StringBuilder("Drawn Numbers: ");
+        revealTimer = new AnimationTimer() {
+            private boolean started;
+
+            @Override
+            public void handle(long now) {
+                if (!started) {
+                    pacer.start(now);
+                    started = true;
                 }
-
-                if (i < drawnList.size() - 1) {
-                    displayedNumbers.append(number).append(", ");
+                int from = pacer.getRevealed();
+                int count = pacer.advance(now);
+                if (count > 1) revealCatchUps.increment();
+                for (int i = from; i < from + count; i++) {
+                    int number = drawnList.get(i);
+                    if (i > 0) displayedNumbers.append(", ");
+                    displayedNumbers.append(number);
+                    liveOdds.reveal(playerNumbers.contains(number));
+                }
+                if (count > 0) {
+                    drawnNumbersDisplay.setText(displayedNumbers.toString());
+                    showLiveOdds();
+                }
+                if (pacer.isFinished(now)) {
+                    stop();
+                    revealTimer = null;
+                    showDrawingResults();
                 }
             }
+        };
+        revealTimer.start();
+    }
 
-            Platform.runLater(() -> {
-                showDrawingResults();
-            });
-        }).start();
+    //shows the chance of each final match count and the expected payout so far.
+    //match counts that can no longer happen are left out
+    private void showLiveOdds() {
+        oddsText.setLength(0);
+        oddsText.append("Live Odds (").append(liveOdds.getHits()).append(" hit, ")
+                .append(liveOdds.getRevealed()).append(" drawn):");
+        for (int m = 0; m <= liveOdds.getSpots(); m++) {
+            double p = liveOdds.getProbability(m);
+            if (p > 0) {
+                oddsText.append("\n  ").append(m).append(" match: ").append(String.format("%.2f%%", p * 100));
+            }
+        }
+        oddsText.append("\nExpected payout: $").append(String.format("%.2f", liveOdds.getExpectedPayout()));
+        oddsDisplay.setText(oddsText.toString());
     }
 
     //displays results of current drawing, enable next button if more drawings remaining
     private void showDrawingResults() {
+        KenoEvents.Results event = new KenoEvents.Results();
+        event.begin();
         Set<Integer> matches = gameState.getMatches();
         double winnings = gameState.calculateWinnings(matches.size());
+        GameStateSnapshot state = gameState.getSnapshot();
 
         //highlight matching numbers on card
-        betCard.highlightMatches(gameState.getCurrentDrawnNumbers());
+        betCard.highlightMatches(state.getCurrentDrawnNumbers());
 
         //updates result
         matchesDisplay.setText("Matches: " + matches.size() + " (" + matches + ")");
         winsDisplay.setText("This Drawing: $" + String.format("%.2f", winnings));
-        totalWinsDisplay.setText("Total Won: $" + String.format("%.2f", gameState.getTotalWinnings()));
+        totalWinsDisplay.setText("Total Won: $" + String.format("%.2f", state.getTotalWinnings()));
+        showSessionStats();
+
+        if (autoPlaySession) {
+            autoPlaySummary.record(matches.size(), winnings);
+        }
+        recordDrawing(state, matches.size(), winnings);
+
+        showJackpot();
 
         //message based on result
-        if (matches.size() > 0) {
+        if (JackpotPool.isJackpotTier(state.getPlayerSpots(), matches.size()) && gameState.getJackpotPool() != null) {
+            updateStatusMessage("JACKPOT! You caught all " + matches.size() + " numbers and won $" + String.format("%.2f", winnings) + "!");
+        } else if (matches.size() > 0) {
             updateStatusMessage("Congratulations! You matched " + matches.size() + " numbers and won $" + String.format("%.2f", winnings) + "!");
         } else {
             updateStatusMessage("No matches this drawing. Better luck next time!");
         }
 
+        event.drawingNumber = state.getCurrentDrawingNumber();
+        event.matches = matches.size();
+        event.autoPlay = autoPlaySession;
+        event.commit();
+
         //check for more drawings
-        if (gameState.hasMoreDrawings()) {
+        if (autoPlaySession && autoPlayActive && state.hasMoreDrawings()) {
+            // auto play: start the next drawing after a short pause, no click needed
+            drawingProgressLabel.setText("Auto play: next drawing starting...");
+            PauseTransition pause = new PauseTransition(AUTO_PLAY_PAUSE);
+            pause.setOnFinished(e -> {
+                if (autoPlayActive) startNextDrawing();
+                else finishAutoPlay();
+            });
+            pause.play();
+            return;
+        } else if (autoPlaySession) {
+            finishAutoPlay();
+            return;
+        } else if (state.hasMoreDrawings()) {
             nextDrawingButton.setDisable(false);
             drawingProgressLabel.setText("Ready for next drawing. Click 'Next Drawing'.");
         } else {
-            drawingProgressLabel.setText("All drawings complete! Total winnings: $" + String.format("%.2f", gameState.getTotalWinnings()));
+            drawingProgressLabel.setText("All drawings complete! Total winnings: $" + String.format("%.2f", state.getTotalWinnings()));
             nextDrawingButton.setDisable(true);
             startDrawingButton.setDisable(true);
             updateStatusMessage("Game over! Click 'Reset' to play again.");
@@ -479,6 +805,155 @@ public class GamePlayScene {
         drawingInProgress = false;
     }
 
+    //handles auto play button: runs many drawings on the current ticket without clicks.
+    //with skip animation the drawings run on a worker thread and the summary is redrawn
+    //at a fixed rate; otherwise each drawing is animated and the next starts on its own
+    private void handleAutoPlay() {
+        if (drawingInProgress) return;
+        if (gameState.getPlayerSpots() == 0) {
+            updateStatusMessage("Please select number of spots first.");
+            return;
+        }
+        if (!betCard.isSelectionValid()) {
+            updateStatusMessage("Please select " + gameState.getPlayerSpots() + " numbers or click Auto-pick.");
+            return;
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(autoPlayCountField.getText().trim());
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        if (count < 1 || count > MAX_AUTO_PLAY_DRAWINGS) {
+            updateStatusMessage("Auto play needs between 1 and " + MAX_AUTO_PLAY_DRAWINGS + " drawings.");
+            return;
+        }
+
+        gameState.startNewDrawingSession(count);
+        gameState.setPlayerNumbers(betCard.getSelectedNumbers());
+        autoPlaySummary.reset(gameState.getPlayerSpots(), count);
+
+        setControlsDisabled(true);
+        nextDrawingButton.setDisable(true);
+        stopAutoPlayButton.setDisable(false);
+        drawingInProgress = true;
+        autoPlaySession = true;
+        autoPlayActive = true;
+
+        autoPlayRefresh = new Timeline(new KeyFrame(AUTO_PLAY_REFRESH, e -> showAutoPlaySummary()));
+        autoPlayRefresh.setCycleCount(Timeline.INDEFINITE);
+        autoPlayRefresh.play();
+        showAutoPlaySummary();
+
+        if (skipAnimationCheckBox.isSelected()) {
+            updateStatusMessage("Auto play running " + count + " drawings...");
+            drawingProgressLabel.setText("Auto play in progress (animation skipped)");
+            drawnNumbersDisplay.setText("Drawn Numbers: (auto play)");
+            autoPlayWorker = new Thread(this::runAutoPlayWithoutAnimation, "keno-auto-play");
+            autoPlayWorker.setDaemon(true);
+            autoPlayWorkerRunning = true;
+            autoPlayWorker.start();
+        } else {
+            startNextDrawing();
+        }
+    }
+
+    //auto play loop for skipped animation. runs off the FX thread; the UI does not
+    //change gameState until finishAutoPlay, and meanwhile only reads the summary and snapshots
+    private void runAutoPlayWithoutAnimation() {
+        while (autoPlayActive && gameState.hasMoreDrawings()) {
+            gameState.runDrawing();
+            int matches = gameState.getMatches().size();
+            double winnings = gameState.calculateWinnings(matches);
+            autoPlaySummary.record(matches, winnings);
+            recordDrawing(gameState.getSnapshot(), matches, winnings);
+        }
+        // cleared before posting, so the callback (and a reset it runs) sees the worker as done
+        autoPlayWorkerRunning = false;
+        Platform.runLater(this::autoPlayWorkerFinished);
+    }
+
+    //runs on the FX thread once the worker's loop has exited
+    private void autoPlayWorkerFinished() {
+        autoPlayWorker = null;
+        finishAutoPlay();
+        if (resetPending) {
+            resetPending = false;
+            resetGame();
+        }
+    }
+
+    //redraws the auto play summary (called by the refresh timeline).
+    //while the worker runs, progress comes from the latest snapshot without locking gameState
+    private void showAutoPlaySummary() {
+        autoPlayDisplay.setText(autoPlaySummary.describe());
+        showSessionStats();
+        showJackpot();
+        if (autoPlayWorkerRunning) {
+            GameStateSnapshot state = gameState.getSnapshot();
+            drawingProgressLabel.setText("Auto play in progress (animation skipped): drawing " +
+                    state.getCurrentDrawingNumber() + " of " + state.getTotalDrawings() +
+                    ", total winnings: $" + String.format("%.2f", state.getTotalWinnings()));
+        }
+    }
+
+    //shows the session statistics GameState keeps as tickets settle (no history scan)
+    private void showSessionStats() {
+        statsDisplay.setText(gameState.getSessionStats().describe(gameState.getSnapshot().getPlayerSpots()));
+    }
+
+    //shows final auto play results and leaves the game ready for reset
+    private void finishAutoPlay() {
+        if (!autoPlaySession) return;  // already finished or reset
+        autoPlaySession = false;
+        autoPlayActive = false;
+        if (autoPlayRefresh != null) autoPlayRefresh.stop();
+        showAutoPlaySummary();
+
+        // show the last drawing on the card
+        GameStateSnapshot state = gameState.getSnapshot();
+        Set<Integer> matches = state.getMatches();
+        betCard.highlightMatches(state.getCurrentDrawnNumbers());
+        drawnNumbersDisplay.setText("Drawn Numbers: " + state.getCurrentDrawnNumbers());
+        matchesDisplay.setText("Matches: " + matches.size() + " (" + matches + ")");
+        winsDisplay.setText("This Drawing: $" + String.format("%.2f", state.getCurrentDrawingWinnings()));
+        totalWinsDisplay.setText("Total Won: $" + String.format("%.2f", state.getTotalWinnings()));
+
+        drawingProgressLabel.setText("Auto play complete: " + autoPlaySummary.getDrawingsPlayed() + " drawings, total winnings: $" +
+                String.format("%.2f", state.getTotalWinnings()));
+        updateStatusMessage("Auto play finished! Click 'Reset' to play again.");
+        nextDrawingButton.setDisable(true);
+        startDrawingButton.setDisable(true);
+        stopAutoPlayButton.setDisable(true);
+        drawingInProgress = false;
+    }
+
+    //shows the progressive jackpot; reading the pool takes no lock, so this is cheap to call often
+    private void showJackpot() {
+        JackpotPool pool = gameState.getJackpotPool();
+        if (pool == null) {
+            jackpotDisplay.setText("");
+        } else {
+            jackpotDisplay.setText("Progressive Jackpot: $" + String.format("%,.2f", pool.getPoolValue()));
+        }
+    }
+
+    //handles stop button: ends auto play after the drawing in progress
+    private void stopAutoPlay() {
+        if (!autoPlaySession) return;
+        autoPlayActive = false;
+        stopAutoPlayButton.setDisable(true);
+
+        if (autoPlayWorkerRunning) {
+            // the loop checks the flag every drawing and posts finishAutoPlay when it exits
+            updateStatusMessage("Auto play stopping...");
+        } else {
+            // animated: the current drawing (or pause) finishes and then calls finishAutoPlay
+            updateStatusMessage("Auto play stopping after this drawing...");
+        }
+    }
+
     //handle next button
     private void handleNextDrawing() {
         if (gameState.hasMoreDrawings()) {
@@ -489,6 +964,22 @@ public class GamePlayScene {
 
     //reset to initial state
     private void resetGame() {
+        if (autoPlayWorkerRunning) {
+            // the worker may be mid-settlement; reset once it has stopped
+            resetPending = true;
+            stopAutoPlay();
+            return;
+        }
+        resetPending = false;
+        stopAutoPlay();
+        if (revealTimer != null) {
+            revealTimer.stop();  // drop the drawing being revealed
+            revealTimer = null;
+        }
+        autoPlaySession = false;  // an animated drawing still finishing must not resume auto play
+        if (autoPlayRefresh != null) autoPlayRefresh.stop();
+        stopAutoPlayButton.setDisable(true);
+        autoPlayDisplay.setText("");
         betCard.reset();
         spotsToggleGroup.selectToggle(null);
         drawingsToggleGroup.selectToggle(null);
@@ -500,8 +991,10 @@ public class GamePlayScene {
 
         drawnNumbersDisplay.setText("Drawn Numbers: ");
         matchesDisplay.setText("Matches: ");
+        oddsDisplay.setText("Live Odds: ");
         winsDisplay.setText("This Drawing: $0.00");
         totalWinsDisplay.setText("Total Won: $0.00");
+        statsDisplay.setText("");
         drawingProgressLabel.setText("");
 
         updateStatusMessage("Game reset. Please select number of spots to begin.");
@@ -517,6 +1010,10 @@ public class GamePlayScene {
             ((ToggleButton) toggle).setDisable(disabled);
         }
         autoPickButton.setDisable(disabled);
+        suggestedPickButton.setDisable(disabled);
+        autoPlayButton.setDisable(disabled);
+        autoPlayCountField.setDisable(disabled);
+        skipAnimationCheckBox.setDisable(disabled);
         startDrawingButton.setDisable(disabled);
         betCard.disableSelection();
     }
@@ -560,10 +1057,10 @@ public class GamePlayScene {
         header.setTextFill(Color.web(GOLD));
 
         TextArea rulesText = new TextArea(
-                "1. Choose how many spots to play (1, 4, 8, or 10 numbers)\n" +
+                "1. Choose how many spots to play (" + gameState.getDefinition().describeSpots() + " numbers)\n" +
                         "2. Select your numbers or use Auto-pick\n" +
-                        "3. Choose how many drawings to play (1-4)\n" +
-                        "4. Watch as 20 numbers are drawn\n" +
+                        "3. Choose how many drawings to play (1-4), or use Auto Play for many\n" +
+                        "4. Watch as " + gameState.getDefinition().getDrawSize() + " numbers are drawn\n" +
                         "5. Win based on how many numbers you match\n"
         );
         rulesText.setWrapText(true);
@@ -591,6 +1088,29 @@ public class GamePlayScene {
         rulesWindow.show(); // Floating window
     }
 
+    //payout table of the game being played, one block per spot count
+    private String payoutText() {
+        GameDefinition definition = gameState.getDefinition();
+        StringBuilder text = new StringBuilder();
+        for (int spots : definition.getAllowedSpots()) {
+            text.append("SPOT ").append(spots).append(":\n");
+            for (int m = 0; m <= spots; m++) {
+                double payout = definition.payoutFor(spots, m);
+                if (payout <= 0) continue;
+                text.append("  Match ").append(m).append(" → $").append(String.format("%,.0f", payout));
+                if (gameState.getJackpotPool() != null && JackpotPool.isJackpotTier(spots, m)) text.append(" + jackpot");
+                text.append("\n");
+            }
+            text.append("\n");
+        }
+        if (gameState.getJackpotPool() != null) {
+            text.append("PROGRESSIVE JACKPOT:\n" +
+                    "  Every ticket adds to the pool; catching all\n" +
+                    "  numbers on 8 or 10 spots wins it");
+        }
+        return text.toString().trim();
+    }
+
     //odds
     private void showOdds() {
         Stage oddsWindow = new Stage();
@@ -600,31 +1120,7 @@ public class GamePlayScene {
         header.setFont(Font.font("Arial", FontWeight.BOLD, 22));
         header.setTextFill(Color.web(GOLD));
 
-        TextArea oddsText = new TextArea(
-                "SPOT 1:\n" +
-                        "  Match 1 → $2\n\n" +
-
-                        "SPOT 4:\n" +
-                        "  Match 2 → $1\n" +
-                        "  Match 3 → $5\n" +
-                        "  Match 4 → $75\n\n" +
-
-                        "SPOT 8:\n" +
-                        "  Match 4 → $2\n" +
-                        "  Match 5 → $12\n" +
-                        "  Match 6 → $50\n" +
-                        "  Match 7 → $750\n" +
-                        "  Match 8 → $10,000\n\n" +
-
-                        "SPOT 10:\n" +
-                        "  Match 0 → $5\n" +
-                        "  Match 5 → $2\n" +
-                        "  Match 6 → $15\n" +
-                        "  Match 7 → $100\n" +
-                        "  Match 8 → $500\n" +
-                        "  Match 9 → $5,000\n" +
-                        "  Match 10 → $25,000"
-        );
+        TextArea oddsText = new TextArea(payoutText());
         oddsText.setWrapText(true);
         oddsText.setEditable(false);
         oddsText.setStyle(
@@ -652,6 +1148,98 @@ public class GamePlayScene {
         oddsWindow.show();
     }
 
+    //writes a played drawing to the history store (FX thread or the auto play worker)
+    private void recordDrawing(GameStateSnapshot state, int matches, double winnings) {
+        if (drawRecords == null) return;
+        drawRecords.append(state.getCurrentDrawingNumber(), state.getCurrentDrawnNumbers(),
+                state.getPlayerNumbers(), state.getPlayerSpots(), matches, winnings);
+    }
+
+    //window listing every drawing played. The list only holds record indexes;
+    //each visible row is read from the store when its cell is shown, so opening
+    //or scrolling thousands of drawings only decodes what is on screen
+    private void showHistory() {
+        Stage historyWindow = new Stage();
+        historyWindow.setTitle("Keno Drawing History");
+
+        Label header = new Label("Drawing History");
+        header.setFont(Font.font("Arial", FontWeight.BOLD, 22));
+        header.setTextFill(Color.web(GOLD));
+
+        RecordIndexList rows = new RecordIndexList();
+        rows.setSize(drawRecords.size());
+        ListView<Integer> historyList = new ListView<>(rows);
+        historyList.setFixedCellSize(48);
+        historyList.setStyle("-fx-control-inner-background: " + DARK_PURPLE + "; -fx-font-size: 13px;");
+        historyList.setCellFactory(list -> new ListCell<Integer>() {
+            @Override
+            protected void updateItem(Integer index, boolean empty) {
+                super.updateItem(index, empty);
+                if (empty || index == null) {
+                    setText(null);
+                    return;
+                }
+                DrawRecordStore.Record record = drawRecords.get(index);
+                setText("#" + (index + 1) + "  Drawing " + record.getDrawingNumber() +
+                        "  |  " + record.getSpots() + " spots, " + record.getMatches() + " matched " +
+                        record.getMatchedNumbers() + "  |  Won $" + String.format("%.2f", record.getWinnings()) +
+                        "\n    Drawn: " + record.getDrawnNumbers());
+                setTextFill(Color.web(record.getWinnings() > 0 ? GOLD : WHITE));
+            }
+        });
+        VBox.setVgrow(historyList, Priority.ALWAYS);
+        historyList.scrollTo(Math.max(0, rows.size() - 1));
+
+        // pick up drawings played while the window is open, at a bounded rate
+        Timeline refresh = new Timeline(new KeyFrame(HISTORY_REFRESH, e -> rows.setSize(drawRecords.size())));
+        refresh.setCycleCount(Timeline.INDEFINITE);
+        refresh.play();
+        historyWindow.setOnHidden(e -> refresh.stop());
+
+        Button closeButton = new Button("Close");
+        closeButton.setStyle(
+                "-fx-background-color: " + PINK + ";" +
+                        "-fx-text-fill: white; -fx-font-size: 14px; -fx-padding: 8px 16px;"
+        );
+        closeButton.setOnAction(e -> historyWindow.close());
+
+        VBox layout = new VBox(15, header, historyList, closeButton);
+        layout.setAlignment(Pos.CENTER);
+        layout.setPadding(new Insets(20));
+        layout.setStyle(
+                "-fx-background-color: " + BRIGHT_PURPLE + ";" +
+                        "-fx-border-color: " + GOLD + "; -fx-border-width: 4px;"
+        );
+
+        Scene scene = new Scene(layout, 700, 500);
+        historyWindow.setScene(scene);
+        historyWindow.show();
+    }
+
+    //list of the numbers 0..size-1 without storing them; grows as drawings are recorded
+    private static class RecordIndexList extends ObservableListBase<Integer> {
+        private int size;
+
+        void setSize(int newSize) {
+            if (newSize <= size) return;
+            beginChange();
+            nextAdd(size, newSize);
+            size = newSize;
+            endChange();
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
 
     private Integer currentColorScheme = 0;
 
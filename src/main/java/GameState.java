@@ -3,12 +3,30 @@
 // Author: Teresa Chirayil, tchir3, tchir3@uic.edu
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 //GameState manages all state data for a Keno game session.
 //Handles drawing logic, match calculations, winnings computation,
 //and tracking of multiple consecutive drawings.
+//Pool size, draw size and payouts come from a GameDefinition (STANDARD by default).
+//After every state change made through its methods it publishes an immutable
+//GameStateSnapshot; readers on other threads should use getSnapshot().
+//Drawing, matching and payouts emit Flight Recorder events (see KenoEvents) and
+//update the process-wide metrics (see MetricsRegistry). With a SessionJournal
+//attached every published snapshot is also journaled for crash recovery.
 
 public class GameState {
+    // Spot counts that have a payout table in the standard game
+    public static final Set<Integer> PLAYABLE_SPOTS = GameDefinition.STANDARD.getAllowedSpots();
+
+    // Process-wide metrics shared by every game state
+    private static final MetricsRegistry.Counter DRAWS = MetricsRegistry.global().counter("keno_draws");
+    private static final MetricsRegistry.Counter TICKETS_SETTLED = MetricsRegistry.global().counter("keno_tickets_settled");
+    private static final LatencyHistogram SETTLE_TIME = MetricsRegistry.global().histogram("keno_settle_time");
+
+    // Variant being played: pool size, draw size and payout tables
+    private final GameDefinition definition;
+
     // Total winnings accumulated across all drawings in the current session
     private double totalWinnings;
 
@@ -18,20 +36,61 @@ public class GameState {
     // Total number of drawings selected for this game session
     private int totalDrawings;
 
-    // Number of spots (numbers) the player chose to play (1, 4, 8, or 10)
+    // Number of spots (numbers) the player chose to play (1, 4, 8, or 10 in the standard game)
     private int playerSpots;
 
     // Set of numbers selected by the player (size matches playerSpots)
     private Set<Integer> playerNumbers;
 
-    // Set of 20 numbers drawn in the current drawing
+    // Set of numbers drawn in the current drawing (20 in the standard game)
     private Set<Integer> currentDrawnNumbers;
 
     // Winnings from the most recent drawing
     private double currentDrawingWinnings;
 
-    //Constructor initializes the game state to default values.
+    // Every drawing run by this game, kept across resets for analysis
+    private final DrawHistory drawHistory;
+
+    // Latest immutable copy of the state, replaced after every change
+    private final AtomicReference<GameStateSnapshot> snapshot = new AtomicReference<>();
+
+    // Progressive jackpot fed by every settled ticket (null for none)
+    private JackpotPool jackpotPool;
+
+    // Tamper-evident log of every ticket calculateWinnings settles (null for none)
+    private AuditLog auditLog;
+
+    // Crash-recovery journal told about every snapshot (null for none)
+    private SessionJournal journal;
+
+    // Source of pre-generated drawings (null to draw with a new Random each time)
+    private DrawPregenerator drawSource;
+
+    // Running statistics over every ticket settled since the last resetForNewGame
+    private final SessionStats sessionStats;
+
+    // Whether the number sets changed since the last snapshot (unchanged sets are reused)
+    private boolean playerNumbersChanged = true;
+    private boolean drawnNumbersChanged = true;
+
+    //Constructor initializes the game state to default values for the standard game.
     public GameState() {
+        this(GameDefinition.STANDARD);
+    }
+
+    //Constructor for a specific Keno variant
+    public GameState(GameDefinition definition) {
+        this(definition, new DrawHistory(definition.getPoolSize()));
+    }
+
+    //Constructor that records drawings into the given history, e.g. an OffHeapDrawHistory
+    public GameState(GameDefinition definition, DrawHistory drawHistory) {
+        if (drawHistory.getPoolSize() != definition.getPoolSize()) {
+            throw new IllegalArgumentException("draw history is for a pool of " + drawHistory.getPoolSize());
+        }
+        this.definition = definition;
+        this.drawHistory = drawHistory;
+        this.sessionStats = new SessionStats(definition);
         resetForNewGame();
     }
 
@@ -46,6 +105,10 @@ public class GameState {
         this.playerNumbers = new HashSet<>();
         this.currentDrawnNumbers = new HashSet<>();
         this.currentDrawingWinnings = 0.0;
+        this.playerNumbersChanged = true;
+        this.drawnNumbersChanged = true;
+        sessionStats.reset();
+        publish();
     }
 
     //Initializes a new drawing session with the specified number of drawings.
@@ -55,31 +118,58 @@ public class GameState {
     public void startNewDrawingSession(int totalDrawings) {
         this.totalDrawings = totalDrawings;
         this.currentDrawingNumber = 0;
-        this.playerNumbers.clear();
-        this.currentDrawnNumbers.clear();
+        // New sets rather than clear(): the old ones may be shared read-only sets (see SessionManager)
+        this.playerNumbers = new HashSet<>();
+        this.currentDrawnNumbers = new HashSet<>();
         this.currentDrawingWinnings = 0.0;
+        this.playerNumbersChanged = true;
+        this.drawnNumbersChanged = true;
+        publish();
     }
 
-    //Executes a single Keno drawing by randomly selecting 20 unique numbers from 1-80.
+    //Executes a single Keno drawing by randomly selecting the definition's draw size of
+     //unique numbers (20 from 1-80 in the standard game).
      //Increments the current drawing counter.
 
     public Set<Integer> runDrawing() {
-        currentDrawnNumbers.clear();
-        Random random = new Random();
-
-        // Draw 20 unique random numbers between 1-80
-        while (currentDrawnNumbers.size() < 20) {
-            int num = random.nextInt(80) + 1;  // Generate number 1-80
-            currentDrawnNumbers.add(num);  // Set automatically handles duplicates
+        KenoEvents.Draw event = new KenoEvents.Draw();
+        event.begin();
+        // A new set rather than clear(): the old one may be a caller's read-only set (see settleDrawing)
+        Set<Integer> drawn = new HashSet<>();
+        int poolSize = definition.getPoolSize();
+        int drawSize = definition.getDrawSize();
+
+        if (drawSource != null) {
+            // Already drawn off this thread; just take it
+            for (int num : drawSource.take()) drawn.add(num);
+        } else {
+            Random random = new Random();
+            // Draw unique random numbers between 1 and the pool size
+            while (drawn.size() < drawSize) {
+                int num = random.nextInt(poolSize) + 1;  // Generate number 1-poolSize
+                drawn.add(num);  // Set automatically handles duplicates
+            }
         }
+        currentDrawnNumbers = drawn;
 
         currentDrawingNumber++;  // Increment drawing counter
+        drawHistory.append(currentDrawnNumbers);  // Record for history queries
+        drawnNumbersChanged = true;
+        publish();
+
+        event.drawingNumber = currentDrawingNumber;
+        event.drawSize = drawSize;
+        event.poolSize = poolSize;
+        event.commit();
+        DRAWS.increment();
         return new HashSet<>(currentDrawnNumbers);  // Return copy of drawn numbers
     }
 
     //Calculates which player numbers match the currently drawn numbers.
 
     public Set<Integer> getMatches() {
+        KenoEvents.Match event = new KenoEvents.Match();
+        event.begin();
         Set<Integer> matches = new HashSet<>();
 
         // Check each player number against drawn numbers
@@ -88,60 +178,130 @@ public class GameState {
                 matches.add(num);
             }
         }
+
+        event.spots = playerSpots;
+        event.matches = matches.size();
+        event.commit();
         return matches;
     }
 
     //Calculates winnings based on the number of matches and player spots.
-     //Uses North Carolina Lottery payout table rules.
+     //Uses the definition's payout table (North Carolina Lottery rules by default).
+     //With a jackpot pool the ticket also contributes to it, and the top prize of the
+     //8- and 10-spot tables pays the pool on top of the fixed prize.
      //Updates currentDrawingWinnings and adds to totalWinnings.
 
 
     public double calculateWinnings(int matches) {
-        double winnings = 0.0;
-
-        // Based on North Carolina Lottery payout rules
-        switch (playerSpots) {
-            case 1:
-                // 1-spot game: only pays if you match the 1 number
-                if (matches == 1) winnings = 2.0;
-                break;
-
-            case 4:
-                // 4-spot game: pays for 2, 3, or 4 matches
-                if (matches == 2) winnings = 1.0;
-                else if (matches == 3) winnings = 5.0;
-                else if (matches == 4) winnings = 75.0;
-                break;
-
-            case 8:
-                // 8-spot game: pays for 4-8 matches
-                if (matches == 4) winnings = 2.0;
-                else if (matches == 5) winnings = 12.0;
-                else if (matches == 6) winnings = 50.0;
-                else if (matches == 7) winnings = 750.0;
-                else if (matches == 8) winnings = 10000.0;
-                break;
-
-            case 10:
-                // 10-spot game: pays for 0, 5-10 matches
-                // Note: Matching 0 numbers in a 10-spot game is rare and pays out
-                if (matches == 0) winnings = 5.0;
-                else if (matches == 5) winnings = 2.0;
-                else if (matches == 6) winnings = 15.0;
-                else if (matches == 7) winnings = 100.0;
-                else if (matches == 8) winnings = 500.0;
-                else if (matches == 9) winnings = 5000.0;
-                else if (matches == 10) winnings = 25000.0;
-                break;
+        long startNanos = System.nanoTime();
+        if (auditLog != null) auditLog.checkUsable();  // no money moves without a record
+        KenoEvents.Payout event = new KenoEvents.Payout();
+        event.begin();
+        double winnings = definition.payoutFor(playerSpots, matches);
+        if (jackpotPool != null) {
+            jackpotPool.contribute();
+            if (JackpotPool.isJackpotTier(playerSpots, matches)) {
+                winnings += jackpotPool.claim() / 100.0;
+                event.jackpot = true;
+            }
+        }
+
+        if (auditLog != null) {
+            auditLog.append(currentDrawingNumber, currentDrawnNumbers, playerNumbers, playerSpots, matches, winnings);
         }
 
         // Update both current drawing winnings and cumulative total
         this.currentDrawingWinnings = winnings;
         this.totalWinnings += winnings;
+        sessionStats.record(playerSpots, matches, winnings);
+        publish();
+
+        event.spots = playerSpots;
+        event.matches = matches;
+        event.ways = 1;
+        event.winnings = winnings;
+        event.commit();
+        TICKETS_SETTLED.increment();
+        SETTLE_TIME.record(System.nanoTime() - startNanos);
+        return winnings;
+    }
+
+    //Settles one ticket against the current drawing: sets the spots and numbers and pays
+     //the given match count like calculateWinnings, publishing a single snapshot instead of
+     //one per setter. For settlement loops such as DrawEngine's. The numbers are copied.
+
+    public double settleTicket(int spots, Set<Integer> numbers, int matches) {
+        this.playerSpots = spots;
+        this.playerNumbers = new HashSet<>(numbers);
+        this.playerNumbersChanged = true;
+        return calculateWinnings(matches);
+    }
+
+    //Settles the current ticket against a drawing run elsewhere (e.g. SessionManager's shared
+     //drawing): records it as the next drawing and pays it, publishing a single snapshot.
+     //The numbers are copied, so the caller may pass a shared read-only set.
 
+    public double settleDrawing(Set<Integer> drawnNumbers) {
+        this.currentDrawnNumbers = new HashSet<>(drawnNumbers);
+        this.drawnNumbersChanged = true;
+        this.currentDrawingNumber++;
+        return calculateWinnings(getMatches().size());
+    }
+
+    //Settles a way or king ticket against the current drawing, like calculateWinnings does
+     //for the straight ticket: every way pays its own prize and, with a jackpot pool, every
+     //way contributes. Updates currentDrawingWinnings and adds to totalWinnings.
+
+    public double calculateWayWinnings(WayTicket ticket) {
+        if (ticket.getDefinition() != definition) {
+            throw new IllegalArgumentException("way ticket is for " + ticket.getDefinition().getName());
+        }
+        long startNanos = System.nanoTime();
+        if (auditLog != null) auditLog.checkUsable();  // no money moves without a record
+        KenoEvents.Payout event = new KenoEvents.Payout();
+        event.begin();
+        WayTicket.Evaluation result = ticket.evaluate(NumberMask.toMask(currentDrawnNumbers, definition.getPoolSize()));
+        double winnings = result.getPayout();
+        if (jackpotPool != null) {
+            jackpotPool.contribute(ticket.getWayCount());
+            if (result.getJackpotWays() > 0) {
+                winnings += jackpotPool.claim() / 100.0;
+                event.jackpot = true;
+            }
+        }
+        if (auditLog != null) {
+            auditLog.appendWays(currentDrawingNumber, currentDrawnNumbers, wayTicketNumbers(ticket), ticket.getWayCount(), winnings);
+        }
+
+        this.currentDrawingWinnings = winnings;
+        this.totalWinnings += winnings;
+        sessionStats.recordWays(ticket.getWayCount(), winnings);
+        publish();
+
+        event.ways = ticket.getWayCount();
+        event.winnings = winnings;
+        event.commit();
+        TICKETS_SETTLED.increment();
+        SETTLE_TIME.record(System.nanoTime() - startNanos);
         return winnings;
     }
 
+    //Every number on a way ticket: its king numbers and all of its groups
+
+    private static Set<Integer> wayTicketNumbers(WayTicket ticket) {
+        Set<Integer> numbers = new TreeSet<>(ticket.getKingNumbers());
+        for (Set<Integer> group : ticket.getGroups()) numbers.addAll(group);
+        return numbers;
+    }
+
+    //Looks up the standard game's payout for a spot count and number of matches without
+     //changing any state. Shared by the analysis tools that score many tickets; games built
+     //for another variant use their GameDefinition's payoutFor instead.
+
+    public static double payoutFor(int spots, int matches) {
+        return GameDefinition.STANDARD.payoutFor(spots, matches);
+    }
+
     //Checks if there are more drawings remaining in the current session.
 
 
@@ -161,6 +321,7 @@ public class GameState {
 
     public void setTotalWinnings(double totalWinnings) {
         this.totalWinnings = totalWinnings;
+        publish();
     }
 
     //Current drawing number (1-based)
@@ -173,6 +334,7 @@ public class GameState {
 
     public void setCurrentDrawingNumber(int currentDrawingNumber) {
         this.currentDrawingNumber = currentDrawingNumber;
+        publish();
     }
 
     //Total number of drawings in this session
@@ -185,6 +347,7 @@ public class GameState {
 
     public void setTotalDrawings(int totalDrawings) {
         this.totalDrawings = totalDrawings;
+        publish();
     }
 
     // Number of spots (numbers) player selected
@@ -197,30 +360,36 @@ public class GameState {
 
     public void setPlayerSpots(int playerSpots) {
         this.playerSpots = playerSpots;
+        publish();
     }
 
-    //Set of numbers selected by the player
+    //Read-only view of the numbers selected by the player. Other threads should read
+     //getSnapshot() instead; this view follows later changes.
 
     public Set<Integer> getPlayerNumbers() {
-        return playerNumbers;
+        return Collections.unmodifiableSet(playerNumbers);
     }
 
     //playerNumbers New set of player-selected numbers
 
     public void setPlayerNumbers(Set<Integer> playerNumbers) {
         this.playerNumbers = playerNumbers;
+        this.playerNumbersChanged = true;
+        publish();
     }
 
-    // Set of numbers drawn in the current drawing
+    //Read-only view of the numbers drawn in the current drawing (other threads: use getSnapshot())
 
     public Set<Integer> getCurrentDrawnNumbers() {
-        return currentDrawnNumbers;
+        return Collections.unmodifiableSet(currentDrawnNumbers);
     }
 
     //currentDrawnNumbers New set of drawn numbers
 
     public void setCurrentDrawnNumbers(Set<Integer> currentDrawnNumbers) {
         this.currentDrawnNumbers = currentDrawnNumbers;
+        this.drawnNumbersChanged = true;
+        publish();
     }
 
     //Winnings from the most recent drawing
@@ -233,6 +402,78 @@ public class GameState {
 
     public void setCurrentDrawingWinnings(double currentDrawingWinnings) {
         this.currentDrawingWinnings = currentDrawingWinnings;
+        publish();
+    }
+
+    //Variant this game plays
+
+    public GameDefinition getDefinition() {
+        return definition;
+    }
+
+    //Jackpot pool this game contributes to (null for none)
+
+    public JackpotPool getJackpotPool() {
+        return jackpotPool;
+    }
+
+    //jackpotPool Pool to contribute to and pay from; may be shared with other games
+
+    public void setJackpotPool(JackpotPool jackpotPool) {
+        this.jackpotPool = jackpotPool;
+    }
+
+    //Attaches an audit log that records every ticket settled by calculateWinnings or
+     //calculateWayWinnings (null to detach). Settling throws, without changing anything,
+     //once the log is closed or has failed.
+
+    public void setAuditLog(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    //Attaches a journal that records every later state change (null to detach)
+
+    public void setJournal(SessionJournal journal) {
+        this.journal = journal;
+    }
+
+    //Live statistics for the session: winnings mean and variance, hits, streaks and RTP.
+     //Safe to read from any thread.
+
+    public SessionStats getSessionStats() {
+        return sessionStats;
+    }
+
+    //Takes drawings from a pregenerator instead of generating them in runDrawing (null to stop).
+     //The pregenerator must be for this game's definition.
+
+    public void setDrawSource(DrawPregenerator drawSource) {
+        if (drawSource != null && drawSource.getDefinition() != definition) {
+            throw new IllegalArgumentException("draw source is for " + drawSource.getDefinition().getName());
+        }
+        this.drawSource = drawSource;
+    }
+
+    //Replaces every session field with a saved state (used by SessionJournal recovery)
+
+    public void restore(GameStateSnapshot saved) {
+        this.totalWinnings = saved.getTotalWinnings();
+        this.currentDrawingNumber = saved.getCurrentDrawingNumber();
+        this.totalDrawings = saved.getTotalDrawings();
+        this.playerSpots = saved.getPlayerSpots();
+        this.playerNumbers = new HashSet<>(saved.getPlayerNumbers());
+        this.currentDrawnNumbers = new HashSet<>(saved.getCurrentDrawnNumbers());
+        this.currentDrawingWinnings = saved.getCurrentDrawingWinnings();
+        this.playerNumbersChanged = true;
+        this.drawnNumbersChanged = true;
+        sessionStats.resetForRestore();  // not saved; they restart with this run
+        publish();
+    }
+
+    //History of every drawing run by this game
+
+    public DrawHistory getDrawHistory() {
+        return drawHistory;
     }
 
     //Adds the specified amount to the total winnings.
@@ -240,5 +481,30 @@ public class GameState {
 
     public void addToTotalWinnings(double amount) {
         this.totalWinnings += amount;
+        publish();
+    }
+
+    //Latest immutable copy of the state. Safe to call from any thread without locking;
+     //reflects every change made through GameState's methods.
+
+    public GameStateSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    //Publishes a new snapshot after a state change.
+     //Number sets are copied only when they changed; otherwise the previous immutable copy is reused.
+
+    private void publish() {
+        GameStateSnapshot previous = snapshot.get();
+        Set<Integer> players = playerNumbersChanged || previous == null
+                ? Collections.unmodifiableSet(new TreeSet<>(playerNumbers)) : previous.getPlayerNumbers();
+        Set<Integer> drawn = drawnNumbersChanged || previous == null
+                ? Collections.unmodifiableSet(new TreeSet<>(currentDrawnNumbers)) : previous.getCurrentDrawnNumbers();
+        GameStateSnapshot next = new GameStateSnapshot(totalWinnings, currentDrawingNumber, totalDrawings, playerSpots,
+                players, drawn, currentDrawingWinnings);
+        snapshot.set(next);
+        playerNumbersChanged = false;
+        drawnNumbersChanged = false;
+        if (journal != null) journal.record(next);
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+// GameStateSnapshot.java - Immutable view of a GameState
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//GameStateSnapshot is a read-only copy of a GameState taken right after a state
+//change. GameState publishes a new one through an AtomicReference on every change,
+//so the UI and statistics threads can read a consistent set of values without
+//locking and without copying the number sets on every read.
+
+public final class GameStateSnapshot {
+    private final double totalWinnings;
+    private final int currentDrawingNumber;
+    private final int totalDrawings;
+    private final int playerSpots;
+    private final Set<Integer> playerNumbers;
+    private final Set<Integer> currentDrawnNumbers;
+    private final double currentDrawingWinnings;
+
+    //Stores the given values; the sets must already be unmodifiable copies (see GameState.publish)
+    GameStateSnapshot(double totalWinnings, int currentDrawingNumber, int totalDrawings, int playerSpots,
+                      Set<Integer> playerNumbers, Set<Integer> currentDrawnNumbers, double currentDrawingWinnings) {
+        this.totalWinnings = totalWinnings;
+        this.currentDrawingNumber = currentDrawingNumber;
+        this.totalDrawings = totalDrawings;
+        this.playerSpots = playerSpots;
+        this.playerNumbers = playerNumbers;
+        this.currentDrawnNumbers = currentDrawnNumbers;
+        this.currentDrawingWinnings = currentDrawingWinnings;
+    }
+
+    //Total winnings accumulated across all drawings
+
+    public double getTotalWinnings() {
+        return totalWinnings;
+    }
+
+    //Current drawing number (1-based)
+
+    public int getCurrentDrawingNumber() {
+        return currentDrawingNumber;
+    }
+
+    //Total number of drawings in this session
+
+    public int getTotalDrawings() {
+        return totalDrawings;
+    }
+
+    //Number of spots (numbers) player selected
+
+    public int getPlayerSpots() {
+        return playerSpots;
+    }
+
+    //Numbers selected by the player, sorted and unmodifiable
+
+    public Set<Integer> getPlayerNumbers() {
+        return playerNumbers;
+    }
+
+    //Numbers drawn in the current drawing, sorted and unmodifiable
+
+    public Set<Integer> getCurrentDrawnNumbers() {
+        return currentDrawnNumbers;
+    }
+
+    //Winnings from the most recent drawing
+
+    public double getCurrentDrawingWinnings() {
+        return currentDrawingWinnings;
+    }
+
+    //Player numbers that were drawn in the current drawing, sorted
+
+    public Set<Integer> getMatches() {
+        Set<Integer> matches = new TreeSet<>(playerNumbers);
+        matches.retainAll(currentDrawnNumbers);
+        return matches;
+    }
+
+    //true if there are drawings left in the session
+
+    public boolean hasMoreDrawings() {
+        return currentDrawingNumber < totalDrawings;
+    }
+}
@@ -0,0 +1,124 @@
+// JackpotPool.java - Progressive jackpot shared by every session
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.concurrent.atomic.LongAdder;
+
+//JackpotPool is a progressive jackpot fed by a slice of every wager and paid on
+//top of the fixed prize when an 8-spot or 10-spot ticket catches every number.
+//Amounts are kept in whole cents.
+//
+//Every settled ticket contributes, so the contribution counter is updated by many
+//settling threads at once (SessionManager settles sessions in parallel). It is a
+//LongAdder, which spreads updates over per-thread cells instead of having every
+//thread retry a compare-and-set on one shared word. Reading the pool sums those
+//cells without a lock. Only paying a jackpot locks, and that is rare
+//(about 1 in 230,000 8-spot tickets).
+
+public class JackpotPool {
+    // Assumed wager per ticket per drawing; the payout tables are per $1
+    public static final long WAGER_CENTS = 100;
+
+    // Default share of each wager fed into the pool
+    public static final double DEFAULT_CONTRIBUTION_RATE = 0.02;
+
+    // Default amount the pool restarts from after it is paid
+    public static final long DEFAULT_SEED_CENTS = 100_000;
+
+    // Pool value right after a payout
+    private final long seedCents;
+
+    // Cents added per wager
+    private final long contributionCents;
+
+    // Every contribution ever made
+    private final LongAdder contributions = new LongAdder();
+
+    // Part of the contributions already paid out (changed only while holding the lock)
+    private volatile long claimedCents;
+
+    // Jackpots paid and their total, in cents
+    private volatile long jackpotsPaid;
+    private volatile long totalPaidCents;
+
+    //Creates a pool with the default seed and contribution rate
+    public JackpotPool() {
+        this(DEFAULT_SEED_CENTS, DEFAULT_CONTRIBUTION_RATE);
+    }
+
+    //Creates a pool that restarts from seedCents and takes the given share of each wager
+    public JackpotPool(long seedCents, double contributionRate) {
+        if (seedCents < 0 || contributionRate < 0 || contributionRate > 1) {
+            throw new IllegalArgumentException("Invalid seed or contribution rate");
+        }
+        this.seedCents = seedCents;
+        this.contributionCents = Math.round(WAGER_CENTS * contributionRate);
+    }
+
+    //true if a ticket with this many spots and matches wins the jackpot
+
+    public static boolean isJackpotTier(int spots, int matches) {
+        return (spots == 8 || spots == 10) && matches == spots;
+    }
+
+    //Adds one wager's contribution. Safe to call from any number of threads.
+
+    public void contribute() {
+        contributions.add(contributionCents);
+    }
+
+    //Adds the contributions of several wagers at once (e.g. every way of a way ticket)
+
+    public void contribute(long wagers) {
+        contributions.add(contributionCents * wagers);
+    }
+
+    //Pays the whole pool and restarts it from the seed; returns the amount in cents.
+     //Contributions that arrive while paying stay in the pool for the next winner.
+
+    public synchronized long claim() {
+        long total = contributions.sum();
+        long amount = seedCents + total - claimedCents;
+        claimedCents = total;
+        jackpotsPaid++;
+        totalPaidCents += amount;
+        return amount;
+    }
+
+    //Current pool value in cents. Takes no lock; cheap enough to poll for displays.
+
+    public long getPoolCents() {
+        long claimed = claimedCents;  // read first so a concurrent claim can only make this high, never below the seed
+        return seedCents + contributions.sum() - claimed;
+    }
+
+    //Current pool value in dollars
+
+    public double getPoolValue() {
+        return getPoolCents() / 100.0;
+    }
+
+    //Cents added per wager
+
+    public long getContributionCents() {
+        return contributionCents;
+    }
+
+    //Total contributed since the pool was created, in cents
+
+    public long getTotalContributedCents() {
+        return contributions.sum();
+    }
+
+    //Number of jackpots paid
+
+    public long getJackpotsPaid() {
+        return jackpotsPaid;
+    }
+
+    //Total of all jackpots paid, in cents
+
+    public long getTotalPaidCents() {
+        return totalPaidCents;
+    }
+}
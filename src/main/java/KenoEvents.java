@@ -0,0 +1,197 @@
+// KenoEvents.java - Java Flight Recorder events for engine and UI phases
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+//KenoEvents holds the Flight Recorder events the game emits. Each one is timed
+//with begin()/commit() around one phase, so a recording shows whether a slow
+//drawing was spent in the engine (Draw, Match, Payout) or on the FX thread
+//(Highlight, Results); FxStall marks times the FX thread stopped responding
+//(see FxWatchdog). When no recording is running, commit() is a cheap check
+//and the JIT removes the event object, so the instrumentation can stay in
+//production builds. Stack traces are off; the phase name says where it came from.
+//
+//keno.jfc (on the classpath) enables these events along with a light set of JDK
+//events (GC pauses, lock contention, CPU load, sampled stacks). Record with
+//  java -XX:StartFlightRecording:settings=src/main/resources/keno.jfc,filename=keno.jfr ...
+//or start the game or server with -Dkeno.jfr=keno.jfr (see startRecordingFromProperty).
+
+public final class KenoEvents {
+    // Recording profile on the classpath
+    private static final String PROFILE = "/keno.jfc";
+
+    // System property naming the file a recording is written to
+    private static final String RECORDING_PROPERTY = "keno.jfr";
+
+    // Recording started by startRecordingFromProperty, if any
+    private static Recording recording;
+
+    private KenoEvents() {
+    }
+
+    //Starts an always-on recording with the keno.jfc profile if -Dkeno.jfr=<file> was given.
+     //The recording is written to that file when the JVM exits. Does nothing otherwise,
+     //or if a recording was already started.
+
+    public static synchronized void startRecordingFromProperty() {
+        String file = System.getProperty(RECORDING_PROPERTY);
+        if (file == null || file.isEmpty() || recording != null) return;
+        try {
+            recording = startRecording(Paths.get(file));
+        } catch (IOException | ParseException e) {
+            System.err.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+
+    //Starts a recording with the keno.jfc profile, dumped to the file when the JVM exits
+
+    public static Recording startRecording(Path destination) throws IOException, ParseException {
+        Recording started = new Recording(loadProfile());
+        started.setName("keno");
+        started.setToDisk(true);
+        started.setDestination(destination);
+        started.setDumpOnExit(true);
+        started.start();
+        return started;
+    }
+
+    //Reads the keno.jfc profile from the classpath
+
+    static Configuration loadProfile() throws IOException, ParseException {
+        try (Reader reader = new InputStreamReader(KenoEvents.class.getResourceAsStream(PROFILE), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    //One GameState.runDrawing call
+
+    @Name("keno.Draw")
+    @Label("Keno Drawing")
+    @Category({"Keno", "Engine"})
+    @Description("Time to draw one set of numbers")
+    @StackTrace(false)
+    public static class Draw extends Event {
+        @Label("Drawing Number")
+        public int drawingNumber;
+
+        @Label("Numbers Drawn")
+        public int drawSize;
+
+        @Label("Pool Size")
+        public int poolSize;
+    }
+
+    //One GameState.getMatches call
+
+    @Name("keno.Match")
+    @Label("Keno Match")
+    @Category({"Keno", "Engine"})
+    @Description("Time to match a ticket against the drawn numbers")
+    @StackTrace(false)
+    public static class Match extends Event {
+        @Label("Spots")
+        public int spots;
+
+        @Label("Matches")
+        public int matches;
+    }
+
+    //One GameState.calculateWinnings or calculateWayWinnings call
+
+    @Name("keno.Payout")
+    @Label("Keno Payout")
+    @Category({"Keno", "Engine"})
+    @Description("Time to settle a ticket's winnings, including the jackpot pool")
+    @StackTrace(false)
+    public static class Payout extends Event {
+        @Label("Spots")
+        @Description("Spots on a straight ticket; 0 for a way ticket")
+        public int spots;
+
+        @Label("Matches")
+        @Description("Matches on a straight ticket; 0 for a way ticket")
+        public int matches;
+
+        @Label("Ways")
+        @Description("Straight tickets settled (1, or the ways of a way ticket)")
+        public long ways;
+
+        @Label("Winnings")
+        public double winnings;
+
+        @Label("Jackpot")
+        @Description("Whether the progressive jackpot was paid")
+        public boolean jackpot;
+    }
+
+    //One BetCard.highlightMatches pass
+
+    @Name("keno.Highlight")
+    @Label("Keno Card Highlight")
+    @Category({"Keno", "UI"})
+    @Description("Time to restyle the bet card after a drawing")
+    @StackTrace(false)
+    public static class Highlight extends Event {
+        @Label("Buttons")
+        public int buttons;
+
+        @Label("Matches")
+        public int matches;
+    }
+
+    //One GamePlayScene.showDrawingResults update
+
+    @Name("keno.Results")
+    @Label("Keno Results Update")
+    @Category({"Keno", "UI"})
+    @Description("Time to settle and display one drawing's results on the FX thread")
+    @StackTrace(false)
+    public static class Results extends Event {
+        @Label("Drawing Number")
+        public int drawingNumber;
+
+        @Label("Matches")
+        public int matches;
+
+        @Label("Auto Play")
+        public boolean autoPlay;
+    }
+
+    //A time the JavaFX application thread did not respond within FxWatchdog's threshold.
+     //Committed once while the FX thread is still blocked (ended=false), and again, spanning
+     //from the watchdog's ping to the FX thread running it, when it responds (ended=true).
+
+    @Name("keno.FxStall")
+    @Label("Keno FX Thread Stall")
+    @Category({"Keno", "UI"})
+    @Description("JavaFX application thread blocked past the watchdog threshold")
+    @StackTrace(false)
+    public static class FxStall extends Event {
+        @Label("Stall (ms)")
+        public long stallMillis;
+
+        @Label("Blocked In")
+        @Description("Top of the FX thread's stack when the stall passed the threshold")
+        public String blockedIn;
+
+        @Label("Ended")
+        @Description("false when reported while still blocked, true once the FX thread responded")
+        public boolean ended;
+    }
+}
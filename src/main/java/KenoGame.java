@@ -3,8 +3,15 @@
 // Author: Teresa Chirayil, tchir3, tchir3@uic.edu
 //
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 // KenoGame is the main application class for the Keno Lottery Game.
 // It extends JavaFX Application and manages the primary window (Stage),
 // game state, and scene transitions between welcome and gameplay screens.
@@ -23,9 +30,31 @@ public class KenoGame extends Application {
     // Main gameplay screen scene
     private GamePlayScene gamePlayScene;
 
+    // Reports times the FX thread stops responding (checked every 100 ms, stall at 250 ms)
+    private static final long WATCHDOG_INTERVAL_MS = 100;
+    private static final long WATCHDOG_THRESHOLD_MS = 250;
+    private final FxWatchdog watchdog = new FxWatchdog(Platform::runLater, WATCHDOG_INTERVAL_MS, WATCHDOG_THRESHOLD_MS);
+
+    // Saves the game state so a crash or power cut does not lose the session
+    // (directory from -Dkeno.session, default ~/.keno/session)
+    private SessionJournal journal;
+
+    // Audit log of every settled ticket (file from -Dkeno.audit, default ~/.keno/audit.log)
+    private AuditLog auditLog;
+
+    // Generates drawings ahead of time (RNG from -Dkeno.rng, default java.util.Random)
+    private DrawPregenerator drawSource;
+
     // Main entry point for the Java application.
     // Calls JavaFX launch() which initializes the JavaFX runtime and calls start().
-    public static void main(String[] args) {
+    // With --server the game runs headless as a ticket service instead (see KenoServer).
+    public static void main(String[] args) throws IOException {
+        KenoEvents.startRecordingFromProperty();
+        MetricsRegistry.startFileExportFromProperty();
+        if (args.length > 0 && args[0].equals("--server")) {
+            KenoServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         launch(args);
     }
 
@@ -38,6 +67,20 @@ public class KenoGame extends Application {
 
         // Create shared game state object
         this.gameState = new GameState();
+        JackpotPool jackpot = new JackpotPool();
+        gameState.setJackpotPool(jackpot);
+        drawSource = DrawPregenerator.fromProperty(gameState.getDefinition());
+        gameState.setDrawSource(drawSource);
+
+        // Report the jackpot and the watchdog's FX thread timings with the other metrics
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.gauge("keno_jackpot_dollars", jackpot::getPoolValue);
+        metrics.register("fx_pulse_response_time", watchdog.getResponseLatency());
+        metrics.register("fx_stall_time", watchdog.getStallDurations());
+
+        // Pick up where the last run left off, then journal every change
+        openJournal();
+        openAuditLog();
 
         // Initialize both scenes (welcome and gameplay)
         initializeScenes();
@@ -50,6 +93,66 @@ public class KenoGame extends Application {
 
         // Display the window
         primaryStage.show();
+
+        // Watch for frozen screens from here on
+        watchdog.start();
+    }
+
+    // Called by JavaFX when the application exits.
+    @Override
+    public void stop() {
+        watchdog.stop();
+        drawSource.close();
+        if (auditLog != null) {
+            try {
+                auditLog.close();
+            } catch (IOException e) {
+                System.err.println("Could not close audit log: " + e.getMessage());
+            }
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Could not save session: " + e.getMessage());
+            }
+        }
+    }
+
+    // Opens the audit log and attaches it to gameState; the game runs without one on error.
+    private void openAuditLog() {
+        Path file = Paths.get(System.getProperty("keno.audit",
+                Paths.get(System.getProperty("user.home"), ".keno", "audit.log").toString()));
+        try {
+            if (file.toAbsolutePath().getParent() != null) Files.createDirectories(file.toAbsolutePath().getParent());
+            auditLog = new AuditLog(file, gameState.getDefinition().getPoolSize());
+            gameState.setAuditLog(auditLog);
+        } catch (IOException e) {
+            System.err.println("Audit log unavailable: " + e.getMessage());
+        }
+    }
+
+    // Restores the saved session into gameState and attaches the journal.
+    // The game still runs without one if the directory cannot be used.
+    private void openJournal() {
+        Path directory = Paths.get(System.getProperty("keno.session",
+                Paths.get(System.getProperty("user.home"), ".keno", "session").toString()));
+        try {
+            long started = System.nanoTime();
+            journal = SessionJournal.open(directory, gameState);
+            gameState.setJournal(journal);
+            if (journal.wasRecovered()) {
+                System.out.println("Restored session from " + directory + " (" + journal.getReplayedRecords() +
+                        " journal records, " + (System.nanoTime() - started) / 1_000_000 + " ms)");
+            }
+        } catch (IOException e) {
+            System.err.println("Session recovery unavailable: " + e.getMessage());
+        }
+    }
+
+    // Watchdog monitoring the FX thread, for screens that show its statistics.
+    public FxWatchdog getWatchdog() {
+        return watchdog;
     }
 
     // Initializes both the welcome scene and gameplay scene.
@@ -63,6 +166,7 @@ public class KenoGame extends Application {
     // Switches the primary stage to display the welcome scene.
     // Called at application start and when returning from gameplay.
     public void switchToWelcomeScene() {
+        welcomeScene.updateTotalWins();
         primaryStage.setScene(welcomeScene.getScene());
     }
 
@@ -0,0 +1,283 @@
+// KenoServer.java - Headless ticket submission service
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+//KenoServer serves remote terminals from one DrawEngine over plain HTTP, using the
+//JDK's built-in com.sun.net.httpserver. Requests are handled on a bounded thread
+//pool; they only queue tickets or read results, and settlement happens in batches
+//on the engine's draw thread. Responses are plain "key=value" lines.
+//
+//  POST /tickets           body: spots=8&numbers=3,11,19,27,42,55,63,78
+//  GET  /tickets?id=42     status of one ticket
+//  GET  /draws/latest      numbers of the most recent drawing
+//  GET  /jackpot           current progressive jackpot
+//  GET  /metrics           every MetricsRegistry metric, one "name value" per line
+//
+//Try it with: curl -d "spots=4&numbers=1,2,3,4" http://localhost:8080/tickets
+
+public class KenoServer {
+    // Request handler threads and how many requests may wait for one
+    private static final int HANDLER_THREADS = 8;
+    private static final int HANDLER_QUEUE = 1024;
+
+    // Largest request body accepted
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final DrawEngine engine;
+    private final HttpServer server;
+    private final ThreadPoolExecutor handlers;
+
+    //Creates a server for an engine on the given port (0 picks a free port)
+    public KenoServer(DrawEngine engine, int port) throws IOException {
+        this.engine = engine;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        // The server's dispatcher thread only hands each request to the pool. When the
+        // queue is full it answers 503 at once, so it never stops accepting connections
+        this.handlers = new ThreadPoolExecutor(HANDLER_THREADS, HANDLER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(HANDLER_QUEUE));
+
+        server.createContext("/tickets", pooled(this::handleTickets));
+        server.createContext("/draws/latest", pooled(this::handleLatestDraw));
+        server.createContext("/jackpot", pooled(this::handleJackpot));
+        server.createContext("/metrics", pooled(this::handleMetrics));
+    }
+
+    //Starts accepting requests
+
+    public void start() {
+        server.start();
+    }
+
+    //Stops accepting requests and shuts down the handler threads
+
+    public void stop() {
+        server.stop(0);
+        handlers.shutdown();
+    }
+
+    //Port the server is listening on
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    //Wraps a handler so it runs on the handler pool: 503 if the pool is full, and 500
+     //for any unexpected exception so no request is left without a reply
+
+    private HttpHandler pooled(HttpHandler handler) {
+        return exchange -> {
+            try {
+                handlers.execute(() -> handleSafely(handler, exchange));
+            } catch (RejectedExecutionException e) {
+                respond(exchange, 503, "error=server busy\n");
+            }
+        };
+    }
+
+    private static void handleSafely(HttpHandler handler, HttpExchange exchange) {
+        try {
+            handler.handle(exchange);
+        } catch (RuntimeException e) {
+            try {
+                respond(exchange, 500, "error=" + e.getMessage() + "\n");
+            } catch (IOException | RuntimeException ignored) {
+                // Headers were already sent or the client is gone
+            }
+        } catch (IOException e) {
+            // The client went away while we were replying
+        } finally {
+            exchange.close();
+        }
+    }
+
+    //POST submits a ticket, GET looks one up
+
+    private void handleTickets(HttpExchange exchange) throws IOException {
+        try {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                Map<String, String> form = parseForm(readBody(exchange));
+                int spots = Integer.parseInt(required(form, "spots").trim());
+                Set<Integer> numbers = parseNumbers(required(form, "numbers"));
+                DrawEngine.Ticket ticket = engine.submit(spots, numbers);
+                respond(exchange, 202, "ticket=" + ticket.getId() + "\ndrawing=" + ticket.getDrawingNumber() + "\n");
+            } else if ("GET".equals(exchange.getRequestMethod())) {
+                Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+                DrawEngine.Ticket ticket = engine.getTicket(Long.parseLong(required(query, "id").trim()));
+                if (ticket == null) {
+                    respond(exchange, 404, "error=unknown ticket\n");
+                } else {
+                    respond(exchange, 200, describe(ticket));
+                }
+            } else {
+                respond(exchange, 405, "error=method not allowed\n");
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            respond(exchange, 400, "error=" + e.getMessage() + "\n");
+        }
+    }
+
+    //GET the most recent drawing
+
+    private void handleLatestDraw(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, "drawing=" + engine.getLastDrawingNumber() +
+                "\nnumbers=" + joinNumbers(engine.getLastDrawnNumbers()) +
+                "\nnext=" + engine.getOpenDrawingNumber() + "\n");
+    }
+
+    //GET the progressive jackpot (404 if the engine has none)
+
+    private void handleJackpot(HttpExchange exchange) throws IOException {
+        JackpotPool pool = engine.getJackpotPool();
+        if (pool == null) {
+            respond(exchange, 404, "error=no jackpot\n");
+            return;
+        }
+        respond(exchange, 200, "jackpot=" + String.format("%.2f", pool.getPoolValue()) +
+                "\npaid=" + pool.getJackpotsPaid() + "\n");
+    }
+
+    //GET the process-wide metrics
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, MetricsRegistry.global().export());
+    }
+
+    private static String describe(DrawEngine.Ticket ticket) {
+        StringBuilder text = new StringBuilder();
+        text.append("ticket=").append(ticket.getId()).append('\n');
+        text.append("drawing=").append(ticket.getDrawingNumber()).append('\n');
+        text.append("spots=").append(ticket.getSpots()).append('\n');
+        text.append("numbers=").append(joinNumbers(ticket.getNumbers())).append('\n');
+        if (ticket.isRejected()) {
+            text.append("status=REJECTED\n");
+        } else if (ticket.isSettled()) {
+            text.append("status=SETTLED\n");
+            text.append("matches=").append(ticket.getMatches()).append('\n');
+            text.append("winnings=").append(String.format("%.2f", ticket.getWinnings())).append('\n');
+        } else {
+            text.append("status=PENDING\n");
+        }
+        return text.toString();
+    }
+
+    private static String joinNumbers(Set<Integer> numbers) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int num : numbers) joiner.add(String.valueOf(num));
+        return joiner.toString();
+    }
+
+    private static Set<Integer> parseNumbers(String text) {
+        Set<Integer> numbers = new HashSet<>();
+        for (String part : text.split(",")) {
+            if (!part.trim().isEmpty()) {
+                numbers.add(Integer.parseInt(part.trim()));
+            }
+        }
+        return numbers;
+    }
+
+    private static String required(Map<String, String> form, String key) {
+        String value = form.get(key);
+        if (value == null) throw new IllegalArgumentException("missing " + key);
+        return value;
+    }
+
+    private static Map<String, String> parseForm(String text) {
+        Map<String, String> form = new HashMap<>();
+        if (text == null) return form;
+        for (String pair : text.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) throw new IllegalArgumentException("request too large");
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    //Runs the engine, server and display feed without the JavaFX UI.
+     //Usage: KenoServer [port] [seconds between drawings] [display feed port]
+
+    public static void main(String[] args) throws IOException {
+        KenoEvents.startRecordingFromProperty();
+        MetricsRegistry.startFileExportFromProperty();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int drawSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int feedPort = args.length > 2 ? Integer.parseInt(args[2]) : port + 1;
+
+        JackpotPool jackpot = new JackpotPool();
+        // -Dkeno.history=<file> keeps every drawing in a memory-mapped file across restarts
+        String historyFile = System.getProperty("keno.history");
+        DrawHistory history = historyFile == null
+                ? new DrawHistory(GameDefinition.STANDARD.getPoolSize())
+                : OffHeapDrawHistory.mapped(Paths.get(historyFile), GameDefinition.STANDARD.getPoolSize());
+        DrawEngine engine = new DrawEngine(GameDefinition.STANDARD, jackpot, history);
+        // -Dkeno.audit=<file> writes every settled ticket to a hash-chained audit log
+        String auditFile = System.getProperty("keno.audit");
+        AuditLog auditLog = auditFile == null ? null : new AuditLog(Paths.get(auditFile), GameDefinition.STANDARD.getPoolSize());
+        engine.setAuditLog(auditLog);
+        // Drawings are generated ahead on their own thread; -Dkeno.rng=secure|strong picks a SecureRandom
+        engine.setDrawSource(DrawPregenerator.fromProperty(GameDefinition.STANDARD));
+        MetricsRegistry.global().gauge("keno_jackpot_dollars", jackpot::getPoolValue);
+        KenoServer server = new KenoServer(engine, port);
+        DrawBroadcaster broadcaster = new DrawBroadcaster(feedPort, engine.getDefinition().getPoolSize());
+        engine.addDrawListener(broadcaster::publish);
+
+        // On exit, finish the drawing in progress, then flush the audit log and the mapped history
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            engine.stop();
+            if (auditLog != null) {
+                try {
+                    auditLog.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close audit log: " + e.getMessage());
+                }
+            }
+            if (history instanceof OffHeapDrawHistory) {
+                try {
+                    ((OffHeapDrawHistory) history).close();
+                } catch (IOException e) {
+                    System.err.println("Could not close draw history: " + e.getMessage());
+                }
+            }
+        }, "keno-shutdown"));
+
+        broadcaster.start();
+        engine.start(drawSeconds, TimeUnit.SECONDS);
+        server.start();
+        System.out.println("Keno server listening on port " + server.getPort() + ", drawing every " + drawSeconds + "s");
+        System.out.println("Display feed on port " + broadcaster.getPort());
+    }
+}
@@ -0,0 +1,110 @@
+// LatencyHistogram.java - Lock-free log-linear histogram for latency percentiles
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//LatencyHistogram records non-negative values (usually nanoseconds) into
+//HDR-style buckets: every power of two is split into 128 linear sub-buckets, so
+//any recorded value is reported within 1% while the whole 64-bit range fits in
+//about 7,300 counters. Recording is a couple of shifts and one atomic increment,
+//so many threads can record at once without a lock.
+
+public class LatencyHistogram {
+    // log2 of the sub-buckets per power of two (128 -> under 1% error)
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    //Records one value (negative values are recorded as 0)
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    //Value at or below which the given fraction of recordings fall (e.g. 0.99 for p99).
+     //Reported as the highest value of the bucket it lands in; 0 if nothing was recorded.
+
+    public long percentile(double fraction) {
+        long count = totalCount.get();
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    //Number of values recorded
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    //Largest value recorded
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    //Mean of the recorded values
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0.0 : (double) totalSum.get() / count;
+    }
+
+    //Clears every recording (not atomic with concurrent record calls)
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalSum.set(0);
+        maxValue.set(0);
+    }
+
+    //One-line summary with values converted from nanoseconds to microseconds
+
+    public String summarizeMicros() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                getCount(), getMean() / 1e3, percentile(0.50) / 1e3, percentile(0.99) / 1e3,
+                percentile(0.999) / 1e3, getMax() / 1e3);
+    }
+
+    //Bucket for a value: values below 128 map to themselves; above that, the top
+    //bit picks the power of two and the next 7 bits pick the sub-bucket
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return ((shift + 1) << SUB_BUCKET_BITS) | sub;
+    }
+
+    //Highest value that maps to a bucket
+
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long sub = index & (SUB_BUCKETS - 1);
+        long low = (SUB_BUCKETS + sub) << shift;
+        return low + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,151 @@
+// LiveOdds.java - Conditional match-count odds while a drawing is revealed
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+//LiveOdds tracks a ticket's chances while the drawn numbers appear one at a time.
+//After r of the D numbers are revealed with h of them on the ticket, the remaining
+//D - r numbers come from the R = pool - r unrevealed ones, of which U = spots - h
+//are still on the ticket, so the number of further hits is hypergeometric:
+//  P(final = h + j) = C(U, j) * C(R - U, D - r - j) / C(R, D - r)
+//Binomial coefficients are precomputed once and the results are written into
+//arrays allocated up front, so each reveal is a handful of multiplies with no garbage.
+
+public class LiveOdds {
+    // Size of the number pool (80 for standard Keno)
+    private final int poolSize;
+
+    // Numbers drawn per drawing (20 for standard Keno)
+    private final int drawSize;
+
+    // binomial[n][k] = C(n, k) as a double
+    private final double[][] binomial;
+
+    // probabilities[m] = chance of finishing with exactly m matches
+    private final double[] probabilities;
+
+    // payouts[m] = payout for finishing with m matches
+    private final double[] payouts;
+
+    // Spots on the ticket being tracked
+    private int spots;
+
+    // Numbers revealed so far and how many of them were on the ticket
+    private int revealed;
+    private int hits;
+
+    // Expected payout given what has been revealed
+    private double expectedPayout;
+
+    // Payout tables used by reset(spots)
+    private final GameDefinition definition;
+
+    //Creates odds tables for standard 80 number / 20 drawn Keno
+    public LiveOdds() {
+        this(GameDefinition.STANDARD);
+    }
+
+    //Creates odds tables for a Keno variant
+    public LiveOdds(GameDefinition definition) {
+        this(definition, definition.getPoolSize(), definition.getDrawSize());
+    }
+
+    //Creates odds tables for a pool and draw size, with standard payouts for reset(spots)
+    public LiveOdds(int poolSize, int drawSize) {
+        this(GameDefinition.STANDARD, poolSize, drawSize);
+    }
+
+    private LiveOdds(GameDefinition definition, int poolSize, int drawSize) {
+        this.definition = definition;
+        this.poolSize = poolSize;
+        this.drawSize = drawSize;
+        this.binomial = new double[poolSize + 1][poolSize + 1];
+        for (int n = 0; n <= poolSize; n++) {
+            binomial[n][0] = 1.0;
+            for (int k = 1; k <= n; k++) {
+                binomial[n][k] = binomial[n - 1][k - 1] + binomial[n - 1][k];
+            }
+        }
+        this.probabilities = new double[poolSize + 1];
+        this.payouts = new double[poolSize + 1];
+    }
+
+    //Starts tracking a new drawing for a ticket with this many spots.
+     //payoutsByMatches[m] is the payout for m matches (length spots + 1).
+
+    public void reset(int spots, double[] payoutsByMatches) {
+        this.spots = spots;
+        this.revealed = 0;
+        this.hits = 0;
+        System.arraycopy(payoutsByMatches, 0, payouts, 0, spots + 1);
+        update();
+    }
+
+    //Starts tracking a new drawing using the game definition's payout table
+
+    public void reset(int spots) {
+        for (int m = 0; m <= spots; m++) {
+            payouts[m] = definition.payoutFor(spots, m);
+        }
+        reset(spots, payouts);
+    }
+
+    //Records one revealed number and recomputes the odds
+
+    public void reveal(boolean onTicket) {
+        revealed++;
+        if (onTicket) hits++;
+        update();
+    }
+
+    //Recomputes every final-match probability and the expected payout
+
+    private void update() {
+        int remainingPool = poolSize - revealed;
+        int remainingDraws = drawSize - revealed;
+        int unmatched = spots - hits;
+        double total = binomial[remainingPool][remainingDraws];
+
+        double expected = 0.0;
+        for (int m = 0; m <= spots; m++) {
+            int j = m - hits;  // Further hits needed to finish with m matches
+            double p = 0.0;
+            if (j >= 0 && j <= unmatched && j <= remainingDraws
+                    && remainingDraws - j <= remainingPool - unmatched) {
+                p = binomial[unmatched][j] * binomial[remainingPool - unmatched][remainingDraws - j] / total;
+            }
+            probabilities[m] = p;
+            expected += p * payouts[m];
+        }
+        expectedPayout = expected;
+    }
+
+    //Chance of finishing the drawing with exactly this many matches
+
+    public double getProbability(int matches) {
+        return probabilities[matches];
+    }
+
+    //Expected payout of the ticket given the numbers revealed so far
+
+    public double getExpectedPayout() {
+        return expectedPayout;
+    }
+
+    //Spots on the ticket being tracked
+
+    public int getSpots() {
+        return spots;
+    }
+
+    //Numbers revealed so far
+
+    public int getRevealed() {
+        return revealed;
+    }
+
+    //Revealed numbers that were on the ticket
+
+    public int getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,173 @@
+// LoadGenerator.java - Synthetic players against the draw/settlement engine
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+//LoadGenerator simulates many terminals submitting tickets to one DrawEngine while
+//drawings run on a fixed schedule, then reports throughput and latency percentiles.
+//It answers "how many terminals can one node serve": raise the player count until
+//submit or settlement latency stops meeting the venue's targets.
+//
+//Usage: LoadGenerator [players] [seconds] [draw interval ms] [mean think time ms]
+//
+//Spot counts follow a typical mix of 1/4/8/10-spot play (see SPOT_MIX).
+//Three latencies are recorded in LatencyHistograms:
+// - submit:     time a player spends in DrawEngine.submit
+// - settlement: time from a drawing's ticket cutoff until each ticket is settled
+// - draw:       time to run one drawing and settle its whole batch
+
+public class LoadGenerator {
+    // Spot counts and their share of tickets
+    private static final int[] SPOT_MIX = {1, 4, 8, 10};
+    private static final double[] SPOT_WEIGHTS = {0.10, 0.30, 0.35, 0.25};
+
+    private final DrawEngine engine;
+    private final int players;
+    private final long thinkMillis;
+
+    private final LatencyHistogram submitLatency = new LatencyHistogram();
+    private final LatencyHistogram settlementLatency = new LatencyHistogram();
+    private final LatencyHistogram drawLatency = new LatencyHistogram();
+    private final AtomicLong ticketsSubmitted = new AtomicLong();
+    private final AtomicLong ticketsSettled = new AtomicLong();
+
+    // Tickets waiting for their drawing, checked after each drawing
+    private final ConcurrentLinkedQueue<DrawEngine.Ticket> outstanding = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+
+    //Creates a generator for an engine with the given player count and mean think time
+    public LoadGenerator(DrawEngine engine, int players, long thinkMillis) {
+        this.engine = engine;
+        this.players = players;
+        this.thinkMillis = thinkMillis;
+    }
+
+    //Runs players and scheduled drawings for the given duration, then stops both
+
+    public void run(long durationMillis, long drawIntervalMillis) throws InterruptedException {
+        running = true;
+        ExecutorService playerThreads = Executors.newFixedThreadPool(players);
+        for (int i = 0; i < players; i++) {
+            long seed = i;
+            playerThreads.execute(() -> playerLoop(new SplittableRandom(seed)));
+        }
+
+        ScheduledExecutorService drawThread = Executors.newSingleThreadScheduledExecutor();
+        drawThread.scheduleAtFixedRate(this::timedDraw, drawIntervalMillis, drawIntervalMillis, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(durationMillis);
+        running = false;
+        playerThreads.shutdown();
+        playerThreads.awaitTermination(10, TimeUnit.SECONDS);
+        drawThread.shutdown();
+        drawThread.awaitTermination(10, TimeUnit.SECONDS);
+        timedDraw();  // Settle whatever was submitted last
+    }
+
+    //One simulated terminal: submit a ticket, think, repeat
+
+    private void playerLoop(SplittableRandom random) {
+        while (running) {
+            int spots = pickSpots(random);
+            Set<Integer> numbers = pickNumbers(spots, engine.getDefinition().getPoolSize(), random);
+
+            long start = System.nanoTime();
+            DrawEngine.Ticket ticket = engine.submit(spots, numbers);
+            submitLatency.record(System.nanoTime() - start);
+            ticketsSubmitted.incrementAndGet();
+            outstanding.add(ticket);
+
+            if (thinkMillis > 0) {
+                try {
+                    // Uniform think time around the mean so players do not move in lockstep
+                    Thread.sleep(random.nextLong(2 * thinkMillis + 1));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    //Runs one drawing, times it, and records settlement latency for every ticket it settled
+
+    private void timedDraw() {
+        long start = System.nanoTime();
+        int drawing = engine.runDraw();
+        drawLatency.record(System.nanoTime() - start);
+
+        Iterator<DrawEngine.Ticket> it = outstanding.iterator();
+        while (it.hasNext()) {
+            DrawEngine.Ticket ticket = it.next();
+            if (ticket.getDrawingNumber() <= drawing && ticket.isSettled()) {
+                settlementLatency.record(ticket.getSettlementLatencyNanos());
+                ticketsSettled.incrementAndGet();
+                it.remove();
+            }
+        }
+    }
+
+    private static int pickSpots(SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < SPOT_MIX.length - 1; i++) {
+            r -= SPOT_WEIGHTS[i];
+            if (r < 0) return SPOT_MIX[i];
+        }
+        return SPOT_MIX[SPOT_MIX.length - 1];
+    }
+
+    private static Set<Integer> pickNumbers(int spots, int poolSize, SplittableRandom random) {
+        Set<Integer> numbers = new HashSet<>();
+        while (numbers.size() < spots) {
+            numbers.add(random.nextInt(poolSize) + 1);
+        }
+        return numbers;
+    }
+
+    //Formats the results of a run
+
+    public String report(long durationMillis) {
+        double seconds = durationMillis / 1000.0;
+        return String.format("players=%d duration=%.1fs%n", players, seconds) +
+                String.format("submitted=%d (%.0f/s) settled=%d (%.0f/s)%n",
+                        ticketsSubmitted.get(), ticketsSubmitted.get() / seconds,
+                        ticketsSettled.get(), ticketsSettled.get() / seconds) +
+                "submit:     " + submitLatency.summarizeMicros() + "\n" +
+                "settlement: " + settlementLatency.summarizeMicros() + "\n" +
+                "draw:       " + drawLatency.summarizeMicros() + "\n";
+    }
+
+    public LatencyHistogram getSubmitLatency() {
+        return submitLatency;
+    }
+
+    public LatencyHistogram getSettlementLatency() {
+        return settlementLatency;
+    }
+
+    public LatencyHistogram getDrawLatency() {
+        return drawLatency;
+    }
+
+    public long getTicketsSubmitted() {
+        return ticketsSubmitted.get();
+    }
+
+    public long getTicketsSettled() {
+        return ticketsSettled.get();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        long drawIntervalMillis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        long thinkMillis = args.length > 3 ? Long.parseLong(args[3]) : 10;
+
+        LoadGenerator generator = new LoadGenerator(new DrawEngine(), players, thinkMillis);
+        generator.run(seconds * 1000, drawIntervalMillis);
+        System.out.print(generator.report(seconds * 1000));
+    }
+}
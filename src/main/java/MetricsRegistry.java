@@ -0,0 +1,204 @@
+// MetricsRegistry.java - Dependency-free counters, gauges and latency histograms
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+//MetricsRegistry keeps the terminal's health numbers in one place so they can be
+//shown in the game's metrics overlay, served by KenoServer at GET /metrics or
+//written to a file, without a profiler or a metrics library.
+//
+//Three kinds of metric, looked up by name:
+// - counters: LongAdder totals, with a per-second rate worked out when read
+// - gauges:   functions read at export time (heap use, jackpot size)
+// - histograms: LatencyHistograms of nanosecond timings (settlement, frame time)
+//Updating a counter or histogram takes no lock; the registry's maps are only
+//written when a metric is first created.
+//
+//The export format is one "name value" line per number, histograms as
+//name_count, name_mean_us, name_p50_us, name_p99_us and name_max_us. Start the
+//game or server with -Dkeno.metrics=<file> to have it written every few seconds.
+
+public class MetricsRegistry {
+    // System property naming the file the global registry is exported to
+    private static final String EXPORT_PROPERTY = "keno.metrics";
+
+    // Seconds between file exports
+    private static final long EXPORT_PERIOD_SECONDS = 5;
+
+    // Registry the game and server report to
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    // File export started by startFileExportFromProperty, if any
+    private static ScheduledExecutorService fileExporter;
+
+    static {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        GLOBAL.gauge("jvm_heap_used_bytes", () -> memory.getHeapMemoryUsage().getUsed());
+        GLOBAL.gauge("jvm_heap_committed_bytes", () -> memory.getHeapMemoryUsage().getCommitted());
+        GLOBAL.gauge("jvm_heap_max_bytes", () -> memory.getHeapMemoryUsage().getMax());
+    }
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // When the registry was created, for the uptime line
+    private final long startNanos = System.nanoTime();
+
+    //Registry shared by the whole process
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    //Rewrites the global registry's export every few seconds to the file named by
+     //-Dkeno.metrics=<file>, if given. Does nothing otherwise, or if already started.
+
+    public static synchronized void startFileExportFromProperty() {
+        String file = System.getProperty(EXPORT_PROPERTY);
+        if (file == null || file.isEmpty() || fileExporter != null) return;
+        fileExporter = GLOBAL.startFileExport(Paths.get(file), EXPORT_PERIOD_SECONDS);
+    }
+
+    //Counter with this name, created on first use
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    //Registers (or replaces) a gauge read at export time
+
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    //Histogram with this name, created on first use
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    //Registers (or replaces) a histogram kept by another component
+
+    public void register(String name, LatencyHistogram histogram) {
+        histograms.put(name, histogram);
+    }
+
+    //Every metric as text, sorted by name (see class comment)
+
+    public String export() {
+        StringBuilder text = new StringBuilder();
+        line(text, "uptime_seconds", (System.nanoTime() - startNanos) / 1e9);
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            Counter counter = entry.getValue();
+            text.append(entry.getKey()).append(' ').append(counter.get()).append('\n');
+            line(text, entry.getKey() + "_per_second", counter.ratePerSecond());
+        }
+        for (Map.Entry<String, DoubleSupplier> entry : new TreeMap<>(gauges).entrySet()) {
+            line(text, entry.getKey(), entry.getValue().getAsDouble());
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            String name = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            text.append(name).append("_count ").append(histogram.getCount()).append('\n');
+            line(text, name + "_mean_us", histogram.getMean() / 1e3);
+            line(text, name + "_p50_us", histogram.percentile(0.50) / 1e3);
+            line(text, name + "_p99_us", histogram.percentile(0.99) / 1e3);
+            line(text, name + "_max_us", histogram.getMax() / 1e3);
+        }
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String name, double value) {
+        text.append(name).append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(String.format(Locale.ROOT, "%.3f", value));  // "name value" whatever the default locale
+        }
+        text.append('\n');
+    }
+
+    //Writes the export to a file, replacing it in one step so readers never see half a file
+
+    public void writeTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        Files.write(temp, export().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Rewrites the file every periodSeconds on a daemon thread; returns the scheduler so it can be stopped
+
+    public ScheduledExecutorService startFileExport(Path file, long periodSeconds) {
+        ScheduledExecutorService exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            try {
+                writeTo(file);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return exporter;
+    }
+
+    //A running total. increment/add never lock; ratePerSecond is worked out when read.
+
+    public static class Counter {
+        // Shortest window a rate is measured over
+        private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final LongAdder count = new LongAdder();
+
+        // Start of the current rate window and the count at that time (readers only)
+        private long windowStartNanos = System.nanoTime();
+        private long windowStartCount;
+        private double lastRate;
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+
+        //Increase per second over the last window of at least one second.
+         //Only readers take this lock, so it never slows down increment.
+
+        public synchronized double ratePerSecond() {
+            long now = System.nanoTime();
+            long elapsed = now - windowStartNanos;
+            if (elapsed >= RATE_WINDOW_NANOS) {
+                long current = count.sum();
+                lastRate = (current - windowStartCount) * 1e9 / elapsed;
+                windowStartNanos = now;
+                windowStartCount = current;
+            }
+            return lastRate;
+        }
+    }
+}
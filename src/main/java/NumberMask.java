@@ -0,0 +1,77 @@
+// NumberMask.java - Packed bitmap helpers for Keno number sets
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//NumberMask converts between Set<Integer> number sets and packed long[] bitmaps.
+//Number n (1-based) is stored as bit (n - 1), so the standard 80 number pool
+//fits in two longs and matching a ticket against a draw is two popcounts.
+
+public final class NumberMask {
+
+    private NumberMask() {
+    }
+
+    //Number of 64-bit words needed to hold one bit per number in the pool
+
+    public static int wordsFor(int poolSize) {
+        return (poolSize + 63) >>> 6;
+    }
+
+    //Packs a set of numbers (1..poolSize) into a new bitmap
+
+    public static long[] toMask(Collection<Integer> numbers, int poolSize) {
+        long[] mask = new long[wordsFor(poolSize)];
+        for (int num : numbers) {
+            set(mask, num);
+        }
+        return mask;
+    }
+
+    //Sets the bit for a single number (1-based)
+
+    public static void set(long[] mask, int number) {
+        mask[(number - 1) >>> 6] |= 1L << (number - 1);
+    }
+
+    //Checks whether a number (1-based) is present in the bitmap
+
+    public static boolean contains(long[] mask, int number) {
+        return (mask[(number - 1) >>> 6] & (1L << (number - 1))) != 0;
+    }
+
+    //Counts numbers present in both bitmaps (the match count for a ticket and a draw)
+
+    public static int countMatches(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++) {
+            count += Long.bitCount(a[w] & b[w]);
+        }
+        return count;
+    }
+
+    //Counts how many numbers are set in the bitmap
+
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    //Unpacks a bitmap back into a sorted set of numbers
+
+    public static Set<Integer> toSet(long[] mask) {
+        Set<Integer> numbers = new TreeSet<>();
+        for (int w = 0; w < mask.length; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                numbers.add((w << 6) + Long.numberOfTrailingZeros(word) + 1);
+                word &= word - 1;  // Clear lowest set bit
+            }
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,189 @@
+// OffHeapDrawHistory.java - Draw history kept in direct or memory-mapped buffers
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+//OffHeapDrawHistory is a DrawHistory whose drawings live outside the Java heap,
+//for multi-year histories of 100 million draws or more. Each drawing is stored
+//as its bitmap cut to whole bytes (10 bytes for the 80 number pool) in fixed-size
+//segments of direct ByteBuffers, or of a memory-mapped file when built with
+//mapped(). The heap only holds the list of segments, so the GC never scans the
+//drawings, and a mapped history survives restarts.
+//
+//Bits are stored little-endian, so byte b of a drawing holds numbers 8b+1..8b+8
+//exactly as they sit in the NumberMask words; reading a word is one getLong when
+//8 bytes are left and a few byte reads for the last partial word.
+//
+//Like DrawHistory it is written by one thread; other threads may read drawings
+//below a size() they have seen after the writer published it. The segments are
+//an array replaced whole (and published through a volatile field) when one is
+//added, so a reader never sees a list part way through growing.
+
+public class OffHeapDrawHistory extends DrawHistory {
+    // Drawings per segment (10 MB segments for the 80 number pool)
+    private static final int SEGMENT_DRAWS = 1 << 20;
+
+    // Mapped file header: magic, pool size, drawing count
+    private static final int MAGIC = 0x4B454E4F;  // "KENO"
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+
+    // Bytes per drawing (the bitmap cut to whole bytes)
+    private final int bytesPerDraw;
+
+    // Segments of SEGMENT_DRAWS drawings each, little-endian; copied on growth
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+    // Backing file and its header when mapped, null otherwise
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+
+    // Number of drawings stored
+    private volatile int size;
+
+    //Creates an empty history in direct buffers for a pool of the given size
+    public OffHeapDrawHistory(int poolSize) {
+        this(poolSize, null, null);
+    }
+
+    private OffHeapDrawHistory(int poolSize, FileChannel channel, MappedByteBuffer header) {
+        super(poolSize);
+        this.bytesPerDraw = (poolSize + 7) / 8;
+        this.channel = channel;
+        this.header = header;
+    }
+
+    //Opens (or creates) a history kept in a memory-mapped file. An existing file must
+     //have been written for the same pool size; its drawings are available at once.
+
+    public static OffHeapDrawHistory mapped(Path file, int poolSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (created) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, poolSize);
+            header.putLong(COUNT_OFFSET, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(4) != poolSize) {
+            channel.close();
+            throw new IOException(file + " is not a draw history for a pool of " + poolSize);
+        }
+
+        OffHeapDrawHistory history = new OffHeapDrawHistory(poolSize, channel, header);
+        long stored = header.getLong(COUNT_OFFSET);
+        while ((long) history.segments.length * SEGMENT_DRAWS < stored) {
+            history.addSegment();
+        }
+        history.size = (int) stored;
+        return history;
+    }
+
+    //Appends a drawing already packed as a bitmap and returns its index
+
+    @Override
+    public int append(long[] mask) {
+        int draw = size;
+        if (draw == Integer.MAX_VALUE) {
+            throw new IllegalStateException("draw history is full");
+        }
+        if (draw / SEGMENT_DRAWS == segments.length) {
+            addSegment();
+        }
+        ByteBuffer segment = segments[draw / SEGMENT_DRAWS];
+        int offset = (draw % SEGMENT_DRAWS) * bytesPerDraw;
+        for (int b = 0; b < bytesPerDraw; b++) {
+            segment.put(offset + b, (byte) (mask[b >>> 3] >>> ((b & 7) << 3)));
+        }
+        if (header != null) {
+            header.putLong(COUNT_OFFSET, draw + 1);
+        }
+        size = draw + 1;  // Volatile write publishes the bytes above
+        return draw;
+    }
+
+    //Returns one word of a stored drawing's bitmap
+
+    @Override
+    public long word(int draw, int w) {
+        ByteBuffer segment = segments[draw / SEGMENT_DRAWS];
+        int offset = (draw % SEGMENT_DRAWS) * bytesPerDraw + (w << 3);
+        int bytes = Math.min(8, bytesPerDraw - (w << 3));
+        if (bytes == 8) {
+            return segment.getLong(offset);
+        }
+        long word = 0;
+        for (int b = 0; b < bytes; b++) {
+            word |= (segment.get(offset + b) & 0xFFL) << (b << 3);
+        }
+        return word;
+    }
+
+    //Copies a stored drawing's bitmap into dst (length wordsPerDraw)
+
+    @Override
+    public void copyDraw(int draw, long[] dst) {
+        for (int w = 0; w < getWordsPerDraw(); w++) {
+            dst[w] = word(draw, w);
+        }
+    }
+
+    //Number of drawings stored
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //Bytes of off-heap memory (or file) holding drawings
+
+    public long getStorageBytes() {
+        return (long) segments.length * SEGMENT_DRAWS * bytesPerDraw;
+    }
+
+    //true if the drawings are kept in a memory-mapped file
+
+    public boolean isMapped() {
+        return channel != null;
+    }
+
+    //Writes a mapped history's changes to disk and closes the file. Direct buffers
+     //are freed by the garbage collector once the history is unreachable.
+
+    public void close() throws IOException {
+        if (channel == null) return;
+        for (ByteBuffer segment : segments) {
+            ((MappedByteBuffer) segment).force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    private void addSegment() {
+        int segmentBytes = SEGMENT_DRAWS * bytesPerDraw;
+        ByteBuffer segment;
+        if (channel == null) {
+            segment = ByteBuffer.allocateDirect(segmentBytes);
+        } else {
+            long position = HEADER_BYTES + (long) segments.length * segmentBytes;
+            try {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentBytes);
+            } catch (IOException e) {
+                throw new IllegalStateException("could not grow draw history file", e);
+            }
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer[] grown = Arrays.copyOf(segments, segments.length + 1);
+        grown[grown.length - 1] = segment;
+        segments = grown;  // Volatile write publishes the new segment
+    }
+}
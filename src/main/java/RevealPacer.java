@@ -0,0 +1,106 @@
+// RevealPacer.java - Time-based pacing for the drawing reveal animation
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+//RevealPacer decides how many drawn numbers should be on screen at a given frame
+//time. Number k (0-based) is due intervalNanos * k after the reveal starts and the
+//drawing is over intervalNanos after the last one, so a drawing always takes
+//total * interval however fast the screen redraws.
+//
+//The game asks once per frame (AnimationTimer pulse). On a screen that keeps up
+//each frame reveals zero or one number; when frames arrive late, one frame
+//reveals every number that came due since the last one, so a slow kiosk skips
+//the in-between label updates instead of falling behind the venue's display.
+//It also records the frame intervals it sees and counts the frames that had to
+//catch up, so the metrics overlay can show how far a screen lags.
+
+public class RevealPacer {
+    private final int total;
+    private final long intervalNanos;
+
+    // Frame time of start(), and of the previous frame if there was one
+    private long startNanos;
+    private long lastFrameNanos;
+    private boolean sawFrame;
+
+    // Numbers revealed so far
+    private int revealed;
+
+    // Frames that revealed more than one number
+    private int catchUpFrames;
+
+    // Receives the time between frames seen while revealing
+    private final LatencyHistogram frameIntervals;
+
+    //Creates a pacer for total numbers revealed intervalNanos apart
+    public RevealPacer(int total, long intervalNanos) {
+        this(total, intervalNanos, new LatencyHistogram());
+    }
+
+    //Creates a pacer that records frame intervals into a shared histogram
+    public RevealPacer(int total, long intervalNanos, LatencyHistogram frameIntervals) {
+        if (total < 0 || intervalNanos <= 0) {
+            throw new IllegalArgumentException("need a non-negative count and a positive interval");
+        }
+        this.total = total;
+        this.intervalNanos = intervalNanos;
+        this.frameIntervals = frameIntervals;
+    }
+
+    //Starts the schedule at the given frame time; the first number is due immediately
+
+    public void start(long nowNanos) {
+        startNanos = nowNanos;
+        sawFrame = false;
+        revealed = 0;
+    }
+
+    //Called once per frame. Returns how many more numbers to reveal in this frame
+     //(0 if none came due) and counts them as revealed.
+
+    public int advance(long nowNanos) {
+        if (sawFrame) frameIntervals.record(nowNanos - lastFrameNanos);
+        lastFrameNanos = nowNanos;
+        sawFrame = true;
+
+        int due = dueBy(nowNanos);
+        int reveal = due - revealed;
+        if (reveal > 1) catchUpFrames++;
+        revealed = due;
+        return reveal;
+    }
+
+    //Numbers that should be showing at this time
+
+    public int dueBy(long nowNanos) {
+        long elapsed = nowNanos - startNanos;
+        if (elapsed < 0) return 0;
+        return (int) Math.min(total, elapsed / intervalNanos + 1);
+    }
+
+    //true once every number is out and the last one has had its full interval
+
+    public boolean isFinished(long nowNanos) {
+        return revealed == total && nowNanos - startNanos >= total * intervalNanos;
+    }
+
+    public int getRevealed() {
+        return revealed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    //Frames that revealed more than one number because the screen fell behind
+
+    public int getCatchUpFrames() {
+        return catchUpFrames;
+    }
+
+    //Histogram the frame intervals are recorded into
+
+    public LatencyHistogram getFrameIntervals() {
+        return frameIntervals;
+    }
+}
@@ -0,0 +1,461 @@
+// SessionJournal.java - Crash recovery for GameState with snapshots and a write-ahead log
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+//SessionJournal keeps a GameState recoverable after the process dies. GameState
+//hands it every snapshot it publishes; the journal compares it with the previous
+//one and appends a small binary record of just the fields that changed (the
+//write-ahead log). Every SNAPSHOT_EVERY records it writes the whole state to a
+//snapshot file and empties the log, so a restart reads one snapshot and replays
+//at most a few hundred records however long the session ran.
+//
+//  session.snap  magic, sequence covered, every GameState field, CRC32
+//  session.wal   records: length, sequence, changed-field flags, changed values, CRC32
+//
+//A record torn by a crash fails its CRC and ends the replay there. The caller's
+//thread (the FX thread or the auto play worker) only appends records to the log,
+//which goes to the OS page cache. Everything that waits for the disk runs on the
+//journal's own "session-journal" thread. It forces the log every FORCE_INTERVAL_MS,
+//so a power cut loses at most that much of the session. It also writes the
+//snapshots. Record and GameState calls come from one thread at a time.
+
+public class SessionJournal implements AutoCloseable {
+    // Log records between snapshots
+    static final int SNAPSHOT_EVERY = 500;
+
+    // Longest time a written record may wait before being forced to disk
+    private static final long FORCE_INTERVAL_MS = 50;
+
+    private static final int SNAPSHOT_MAGIC = 0x4B534E50;  // "KSNP"
+    private static final String SNAPSHOT_FILE = "session.snap";
+    private static final String LOG_FILE = "session.wal";
+
+    // Changed-field flags of a log record, in the order their values are written
+    private static final int TOTAL_WINNINGS = 1;
+    private static final int DRAWING_NUMBER = 1 << 1;
+    private static final int TOTAL_DRAWINGS = 1 << 2;
+    private static final int PLAYER_SPOTS = 1 << 3;
+    private static final int PLAYER_NUMBERS = 1 << 4;
+    private static final int DRAWN_NUMBERS = 1 << 5;
+    private static final int DRAWING_WINNINGS = 1 << 6;
+
+    private final Path directory;
+    private final int poolSize;
+    private final FileChannel log;
+
+    // Sequence number of the last record written (or covered by the snapshot)
+    private long sequence;
+
+    // Records in the log since the last snapshot
+    private int recordsSinceSnapshot;
+
+    // State the next record is compared against
+    private GameStateSnapshot last;
+
+    // Records replayed on open, for reporting
+    private final int replayedRecords;
+
+    // Whether anything was recovered on open
+    private final boolean recovered;
+
+    // Background thread that forces the log and writes snapshots
+    private final ScheduledExecutorService flusher;
+
+    // Records written since the log was last forced
+    private boolean dirty;
+
+    // A snapshot has been handed to the flusher and not finished yet
+    private boolean snapshotPending;
+
+    // No more records are accepted once close() starts
+    private boolean closed;
+
+    // Serializes snapshot writers (the flusher and explicit writeSnapshot/close calls)
+    private final Object snapshotLock = new Object();
+
+    private SessionJournal(Path directory, int poolSize, FileChannel log, long sequence,
+                           int replayedRecords, boolean recovered, GameStateSnapshot last) {
+        this.directory = directory;
+        this.poolSize = poolSize;
+        this.log = log;
+        this.sequence = sequence;
+        this.recordsSinceSnapshot = replayedRecords;
+        this.replayedRecords = replayedRecords;
+        this.recovered = recovered;
+        this.last = last;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::forceIfDirty, FORCE_INTERVAL_MS, FORCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    //Restores the state saved in directory (if any) into gameState, then journals
+     //every later change. Creates the directory if needed.
+
+    public static SessionJournal open(Path directory, GameState gameState) throws IOException {
+        Files.createDirectories(directory);
+        int poolSize = gameState.getDefinition().getPoolSize();
+
+        long sequence = 0;
+        boolean recovered = false;
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile)).order(ByteOrder.LITTLE_ENDIAN);
+            sequence = readSnapshot(snapshot, poolSize, gameState);
+            recovered = true;
+        }
+
+        FileChannel log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer records = ByteBuffer.allocate((int) log.size()).order(ByteOrder.LITTLE_ENDIAN);
+        while (records.hasRemaining()) {
+            if (log.read(records, records.position()) < 0) break;
+        }
+        records.flip();
+
+        int replayed = 0;
+        int validEnd = 0;
+        while (true) {
+            Record record = Record.read(records, poolSize);
+            if (record == null) break;
+            validEnd = records.position();
+            if (record.sequence <= sequence) continue;  // already in the snapshot
+            record.applyTo(gameState);
+            sequence = record.sequence;
+            replayed++;
+            recovered = true;
+        }
+        log.truncate(validEnd);  // drop a record torn by the crash
+        log.position(validEnd);
+
+        return new SessionJournal(directory, poolSize, log, sequence, replayed, recovered, gameState.getSnapshot());
+    }
+
+    //Called by GameState after it publishes a new snapshot; logs what changed.
+     //Never waits for the disk: forcing and snapshots happen on the journal's thread.
+
+    public void record(GameStateSnapshot next) {
+        synchronized (this) {
+            if (closed) return;
+            int flags = changedFields(last, next);
+            last = next;
+            if (flags == 0) return;
+
+            sequence++;
+            ByteBuffer record = Record.encode(sequence, flags, next, poolSize);
+            try {
+                while (record.hasRemaining()) log.write(record);
+                dirty = true;
+            } catch (IOException e) {
+                System.err.println("Could not journal session state: " + e.getMessage());
+                return;
+            }
+            if (++recordsSinceSnapshot < SNAPSHOT_EVERY || snapshotPending) return;
+            snapshotPending = true;
+        }
+        scheduleSnapshot();
+    }
+
+    private void scheduleSnapshot() {
+        try {
+            flusher.execute(this::snapshotInBackground);
+        } catch (RejectedExecutionException e) {
+            // Closing: close() writes the final snapshot itself
+        }
+    }
+
+    private void snapshotInBackground() {
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            System.err.println("Could not write session snapshot: " + e.getMessage());
+        }
+        boolean again;
+        synchronized (this) {
+            // Many records may have arrived while it was written; keep the log short
+            again = !closed && recordsSinceSnapshot >= SNAPSHOT_EVERY;
+            snapshotPending = again;
+        }
+        if (again) scheduleSnapshot();
+    }
+
+    //Writes the whole state to the snapshot file and drops the records it covers from
+     //the log. Records keep being appended meanwhile; only the capture and the final
+     //log compaction hold the journal's lock, never the fsyncs.
+
+    public void writeSnapshot() throws IOException {
+        synchronized (snapshotLock) {
+            GameStateSnapshot state;
+            long covered;
+            long coveredEnd;
+            synchronized (this) {
+                state = last;
+                covered = sequence;
+                coveredEnd = log.position();
+            }
+            writeSnapshotFile(state, covered);
+            synchronized (this) {
+                compactLog(coveredEnd);
+                recordsSinceSnapshot = (int) (sequence - covered);
+            }
+        }
+    }
+
+    private void writeSnapshotFile(GameStateSnapshot state, long covered) throws IOException {
+        int words = NumberMask.wordsFor(poolSize);
+        ByteBuffer snapshot = ByteBuffer.allocate(4 + 8 + 8 + 4 + 4 + 4 + 8 + 16 * words + 8)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        snapshot.putInt(SNAPSHOT_MAGIC);
+        snapshot.putLong(covered);
+        snapshot.putDouble(state.getTotalWinnings());
+        snapshot.putInt(state.getCurrentDrawingNumber());
+        snapshot.putInt(state.getTotalDrawings());
+        snapshot.putInt(state.getPlayerSpots());
+        snapshot.putDouble(state.getCurrentDrawingWinnings());
+        for (long word : NumberMask.toMask(state.getPlayerNumbers(), poolSize)) snapshot.putLong(word);
+        for (long word : NumberMask.toMask(state.getCurrentDrawnNumbers(), poolSize)) snapshot.putLong(word);
+        CRC32 crc = new CRC32();
+        crc.update(snapshot.array(), 0, snapshot.position());
+        snapshot.putLong(crc.getValue());
+
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            snapshot.flip();
+            while (snapshot.hasRemaining()) out.write(snapshot);
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Moves the records written after coveredEnd (during the snapshot) to the start of
+     //the log and cuts it there. Records before coveredEnd are in the snapshot, so a
+     //crash part way through only leaves records that replay skips or stops at. Called
+     //with the lock held; the tail is a few records, and the flusher forces the result.
+
+    private void compactLog(long coveredEnd) throws IOException {
+        int tail = (int) (log.position() - coveredEnd);
+        ByteBuffer rest = ByteBuffer.allocate(tail);
+        while (rest.hasRemaining()) {
+            if (log.read(rest, coveredEnd + rest.position()) < 0) break;
+        }
+        rest.flip();
+        long at = 0;
+        while (rest.hasRemaining()) at += log.write(rest, at);
+        log.truncate(tail);
+        log.position(tail);
+        dirty = true;
+    }
+
+    //Records replayed from the log when the journal was opened
+
+    public int getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    //true if open() found a saved session and restored it
+
+    public boolean wasRecovered() {
+        return recovered;
+    }
+
+    //Waits until no snapshot is pending on the journal's thread (for tests)
+
+    void awaitBackgroundWork() throws InterruptedException {
+        while (true) {
+            try {
+                flusher.submit(() -> { }).get();
+            } catch (ExecutionException | RejectedExecutionException e) {
+                return;
+            }
+            synchronized (this) {
+                if (!snapshotPending) return;
+            }
+        }
+    }
+
+    //Writes a final snapshot and closes the log
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeSnapshot();
+        log.force(false);
+        log.close();
+    }
+
+    //Flusher tick: forces the log if records were written since the last force.
+     //The lock only covers the flag, so record() never waits for the fsync.
+
+    private void forceIfDirty() {
+        synchronized (this) {
+            if (!dirty || !log.isOpen()) return;
+            dirty = false;
+        }
+        try {
+            log.force(false);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            System.err.println("Could not flush session journal: " + e.getMessage());
+        }
+    }
+
+    //Flags of the fields that differ between two snapshots (number sets are compared
+    //by identity first, since GameState reuses unchanged sets)
+
+    private static int changedFields(GameStateSnapshot before, GameStateSnapshot after) {
+        int flags = 0;
+        if (before.getTotalWinnings() != after.getTotalWinnings()) flags |= TOTAL_WINNINGS;
+        if (before.getCurrentDrawingNumber() != after.getCurrentDrawingNumber()) flags |= DRAWING_NUMBER;
+        if (before.getTotalDrawings() != after.getTotalDrawings()) flags |= TOTAL_DRAWINGS;
+        if (before.getPlayerSpots() != after.getPlayerSpots()) flags |= PLAYER_SPOTS;
+        if (before.getPlayerNumbers() != after.getPlayerNumbers()
+                && !before.getPlayerNumbers().equals(after.getPlayerNumbers())) flags |= PLAYER_NUMBERS;
+        if (before.getCurrentDrawnNumbers() != after.getCurrentDrawnNumbers()
+                && !before.getCurrentDrawnNumbers().equals(after.getCurrentDrawnNumbers())) flags |= DRAWN_NUMBERS;
+        if (before.getCurrentDrawingWinnings() != after.getCurrentDrawingWinnings()) flags |= DRAWING_WINNINGS;
+        return flags;
+    }
+
+    //Reads and checks a snapshot file, restores it into gameState and returns the sequence it covers
+
+    private static long readSnapshot(ByteBuffer snapshot, int poolSize, GameState gameState) throws IOException {
+        int words = NumberMask.wordsFor(poolSize);
+        int length = 4 + 8 + 8 + 4 + 4 + 4 + 8 + 16 * words;
+        if (snapshot.remaining() != length + 8 || snapshot.getInt(0) != SNAPSHOT_MAGIC) {
+            throw new IOException("session snapshot is not for this game");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(snapshot.array(), 0, length);
+        if (snapshot.getLong(length) != crc.getValue()) {
+            throw new IOException("session snapshot is corrupt");
+        }
+
+        snapshot.position(4);
+        long sequence = snapshot.getLong();
+        double totalWinnings = snapshot.getDouble();
+        int drawingNumber = snapshot.getInt();
+        int totalDrawings = snapshot.getInt();
+        int spots = snapshot.getInt();
+        double drawingWinnings = snapshot.getDouble();
+        Set<Integer> player = readMask(snapshot, words);
+        Set<Integer> drawn = readMask(snapshot, words);
+        gameState.restore(new GameStateSnapshot(totalWinnings, drawingNumber, totalDrawings, spots,
+                player, drawn, drawingWinnings));
+        return sequence;
+    }
+
+    private static Set<Integer> readMask(ByteBuffer buffer, int words) {
+        long[] mask = new long[words];
+        for (int w = 0; w < words; w++) mask[w] = buffer.getLong();
+        return NumberMask.toSet(mask);
+    }
+
+    //One log record: the fields that changed in one state transition
+
+    private static class Record {
+        private final long sequence;
+        private final int flags;
+        private final ByteBuffer values;
+        private final int words;
+
+        private Record(long sequence, int flags, ByteBuffer values, int words) {
+            this.sequence = sequence;
+            this.flags = flags;
+            this.values = values;
+            this.words = words;
+        }
+
+        //Encodes a record: int body length, body (sequence, flags, values), long CRC32 of the body
+
+        static ByteBuffer encode(long sequence, int flags, GameStateSnapshot state, int poolSize) {
+            int words = NumberMask.wordsFor(poolSize);
+            ByteBuffer body = ByteBuffer.allocate(8 + 1 + 8 + 4 + 4 + 4 + 16 * words + 8)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            body.putLong(sequence);
+            body.put((byte) flags);
+            if ((flags & TOTAL_WINNINGS) != 0) body.putDouble(state.getTotalWinnings());
+            if ((flags & DRAWING_NUMBER) != 0) body.putInt(state.getCurrentDrawingNumber());
+            if ((flags & TOTAL_DRAWINGS) != 0) body.putInt(state.getTotalDrawings());
+            if ((flags & PLAYER_SPOTS) != 0) body.putInt(state.getPlayerSpots());
+            if ((flags & PLAYER_NUMBERS) != 0) {
+                for (long word : NumberMask.toMask(state.getPlayerNumbers(), poolSize)) body.putLong(word);
+            }
+            if ((flags & DRAWN_NUMBERS) != 0) {
+                for (long word : NumberMask.toMask(state.getCurrentDrawnNumbers(), poolSize)) body.putLong(word);
+            }
+            if ((flags & DRAWING_WINNINGS) != 0) body.putDouble(state.getCurrentDrawingWinnings());
+
+            CRC32 crc = new CRC32();
+            crc.update(body.array(), 0, body.position());
+            ByteBuffer record = ByteBuffer.allocate(4 + body.position() + 8).order(ByteOrder.LITTLE_ENDIAN);
+            record.putInt(body.position());
+            record.put(body.array(), 0, body.position());
+            record.putLong(crc.getValue());
+            record.flip();
+            return record;
+        }
+
+        //Reads the next record, or returns null at the end of the log or at a torn record
+
+        static Record read(ByteBuffer log, int poolSize) {
+            if (log.remaining() < 4) return null;
+            int start = log.position();
+            int length = log.getInt(start);
+            if (length < 9 || log.remaining() < 4 + length + 8) return null;
+            CRC32 crc = new CRC32();
+            crc.update(log.array(), start + 4, length);
+            if (log.getLong(start + 4 + length) != crc.getValue()) return null;
+
+            ByteBuffer body = ByteBuffer.wrap(log.array(), start + 4, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+            long sequence = body.getLong();
+            int flags = body.get() & 0xFF;
+            log.position(start + 4 + length + 8);
+            return new Record(sequence, flags, body, NumberMask.wordsFor(poolSize));
+        }
+
+        //Applies the changed fields on top of the state restored so far
+
+        void applyTo(GameState gameState) {
+            GameStateSnapshot state = gameState.getSnapshot();
+            double totalWinnings = (flags & TOTAL_WINNINGS) != 0 ? values.getDouble() : state.getTotalWinnings();
+            int drawingNumber = (flags & DRAWING_NUMBER) != 0 ? values.getInt() : state.getCurrentDrawingNumber();
+            int totalDrawings = (flags & TOTAL_DRAWINGS) != 0 ? values.getInt() : state.getTotalDrawings();
+            int spots = (flags & PLAYER_SPOTS) != 0 ? values.getInt() : state.getPlayerSpots();
+            Set<Integer> player = (flags & PLAYER_NUMBERS) != 0 ? readMask(values, words) : state.getPlayerNumbers();
+            Set<Integer> drawn = (flags & DRAWN_NUMBERS) != 0 ? readMask(values, words) : state.getCurrentDrawnNumbers();
+            double drawingWinnings = (flags & DRAWING_WINNINGS) != 0 ? values.getDouble() : state.getCurrentDrawingWinnings();
+            gameState.restore(new GameStateSnapshot(totalWinnings, drawingNumber, totalDrawings, spots,
+                    player, drawn, drawingWinnings));
+        }
+    }
+}
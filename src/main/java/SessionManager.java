@@ -0,0 +1,149 @@
+// SessionManager.java - Many independent player sessions settled against shared drawings
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//SessionManager hosts many player sessions in one JVM, each with its own GameState,
+//so one server process can stand in for dozens of terminals.
+//Sessions live in a ConcurrentHashMap, whose lookups take no lock and whose updates
+//lock only one hash bin, and each session guards its own GameState with its own
+//monitor. Two terminals therefore never wait on each other; the only thing they share
+//is the drawing, which settleAll applies to every session in parallel.
+
+public class SessionManager {
+    // Sessions to settle in parallel once there are at least this many
+    private static final long PARALLEL_SETTLE_THRESHOLD = 64;
+
+    private final ConcurrentHashMap<Long, PlayerSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+
+    // Variant every session plays
+    private final GameDefinition definition;
+
+    // Progressive jackpot shared by every session (null for none)
+    private final JackpotPool jackpotPool;
+
+    //Creates a standard game manager without a progressive jackpot
+    public SessionManager() {
+        this(GameDefinition.STANDARD, null);
+    }
+
+    //Creates a standard game manager whose sessions all feed and can win the given jackpot pool
+    public SessionManager(JackpotPool jackpotPool) {
+        this(GameDefinition.STANDARD, jackpotPool);
+    }
+
+    //Creates a manager for any variant, with an optional shared jackpot pool (null for none)
+    public SessionManager(GameDefinition definition, JackpotPool jackpotPool) {
+        this.definition = definition;
+        this.jackpotPool = jackpotPool;
+    }
+
+    //Opens a new session and returns it
+
+    public PlayerSession openSession() {
+        PlayerSession session = new PlayerSession(nextSessionId.getAndIncrement(), definition, jackpotPool);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    //Looks up a session by id (null if it was never opened or has been closed)
+
+    public PlayerSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    //Closes a session; it is no longer settled
+
+    public void closeSession(long id) {
+        sessions.remove(id);
+    }
+
+    //Jackpot pool shared by the sessions (null for none)
+
+    public JackpotPool getJackpotPool() {
+        return jackpotPool;
+    }
+
+    //Number of open sessions
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    //Settles one shared drawing against every open session, in parallel across the common pool.
+     //Signature matches DrawEngine.addDrawListener so the manager can follow an engine's drawings.
+
+    public void settleAll(int drawingNumber, Set<Integer> drawnNumbers) {
+        Set<Integer> shared = Collections.unmodifiableSet(new HashSet<>(drawnNumbers));
+        sessions.forEachValue(PARALLEL_SETTLE_THRESHOLD, session -> session.settle(shared));
+    }
+
+    //One terminal's game. Changes lock only this session; getters read the latest
+    //GameStateSnapshot and take no lock at all.
+
+    public static class PlayerSession {
+        private final long id;
+        private final GameState gameState;
+
+        PlayerSession(long id, GameDefinition definition, JackpotPool jackpotPool) {
+            this.id = id;
+            this.gameState = new GameState(definition);
+            gameState.setJackpotPool(jackpotPool);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        //Places a ticket for the next `drawings` shared drawings (same rules as GamePlayScene's Start Drawing)
+
+        public synchronized void placeTicket(int spots, Set<Integer> numbers, int drawings) {
+            gameState.getDefinition().validateTicket(spots, numbers);
+            gameState.startNewDrawingSession(drawings);
+            gameState.setPlayerSpots(spots);
+            gameState.setPlayerNumbers(new HashSet<>(numbers));
+        }
+
+        //Settles a shared drawing if this session still has drawings to play.
+         //The drawn set is shared between sessions and read-only; sessions never call runDrawing.
+
+        synchronized void settle(Set<Integer> drawnNumbers) {
+            if (!gameState.hasMoreDrawings()) return;
+            gameState.settleDrawing(drawnNumbers);
+        }
+
+        //Winnings across every drawing this session has settled
+
+        public double getTotalWinnings() {
+            return gameState.getSnapshot().getTotalWinnings();
+        }
+
+        //Winnings from this session's most recent drawing
+
+        public double getCurrentDrawingWinnings() {
+            return gameState.getSnapshot().getCurrentDrawingWinnings();
+        }
+
+        //Drawings settled in the current ticket's run
+
+        public int getCurrentDrawingNumber() {
+            return gameState.getSnapshot().getCurrentDrawingNumber();
+        }
+
+        //true while the current ticket has drawings left
+
+        public boolean hasMoreDrawings() {
+            return gameState.getSnapshot().hasMoreDrawings();
+        }
+
+        //Copy of the ticket's numbers
+
+        public Set<Integer> getPlayerNumbers() {
+            return new HashSet<>(gameState.getSnapshot().getPlayerNumbers());
+        }
+    }
+}
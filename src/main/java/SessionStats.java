@@ -0,0 +1,240 @@
+// SessionStats.java - Running statistics for the current game session
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.Arrays;
+
+//SessionStats keeps live statistics for every ticket GameState settles: the mean
+//and variance of the winnings, how many tickets caught each number of matches,
+//the longest losing streak, the biggest win and the return to player (winnings
+//over wagers). They are kept for the whole session and separately for each spot
+//count.
+//
+//Each settled ticket updates a few primitive fields in O(1), with the mean and
+//variance kept by Welford's method, so the results panel and the welcome screen
+//can show them on every refresh without going back over the history. Methods are
+//synchronized because auto-play settles on a worker thread while the FX thread
+//reads; readers get a copy.
+//
+//The statistics are not journaled. When SessionJournal restores a session after a
+//restart they start empty and are labelled "This run", since the restored total
+//winnings also include tickets settled before the restart.
+//
+//A way ticket is one sample of its total payout, the same as a straight ticket
+//(its ways are not recorded one by one). So "tickets", the mean, the variance,
+//the streaks and the biggest win are per ticket. The RTP counts one wager per way,
+//because that is what the player paid.
+
+public class SessionStats {
+    // Statistics for every ticket in the session
+    private final Tally session;
+
+    // bySpots[s] = statistics for s-spot tickets (null for spot counts the game does not allow)
+    private final Tally[] bySpots;
+
+    private final int maxSpots;
+
+    // Cleared when a saved session was restored, so they cover only this run
+    private boolean sinceRestore;
+
+    //Creates empty statistics for a game
+    public SessionStats(GameDefinition definition) {
+        this.maxSpots = definition.getMaxSpots();
+        this.session = new Tally(maxSpots);
+        this.bySpots = new Tally[maxSpots + 1];
+        for (int spots : definition.getAllowedSpots()) {
+            bySpots[spots] = new Tally(maxSpots);
+        }
+    }
+
+    //Clears every statistic (a new game session)
+
+    public synchronized void reset() {
+        sinceRestore = false;
+        session.clear();
+        for (Tally tally : bySpots) {
+            if (tally != null) tally.clear();
+        }
+    }
+
+    //Clears every statistic when a saved session is restored; they then cover only
+     //the tickets settled since, not the restored total winnings
+
+    public synchronized void resetForRestore() {
+        reset();
+        sinceRestore = true;
+    }
+
+    //Whether the statistics cover only this run of a restored session
+
+    public synchronized boolean isSinceRestore() {
+        return sinceRestore;
+    }
+
+    //Records one settled straight ticket with a wager of JackpotPool.WAGER_CENTS
+
+    public synchronized void record(int spots, int matches, double winnings) {
+        session.add(matches, winnings, JackpotPool.WAGER_CENTS);
+        if (spots >= 0 && spots <= maxSpots && bySpots[spots] != null) {
+            bySpots[spots].add(matches, winnings, JackpotPool.WAGER_CENTS);
+        }
+    }
+
+    //Records one settled way ticket as one ticket paying its total winnings, with one
+     //wager per way. A way ticket has no single match count, so it counts towards the
+     //session but not the hit histogram.
+
+    public synchronized void recordWays(long ways, double winnings) {
+        session.add(-1, winnings, ways * JackpotPool.WAGER_CENTS);
+    }
+
+    //Copy of the statistics for the whole session
+
+    public synchronized Tally getSession() {
+        return new Tally(session);
+    }
+
+    //Copy of the statistics for tickets with this many spots (empty if none were played)
+
+    public synchronized Tally getForSpots(int spots) {
+        if (spots < 0 || spots > maxSpots || bySpots[spots] == null) return new Tally(maxSpots);
+        return new Tally(bySpots[spots]);
+    }
+
+    //Formats the session and one spot count's statistics for the results panel
+
+    public synchronized String describe(int spots) {
+        StringBuilder text = new StringBuilder();
+        text.append(session.describe(sinceRestore ? "This run" : "Session"));
+        if (spots > 0 && spots <= maxSpots && bySpots[spots] != null && bySpots[spots].tickets > 0) {
+            Tally tally = bySpots[spots];
+            text.append('\n').append(tally.describe(spots + "-spot"));
+            text.append("\nHits:");
+            for (int m = 0; m <= spots; m++) {
+                text.append(' ').append(m).append(':').append(tally.hits[m]);
+            }
+        }
+        return text.toString();
+    }
+
+    //Running statistics over a series of settled tickets
+
+    public static class Tally {
+        // Tickets settled
+        private long tickets;
+
+        // Welford's running mean and sum of squared differences from it
+        private double mean;
+        private double m2;
+
+        // hits[m] = tickets that caught m numbers
+        private final long[] hits;
+
+        // Losing tickets in a row now, and the longest such run
+        private long losingStreak;
+        private long longestLosingStreak;
+
+        private double biggestWin;
+        private double totalWon;
+        private long wageredCents;
+
+        Tally(int maxSpots) {
+            this.hits = new long[maxSpots + 1];
+        }
+
+        Tally(Tally other) {
+            this.tickets = other.tickets;
+            this.mean = other.mean;
+            this.m2 = other.m2;
+            this.hits = other.hits.clone();
+            this.losingStreak = other.losingStreak;
+            this.longestLosingStreak = other.longestLosingStreak;
+            this.biggestWin = other.biggestWin;
+            this.totalWon = other.totalWon;
+            this.wageredCents = other.wageredCents;
+        }
+
+        //Adds one ticket; matches is -1 when it has no single match count
+
+        private void add(int matches, double winnings, long wagerCents) {
+            tickets++;
+            double delta = winnings - mean;
+            mean += delta / tickets;
+            m2 += delta * (winnings - mean);
+            if (matches >= 0 && matches < hits.length) hits[matches]++;
+            if (winnings > 0) {
+                losingStreak = 0;
+            } else if (++losingStreak > longestLosingStreak) {
+                longestLosingStreak = losingStreak;
+            }
+            if (winnings > biggestWin) biggestWin = winnings;
+            totalWon += winnings;
+            wageredCents += wagerCents;
+        }
+
+        private void clear() {
+            tickets = 0;
+            mean = 0.0;
+            m2 = 0.0;
+            Arrays.fill(hits, 0);
+            losingStreak = 0;
+            longestLosingStreak = 0;
+            biggestWin = 0.0;
+            totalWon = 0.0;
+            wageredCents = 0;
+        }
+
+        private String describe(String label) {
+            return String.format("%s: %d tickets, RTP %.1f%%\nAvg win $%.2f (sd $%.2f), best $%.2f\nLongest losing streak: %d",
+                    label, tickets, getReturnToPlayer() * 100, mean, getStandardDeviation(), biggestWin, longestLosingStreak);
+        }
+
+        public long getTickets() {
+            return tickets;
+        }
+
+        //Mean winnings per ticket (a way ticket's total over all its ways)
+
+        public double getMean() {
+            return mean;
+        }
+
+        //Sample variance of the winnings (0 until two tickets have settled)
+
+        public double getVariance() {
+            return tickets < 2 ? 0.0 : m2 / (tickets - 1);
+        }
+
+        public double getStandardDeviation() {
+            return Math.sqrt(getVariance());
+        }
+
+        //Copy of the hit-count histogram (index = matches)
+
+        public long[] getHitHistogram() {
+            return hits.clone();
+        }
+
+        public long getLosingStreak() {
+            return losingStreak;
+        }
+
+        public long getLongestLosingStreak() {
+            return longestLosingStreak;
+        }
+
+        public double getBiggestWin() {
+            return biggestWin;
+        }
+
+        public double getTotalWon() {
+            return totalWon;
+        }
+
+        //Winnings as a fraction of the amount wagered (0 before any ticket)
+
+        public double getReturnToPlayer() {
+            return wageredCents == 0 ? 0.0 : totalWon * 100 / wageredCents;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+// SubsetFrequencies.java - Pair/triple/4-subset counts over a drawing history
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//SubsetFrequencies holds how often every k-subset (k = 1..4) of the number pool
+//appeared together in a drawing. Counts live in dense int arrays indexed by the
+//subset's combinatorial (colex) rank: for sorted 0-based numbers c1 < c2 < ... < ck
+//the rank is C(c1,1) + C(c2,2) + ... + C(ck,k). For 80 numbers that is 3,160
+//pairs, 82,160 triples and 1,581,580 4-subsets with no per-entry objects.
+
+public class SubsetFrequencies {
+    // Largest subset size counted
+    public static final int MAX_K = 4;
+
+    // Size of the number pool
+    private final int poolSize;
+
+    // Numbers drawn per drawing (used for expected counts)
+    private final int drawSize;
+
+    // Number of drawings counted
+    private long drawings;
+
+    // counts[k][rank] = drawings containing the k-subset with that rank (k = 1..MAX_K)
+    private final int[][] counts;
+
+    // binomial[n][k] = C(n, k) for n <= poolSize, k <= MAX_K
+    private final int[][] binomial;
+
+    //Creates empty counters for a pool and draw size
+    public SubsetFrequencies(int poolSize, int drawSize) {
+        this.poolSize = poolSize;
+        this.drawSize = drawSize;
+        this.binomial = binomialTable(poolSize, MAX_K);
+        this.counts = new int[MAX_K + 1][];
+        for (int k = 1; k <= MAX_K; k++) {
+            counts[k] = new int[binomial[poolSize][k]];
+        }
+    }
+
+    //Counts every 1..4-subset of one drawing.
+     //numbers holds the drawing's 0-based numbers in ascending order.
+
+    void addDrawing(int[] numbers, int length) {
+        int[] singles = counts[1];
+        int[] pairs = counts[2];
+        int[] triples = counts[3];
+        int[] quads = counts[4];
+        int[][] c = binomial;
+
+        for (int d = 0; d < length; d++) {
+            int xd = numbers[d];
+            singles[xd]++;
+            int rankD4 = c[xd][4];
+            int rankD3 = c[xd][3];
+            int rankD2 = c[xd][2];
+            for (int cc = 0; cc < d; cc++) {
+                int xc = numbers[cc];
+                pairs[rankD2 + xc]++;
+                int rankC3 = rankD4 + c[xc][3];
+                int rankC2 = rankD3 + c[xc][2];
+                for (int b = 0; b < cc; b++) {
+                    int xb = numbers[b];
+                    triples[rankC2 + xb]++;
+                    int rankB2 = rankC3 + c[xb][2];
+                    for (int a = 0; a < b; a++) {
+                        quads[rankB2 + numbers[a]]++;
+                    }
+                }
+            }
+        }
+        drawings++;
+    }
+
+    //Adds another set of counters into this one (used to merge fork/join partitions)
+
+    void merge(SubsetFrequencies other) {
+        for (int k = 1; k <= MAX_K; k++) {
+            int[] mine = counts[k];
+            int[] theirs = other.counts[k];
+            for (int i = 0; i < mine.length; i++) {
+                mine[i] += theirs[i];
+            }
+        }
+        drawings += other.drawings;
+    }
+
+    //Number of drawings containing all of the given numbers (1 to 4 distinct numbers)
+
+    public int count(int... numbers) {
+        int[] sorted = numbers.clone();
+        Arrays.sort(sorted);
+        return counts[sorted.length][rank(sorted)];
+    }
+
+    //Returns the n most frequent k-subsets, most frequent first
+
+    public List<SubsetCount> mostFrequent(int k, int n) {
+        return select(k, n, true);
+    }
+
+    //Returns the n least frequent k-subsets, least frequent first
+
+    public List<SubsetCount> leastFrequent(int k, int n) {
+        return select(k, n, false);
+    }
+
+    //Expected count of any single k-subset for a fair draw machine:
+     //drawings * C(poolSize - k, drawSize - k) / C(poolSize, drawSize) = drawings * C(drawSize, k) / C(poolSize, k)
+
+    public double expectedCount(int k) {
+        double probability = 1.0;
+        for (int i = 0; i < k; i++) {
+            probability *= (double) (drawSize - i) / (poolSize - i);
+        }
+        return drawings * probability;
+    }
+
+    //Pearson chi-square statistic of the k-subset counts against the fair expectation.
+     //Roughly C(poolSize, k) - 1 for a fair machine; much larger values warrant a closer look.
+
+    public double chiSquare(int k) {
+        double expected = expectedCount(k);
+        if (expected == 0) return 0.0;
+        double sum = 0.0;
+        for (int observed : counts[k]) {
+            double diff = observed - expected;
+            sum += diff * diff;
+        }
+        return sum / expected;
+    }
+
+    //Number of drawings counted
+
+    public long getDrawings() {
+        return drawings;
+    }
+
+    //Number of distinct k-subsets of the pool
+
+    public int subsetCount(int k) {
+        return counts[k].length;
+    }
+
+    //Keeps the n best ranks in a small sorted buffer keyed by (count, rank) packed in a long
+
+    private List<SubsetCount> select(int k, int n, boolean highest) {
+        int[] values = counts[k];
+        n = Math.min(n, values.length);
+        long[] best = new long[n];
+        int filled = 0;
+
+        for (int rank = 0; rank < values.length; rank++) {
+            // Invert the count for "least frequent" so both cases keep the largest keys
+            long count = highest ? values[rank] : Integer.MAX_VALUE - values[rank];
+            long key = (count << 32) | (Integer.MAX_VALUE - rank);  // Ties go to the lower rank
+            if (filled < n) {
+                best[filled++] = key;
+                for (int i = filled - 1; i > 0 && best[i] > best[i - 1]; i--) {
+                    long tmp = best[i]; best[i] = best[i - 1]; best[i - 1] = tmp;
+                }
+            } else if (n > 0 && key > best[n - 1]) {
+                best[n - 1] = key;
+                for (int i = n - 1; i > 0 && best[i] > best[i - 1]; i--) {
+                    long tmp = best[i]; best[i] = best[i - 1]; best[i - 1] = tmp;
+                }
+            }
+        }
+
+        List<SubsetCount> result = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            int rank = Integer.MAX_VALUE - (int) best[i];
+            result.add(new SubsetCount(unrank(rank, k), values[rank]));
+        }
+        return result;
+    }
+
+    //Colex rank of sorted 1-based numbers
+
+    int rank(int[] sortedNumbers) {
+        int rank = 0;
+        for (int i = 0; i < sortedNumbers.length; i++) {
+            rank += binomial[sortedNumbers[i] - 1][i + 1];
+        }
+        return rank;
+    }
+
+    //Inverse of rank: the sorted 1-based numbers of the k-subset with this rank
+
+    int[] unrank(int rank, int k) {
+        int[] numbers = new int[k];
+        int x = poolSize - 1;
+        for (int i = k; i >= 1; i--) {
+            while (binomial[x][i] > rank) {
+                x--;
+            }
+            numbers[i - 1] = x + 1;
+            rank -= binomial[x][i];
+            x--;
+        }
+        return numbers;
+    }
+
+    //Pascal's triangle up to C(n, maxK)
+
+    static int[][] binomialTable(int n, int maxK) {
+        int[][] table = new int[n + 1][maxK + 1];
+        for (int i = 0; i <= n; i++) {
+            table[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, maxK); j++) {
+                table[i][j] = table[i - 1][j - 1] + (j <= i - 1 ? table[i - 1][j] : 0);
+            }
+        }
+        return table;
+    }
+
+    //One k-subset and how many drawings contained it
+
+    public static class SubsetCount {
+        private final int[] numbers;
+        private final int count;
+
+        SubsetCount(int[] numbers, int count) {
+            this.numbers = numbers;
+            this.count = count;
+        }
+
+        //Sorted 1-based numbers of the subset
+
+        public int[] getNumbers() {
+            return numbers.clone();
+        }
+
+        //Number of drawings containing every number of the subset
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(numbers) + " x" + count;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+// SubsetFrequencyMiner.java - Parallel k-subset frequency job for draw machine audits
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//SubsetFrequencyMiner counts how often every pair, triple and 4-subset of numbers
+//was drawn together across a DrawHistory. The history is split into ranges with
+//fork/join; each leaf fills its own dense SubsetFrequencies arrays and the
+//results are summed on the way back up, so no counter is ever shared between threads.
+
+public class SubsetFrequencyMiner {
+    // Fewest drawings worth giving their own set of counters (~6.6 MB for 80 numbers)
+    private static final int MIN_LEAF_DRAWINGS = 4096;
+
+    // History being mined
+    private final DrawHistory history;
+
+    // Numbers drawn per drawing
+    private final int drawSize;
+
+    // Pool running the partitions
+    private final ForkJoinPool pool;
+
+    //Creates a miner for a standard 20-number draw history using the common pool
+    public SubsetFrequencyMiner(DrawHistory history) {
+        this(history, 20, ForkJoinPool.commonPool());
+    }
+
+    //Creates a miner with an explicit draw size and fork/join pool
+    public SubsetFrequencyMiner(DrawHistory history, int drawSize, ForkJoinPool pool) {
+        this.history = history;
+        this.drawSize = drawSize;
+        this.pool = pool;
+    }
+
+    //Counts every 1..4-subset over the whole history
+
+    public SubsetFrequencies mine() {
+        int drawings = history.size();
+        // Aim for a few leaves per core, but never so many that merging dominates
+        int leafSize = Math.max(MIN_LEAF_DRAWINGS, drawings / (pool.getParallelism() * 2) + 1);
+        return pool.invoke(new MineTask(0, drawings, leafSize));
+    }
+
+    //Counts one contiguous range of drawings, splitting it in half while it is large
+
+    @SuppressWarnings("serial")  // never serialized
+    private class MineTask extends RecursiveTask<SubsetFrequencies> {
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        MineTask(int from, int to, int leafSize) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected SubsetFrequencies compute() {
+            if (to - from <= leafSize) {
+                return countRange();
+            }
+            int mid = (from + to) >>> 1;
+            MineTask left = new MineTask(from, mid, leafSize);
+            left.fork();
+            SubsetFrequencies right = new MineTask(mid, to, leafSize).compute();
+            SubsetFrequencies result = left.join();
+            result.merge(right);
+            return result;
+        }
+
+        private SubsetFrequencies countRange() {
+            SubsetFrequencies frequencies = new SubsetFrequencies(history.getPoolSize(), drawSize);
+            int words = history.getWordsPerDraw();
+            int[] numbers = new int[history.getPoolSize()];
+
+            for (int d = from; d < to; d++) {
+                // Unpack the bitmap into ascending 0-based numbers
+                int length = 0;
+                for (int w = 0; w < words; w++) {
+                    long bits = history.word(d, w);
+                    while (bits != 0) {
+                        numbers[length++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+                frequencies.addDrawing(numbers, length);
+            }
+            return frequencies;
+        }
+    }
+
+    //Runs the audit over freshly simulated drawings and prints the extremes for each k.
+     //Usage: SubsetFrequencyMiner [drawings] [top-n]
+
+    public static void main(String[] args) {
+        int drawings = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int topN = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        GameState gameState = new GameState();
+        for (int i = 0; i < drawings; i++) {
+            gameState.runDrawing();
+        }
+
+        long start = System.nanoTime();
+        SubsetFrequencies frequencies = new SubsetFrequencyMiner(gameState.getDrawHistory()).mine();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Mined " + frequencies.getDrawings() + " drawings in " + elapsedMs + " ms");
+        for (int k = 2; k <= SubsetFrequencies.MAX_K; k++) {
+            System.out.printf("k=%d: %d subsets, expected %.2f each, chi-square %.1f%n",
+                    k, frequencies.subsetCount(k), frequencies.expectedCount(k), frequencies.chiSquare(k));
+            System.out.println("  most frequent:  " + frequencies.mostFrequent(k, topN));
+            System.out.println("  least frequent: " + frequencies.leastFrequent(k, topN));
+        }
+    }
+}
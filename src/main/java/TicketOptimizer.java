@@ -0,0 +1,187 @@
+// TicketOptimizer.java - Local search for number sets with the best historical payout
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+//TicketOptimizer searches for a set of numbers that would have won the most
+//under the current payout table over a stored drawing history.
+//Each candidate ticket is scored on the posting bitmaps of a DrawHistoryIndex
+//(64 drawings per word, bit-sliced hit counts), so one evaluation costs a few
+//microseconds per thousand drawings. Several hill-climbing restarts run in
+//parallel; each repeatedly swaps one ticket number for one outside number
+//while that improves the total payout (ties broken by total numbers hit, so
+//the search can climb across payout tiers that pay nothing).
+//Past results do not change future odds, so this is offered as
+//"suggested picks" rather than a better bet.
+
+public class TicketOptimizer {
+    // Default number of independent restarts
+    private static final int DEFAULT_RESTARTS = 8;
+
+    // Upper bound on improvement passes per restart
+    private static final int MAX_PASSES = 20;
+
+    // Index of the drawing history being searched
+    private final DrawHistoryIndex index;
+
+    // Payout tables tickets are scored with
+    private final GameDefinition definition;
+
+    //Creates an optimizer over an index of past standard game drawings
+    public TicketOptimizer(DrawHistoryIndex index) {
+        this(index, GameDefinition.STANDARD);
+    }
+
+    //Creates an optimizer over an index of past drawings of a Keno variant
+    public TicketOptimizer(DrawHistoryIndex index, GameDefinition definition) {
+        this.index = index;
+        this.definition = definition;
+    }
+
+    //Finds a high-scoring ticket with the default number of restarts
+
+    public Result optimize(int spots) {
+        return optimize(spots, DEFAULT_RESTARTS, System.nanoTime());
+    }
+
+    //Runs the given number of parallel restarts and returns the best ticket found
+
+    public Result optimize(int spots, int restarts, long seed) {
+        double[] payouts = payoutTable(spots);
+        return IntStream.range(0, restarts)
+                .parallel()
+                .mapToObj(r -> climb(spots, payouts, new SplittableRandom(seed + r * 0x9E3779B97F4A7C15L)))
+                .max(Comparator.comparingDouble(Result::getTotalPayout))
+                .orElseThrow(IllegalArgumentException::new);
+    }
+
+    //Returns suggested picks for a spot count (an alternative to a quick pick)
+
+    public Set<Integer> suggestPicks(int spots) {
+        return optimize(spots).getNumbers();
+    }
+
+    //Total payout a ticket would have won over every indexed drawing
+
+    public double historicalPayout(int[] ticket) {
+        return score(ticket, payoutTable(ticket.length), new long[DrawHistoryIndex.sliceCount(ticket.length)], new long[1]);
+    }
+
+    //One hill-climbing restart from a random ticket
+
+    private Result climb(int spots, double[] payouts, SplittableRandom random) {
+        int poolSize = index.getPoolSize();
+        int[] ticket = randomTicket(spots, poolSize, random);
+        boolean[] onTicket = new boolean[poolSize + 1];
+        for (int num : ticket) onTicket[num] = true;
+
+        long[] slices = new long[DrawHistoryIndex.sliceCount(spots)];
+        long[] hits = new long[1];
+        double best = score(ticket, payouts, slices, hits);
+        long bestHits = hits[0];
+
+        boolean improved = true;
+        for (int pass = 0; pass < MAX_PASSES && improved; pass++) {
+            improved = false;
+            int start = random.nextInt(poolSize);  // Vary the scan order between restarts
+            for (int i = 0; i < spots; i++) {
+                for (int step = 0; step < poolSize; step++) {
+                    int candidate = (start + step) % poolSize + 1;
+                    if (onTicket[candidate]) continue;
+
+                    int previous = ticket[i];
+                    ticket[i] = candidate;
+                    double score = score(ticket, payouts, slices, hits);
+                    if (score > best || (score == best && hits[0] > bestHits)) {
+                        best = score;
+                        bestHits = hits[0];
+                        onTicket[previous] = false;
+                        onTicket[candidate] = true;
+                        improved = true;
+                    } else {
+                        ticket[i] = previous;
+                    }
+                }
+            }
+        }
+
+        return new Result(ticket, best);
+    }
+
+    //Sums the payout of a ticket over every indexed drawing, 64 drawings per step.
+     //hits[0] receives the total number of ticket numbers hit across all drawings.
+
+    private double score(int[] ticket, double[] payouts, long[] slices, long[] hits) {
+        double total = 0.0;
+        long hitCount = 0;
+        int spots = ticket.length;
+        for (int w = 0; w <= index.lastWord(); w++) {
+            index.sumTicket(ticket, w, slices);
+            long valid = index.rangeMask(w, 0);
+            long previous = valid;
+            for (int k = 1; k <= spots; k++) {
+                long current = DrawHistoryIndex.atLeast(slices, k) & valid;
+                int exactly = Long.bitCount(previous & ~current);
+                total += payouts[k - 1] * exactly;
+                hitCount += (long) (k - 1) * exactly;
+                previous = current;
+            }
+            int all = Long.bitCount(previous);
+            total += payouts[spots] * all;
+            hitCount += (long) spots * all;
+        }
+        hits[0] = hitCount;
+        return total;
+    }
+
+    //Payout for each match count 0..spots under the current table
+
+    private double[] payoutTable(int spots) {
+        double[] payouts = new double[spots + 1];
+        for (int k = 0; k <= spots; k++) {
+            payouts[k] = definition.payoutFor(spots, k);
+        }
+        return payouts;
+    }
+
+    //Distinct random numbers 1..poolSize (partial Fisher-Yates shuffle)
+
+    private static int[] randomTicket(int spots, int poolSize, SplittableRandom random) {
+        int[] all = new int[poolSize];
+        for (int i = 0; i < poolSize; i++) all[i] = i + 1;
+        for (int i = 0; i < spots; i++) {
+            int j = i + random.nextInt(poolSize - i);
+            int tmp = all[i]; all[i] = all[j]; all[j] = tmp;
+        }
+        return Arrays.copyOf(all, spots);
+    }
+
+    //Best ticket found and its total historical payout
+
+    public static class Result {
+        private final int[] numbers;
+        private final double totalPayout;
+
+        Result(int[] numbers, double totalPayout) {
+            this.numbers = numbers.clone();
+            Arrays.sort(this.numbers);
+            this.totalPayout = totalPayout;
+        }
+
+        //Numbers of the ticket, sorted
+
+        public Set<Integer> getNumbers() {
+            Set<Integer> set = new TreeSet<>();
+            for (int num : numbers) set.add(num);
+            return set;
+        }
+
+        //Total payout the ticket would have won over the history
+
+        public double getTotalPayout() {
+            return totalPayout;
+        }
+    }
+}
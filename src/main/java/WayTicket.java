@@ -0,0 +1,239 @@
+// WayTicket.java - Way and king tickets settled without expanding their sub-tickets
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import java.util.*;
+
+//WayTicket is a ticket made of groups of numbers that plays every combination of
+//a chosen number of groups as its own straight ticket (a "way"). For example three
+//groups of four played "2 groups per way" is three 8-spot ways. A king ticket also
+//has king numbers that join every way, e.g. one king plus groups of three played one
+//group per way is a set of 4-spot ways that all share the king.
+//
+//Each way pays the GameDefinition's prize for its spot count and hits, per $1 wagered on it.
+//A ticket can expand to thousands of ways, so evaluate never builds them. It counts
+//the hits in each group (one popcount per word with NumberMask) and then counts ways
+//with a small table: ways[m][spots][hits] is how many choices of m groups have that
+//many spots and hits. Adding one group updates the table in place, so evaluating
+//costs at most groups x S x (S+1) x (S+1) steps for a game whose largest ticket has
+//S spots (10 in the standard game), whatever the number of ways.
+
+public class WayTicket {
+    // Variant the ticket is played on
+    private final GameDefinition definition;
+
+    // Largest straight ticket with a payout table; bigger ways are not allowed
+    private final int maxSpots;
+
+    private final List<Set<Integer>> groups;
+    private final Set<Integer> kingNumbers;
+    private final int[] groupsPerWay;
+
+    // Packed bitmaps of each group and of the kings, for counting hits
+    private final long[][] groupMasks;
+    private final long[] kingMask;
+
+    // Size of each group
+    private final int[] groupSpots;
+
+    // Number of ways the ticket plays
+    private final long wayCount;
+
+    //Creates a way ticket that plays every combination of groupsPerWay groups.
+     //Throws IllegalArgumentException unless the groups are non-empty and disjoint,
+     //numbers are in the pool, and every way is a spot count with a payout table.
+
+    public WayTicket(List<Set<Integer>> groups, int... groupsPerWay) {
+        this(GameDefinition.STANDARD, Collections.emptySet(), groups, groupsPerWay);
+    }
+
+    //Creates a standard game king ticket: the king numbers join every way built from the groups
+
+    public WayTicket(Set<Integer> kingNumbers, List<Set<Integer>> groups, int... groupsPerWay) {
+        this(GameDefinition.STANDARD, kingNumbers, groups, groupsPerWay);
+    }
+
+    //Creates a way or king ticket for any variant
+
+    public WayTicket(GameDefinition definition, Set<Integer> kingNumbers, List<Set<Integer>> groups, int... groupsPerWay) {
+        this.definition = definition;
+        this.maxSpots = definition.getMaxSpots();
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("a way ticket needs at least one group");
+        }
+        if (groupsPerWay.length == 0) {
+            throw new IllegalArgumentException("choose how many groups make one way");
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        checkNumbers(kingNumbers, seen, definition.getPoolSize());
+        List<Set<Integer>> copies = new ArrayList<>();
+        for (Set<Integer> group : groups) {
+            if (group.isEmpty()) {
+                throw new IllegalArgumentException("groups must not be empty");
+            }
+            checkNumbers(group, seen, definition.getPoolSize());
+            copies.add(Collections.unmodifiableSet(new TreeSet<>(group)));
+        }
+
+        this.groups = Collections.unmodifiableList(copies);
+        this.kingNumbers = Collections.unmodifiableSet(new TreeSet<>(kingNumbers));
+        this.groupsPerWay = groupsPerWay.clone();
+        this.groupMasks = new long[copies.size()][];
+        this.groupSpots = new int[copies.size()];
+        for (int g = 0; g < copies.size(); g++) {
+            groupMasks[g] = NumberMask.toMask(copies.get(g), definition.getPoolSize());
+            groupSpots[g] = copies.get(g).size();
+        }
+        this.kingMask = NumberMask.toMask(kingNumbers, definition.getPoolSize());
+
+        // Check every way's spot count and count the ways, using the same table with no hits
+        long[][][] ways = countWays(new int[groupSpots.length]);
+        int kings = kingNumbers.size();
+        long total = 0;
+        for (int m : this.groupsPerWay) {
+            if (m < 1 || m > groupSpots.length) {
+                throw new IllegalArgumentException("groups per way must be between 1 and " + groupSpots.length);
+            }
+            // The biggest way uses the m largest groups; if it fits, every way does
+            if (kings + largestGroupsTotal(m) > maxSpots) {
+                throw new IllegalArgumentException("ways may have at most " + maxSpots + " spots");
+            }
+            for (int spots = 0; spots <= maxSpots; spots++) {
+                if (ways[m][spots][0] > 0 && !definition.isAllowedSpots(spots + kings)) {
+                    throw new IllegalArgumentException("a way of " + (spots + kings) + " spots has no payout table");
+                }
+                total += ways[m][spots][0];
+            }
+        }
+        this.wayCount = total;
+    }
+
+    //Every number must be in the pool and appear on the ticket once
+
+    private static void checkNumbers(Set<Integer> numbers, Set<Integer> seen, int poolSize) {
+        for (int num : numbers) {
+            if (num < 1 || num > poolSize) {
+                throw new IllegalArgumentException("numbers must be between 1 and " + poolSize);
+            }
+            if (!seen.add(num)) {
+                throw new IllegalArgumentException("number " + num + " is in more than one group");
+            }
+        }
+    }
+
+    //Total payout of every way against a drawing
+
+    public double evaluate(Set<Integer> drawnNumbers) {
+        return evaluate(NumberMask.toMask(drawnNumbers, definition.getPoolSize())).getPayout();
+    }
+
+    //Settles the ticket against a drawn bitmap (see NumberMask) without expanding its ways
+
+    public Evaluation evaluate(long[] drawnMask) {
+        int[] groupHits = new int[groupMasks.length];
+        for (int g = 0; g < groupMasks.length; g++) {
+            groupHits[g] = NumberMask.countMatches(groupMasks[g], drawnMask);
+        }
+        int kings = kingNumbers.size();
+        int kingHits = NumberMask.countMatches(kingMask, drawnMask);
+
+        long[][][] ways = countWays(groupHits);
+        double payout = 0.0;
+        long jackpotWays = 0;
+        for (int m : groupsPerWay) {
+            for (int spots = 0; spots <= maxSpots; spots++) {
+                for (int hits = 0; hits <= spots; hits++) {
+                    long count = ways[m][spots][hits];
+                    if (count == 0) continue;
+                    payout += count * definition.payoutFor(spots + kings, hits + kingHits);
+                    if (JackpotPool.isJackpotTier(spots + kings, hits + kingHits)) jackpotWays += count;
+                }
+            }
+        }
+        return new Evaluation(payout, jackpotWays);
+    }
+
+    //ways[m][spots][hits] = number of ways to choose m groups with that many spots and hits.
+     //Choices over maxSpots can never be played, so they are not tracked.
+
+    private long[][][] countWays(int[] groupHits) {
+        int groupCount = groupSpots.length;
+        // Every group has a spot, so no playable way has more than maxSpots groups
+        int maxGroups = Math.min(groupCount, maxSpots);
+        long[][][] ways = new long[maxGroups + 1][maxSpots + 1][maxSpots + 1];
+        ways[0][0][0] = 1;
+        for (int g = 0; g < groupCount; g++) {
+            int s = groupSpots[g];
+            int h = groupHits[g];
+            // Walk m downwards so each group is used at most once, like a 0/1 knapsack
+            for (int m = Math.min(g, maxGroups - 1); m >= 0; m--) {
+                for (int spots = maxSpots - s; spots >= 0; spots--) {
+                    for (int hits = 0; hits <= spots; hits++) {
+                        long count = ways[m][spots][hits];
+                        if (count != 0) ways[m + 1][spots + s][hits + h] += count;
+                    }
+                }
+            }
+        }
+        return ways;
+    }
+
+    //Spots in the m largest groups together
+
+    private int largestGroupsTotal(int m) {
+        int[] sizes = groupSpots.clone();
+        Arrays.sort(sizes);
+        int total = 0;
+        for (int i = 0; i < m; i++) total += sizes[sizes.length - 1 - i];
+        return total;
+    }
+
+    //Variant the ticket is played on
+
+    public GameDefinition getDefinition() {
+        return definition;
+    }
+
+    //Number of ways (straight sub-tickets) the ticket plays; the wager is $1 per way
+
+    public long getWayCount() {
+        return wayCount;
+    }
+
+    public List<Set<Integer>> getGroups() {
+        return groups;
+    }
+
+    public Set<Integer> getKingNumbers() {
+        return kingNumbers;
+    }
+
+    public int[] getGroupsPerWay() {
+        return groupsPerWay.clone();
+    }
+
+    //Result of settling a way ticket against one drawing
+
+    public static class Evaluation {
+        private final double payout;
+        private final long jackpotWays;
+
+        Evaluation(double payout, long jackpotWays) {
+            this.payout = payout;
+            this.jackpotWays = jackpotWays;
+        }
+
+        //Fixed prizes won by all ways together
+
+        public double getPayout() {
+            return payout;
+        }
+
+        //Ways that caught every number on an 8- or 10-spot table
+
+        public long getJackpotWays() {
+            return jackpotWays;
+        }
+    }
+}
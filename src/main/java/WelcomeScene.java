@@ -26,6 +26,7 @@ public class WelcomeScene {
     private Button startButton;
     private Label messageArea;
     private Label totalWinsLabel;
+    private Label sessionStatsLabel;
     private Label titleLabel;
     private VBox rootLayout;
 
@@ -101,7 +102,7 @@ public class WelcomeScene {
 
         // Welcome message
         messageArea = new Label("Welcome to Keno!\n\n" +
-                "Select your spots (1, 4, 8, or 10), choose your numbers,\n" +
+                "Select your spots (" + gameState.getDefinition().describeSpots() + "), choose your numbers,\n" +
                 "and watch the drawings. Match numbers to win!\n\n" +
                 "Use Auto-pick for quick selection or choose your own lucky numbers!");
         messageArea.setWrapText(true);
@@ -137,6 +138,11 @@ public class WelcomeScene {
         totalWinsLabel = new Label("Total Won: $0.00");
         totalWinsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 18));
         totalWinsLabel.setTextFill(Color.web(GOLD));
+
+        // Session statistics under the total
+        sessionStatsLabel = new Label("");
+        sessionStatsLabel.setFont(Font.font("Arial", 13));
+        sessionStatsLabel.setTextFill(Color.web(GOLD));
     }
 
     private void setupLayout() {
@@ -156,7 +162,7 @@ public class WelcomeScene {
         buttonBox.setPadding(new Insets(20, 0, 10, 0));
 
         // Wins label box
-        VBox winsBox = new VBox(totalWinsLabel);
+        VBox winsBox = new VBox(4, totalWinsLabel, sessionStatsLabel);
         winsBox.setAlignment(Pos.CENTER);
         winsBox.setPadding(new Insets(5, 0, 10, 0));
 
@@ -193,10 +199,10 @@ public class WelcomeScene {
         header.setTextFill(Color.web(GOLD));
 
         TextArea rulesText = new TextArea(
-                "1. Choose how many spots to play (1, 4, 8, or 10 numbers)\n" +
+                "1. Choose how many spots to play (" + gameState.getDefinition().describeSpots() + " numbers)\n" +
                         "2. Select your numbers or use Auto-pick\n" +
                         "3. Choose how many drawings to play (1-4)\n" +
-                        "4. Watch as 20 numbers are drawn\n" +
+                        "4. Watch as " + gameState.getDefinition().getDrawSize() + " numbers are drawn\n" +
                         "5. Win based on how many numbers you match\n"
         );
         rulesText.setWrapText(true);
@@ -297,6 +303,17 @@ public class WelcomeScene {
     }
 
     public void updateTotalWins() {
-        totalWinsLabel.setText(String.format("Total Won: $%.2f", gameState.getTotalWinnings()));
+        totalWinsLabel.setText(String.format("Total Won: $%.2f", gameState.getSnapshot().getTotalWinnings()));
+        // After a restore the statistics start empty while the total is carried over
+        SessionStats sessionStats = gameState.getSessionStats();
+        SessionStats.Tally stats = sessionStats.getSession();
+        String prefix = sessionStats.isSinceRestore() ? "This run: " : "";
+        if (stats.getTickets() == 0) {
+            sessionStatsLabel.setText(sessionStats.isSinceRestore() ? "Restored session; no tickets this run yet" : "");
+            return;
+        }
+        sessionStatsLabel.setText(prefix + String.format(
+                "%d tickets, RTP %.1f%%, biggest win $%.2f, longest losing streak %d",
+                stats.getTickets(), stats.getReturnToPlayer() * 100, stats.getBiggestWin(), stats.getLongestLosingStreak()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+//Tests the hash-chained, group-committed audit log
+
+class AuditLogTest {
+
+    @Test
+    @DisplayName("Test settled tickets are logged with draw, picks, matches and winnings")
+    void testGameStateWritesAudit(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.log");
+        GameState gameState = new GameState();
+        try (AuditLog audit = new AuditLog(file, 80)) {
+            gameState.setAuditLog(audit);
+            gameState.setPlayerSpots(4);
+            gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+            gameState.setCurrentDrawnNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 50)));
+            gameState.setCurrentDrawingNumber(7);
+            gameState.calculateWinnings(3);
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        String[] fields = lines.get(0).split("\\|");
+        assertEquals("1", fields[0]);
+        assertEquals("7", fields[2]);
+        assertEquals("1,2,3,50", fields[3]);
+        assertEquals("1,2,3,4", fields[4]);
+        assertEquals("4", fields[5]);
+        assertEquals("3", fields[6]);
+        assertEquals("5.00", fields[7]);
+        assertEquals(1, AuditLog.verify(file));
+    }
+
+    @Test
+    @DisplayName("Test concurrent appends are all written, chained and batched")
+    void testConcurrentAppends(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.log");
+        int threads = 4;
+        int perThread = 2500;
+        long batches;
+        try (AuditLog audit = new AuditLog(file, 80)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    long last = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        last = audit.append(i, Collections.singleton(5), Collections.singleton(5), 1, 1, 2.0);
+                    }
+                    return last;
+                }));
+            }
+            for (Future<Long> future : futures) audit.awaitDurable(future.get());
+            executor.shutdown();
+            batches = audit.getBatchCount();
+        }
+
+        assertEquals((long) threads * perThread, AuditLog.verify(file));
+        assertTrue(batches < (long) threads * perThread, "entries should share force() calls, got " + batches);
+    }
+
+    @Test
+    @DisplayName("Test editing a record breaks the chain and reopening continues it")
+    void testTamperAndReopen(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.log");
+        try (AuditLog audit = new AuditLog(file, 80)) {
+            for (int i = 1; i <= 3; i++) audit.append(i, Collections.singleton(i), Collections.singleton(i), 1, 1, 2.0);
+        }
+        try (AuditLog reopened = new AuditLog(file, 80)) {
+            assertEquals(4, reopened.append(4, Collections.singleton(9), Collections.singleton(8), 1, 0, 0.0));
+        }
+        assertEquals(4, AuditLog.verify(file), "reopened log continues the same chain");
+
+        List<String> lines = new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+        lines.set(1, lines.get(1).replace("|2.00|", "|200.00|"));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        assertEquals(-2, AuditLog.verify(file), "the altered second record is reported");
+    }
+
+    @Test
+    @DisplayName("Test reopening after a crash tore the last record cuts it and continues the chain")
+    void testTornLastRecord(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.log");
+        try (AuditLog audit = new AuditLog(file, 80)) {
+            for (int i = 1; i <= 3; i++) audit.append(i, Collections.singleton(i), Collections.singleton(i), 1, 1, 2.0);
+        }
+        byte[] whole = Files.readAllBytes(file);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        int twoRecords = lines.get(0).length() + lines.get(1).length() + 2;
+
+        // Half of the third line, without its newline
+        Files.write(file, Arrays.copyOf(whole, whole.length - 40));
+        try (AuditLog reopened = new AuditLog(file, 80)) {
+            assertEquals(3, reopened.append(3, Collections.singleton(7), Collections.singleton(7), 1, 1, 2.0));
+        }
+        assertEquals(3, AuditLog.verify(file), "new records follow the last whole one");
+
+        // Only the start of a line: no '|' at all
+        byte[] now = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(now, twoRecords + 1));
+        try (AuditLog reopened = new AuditLog(file, 80)) {
+            assertEquals(3, reopened.append(3, Collections.singleton(7), Collections.singleton(7), 1, 1, 2.0));
+        }
+        assertEquals(3, AuditLog.verify(file));
+    }
+
+    @Test
+    @DisplayName("Test way tickets are logged and a closed log stops settlement before money moves")
+    void testWayTicketsAndClosedLog(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("audit.log");
+        GameState gameState = new GameState();
+        gameState.setCurrentDrawnNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10,
+                11, 12, 13, 14, 15, 16, 17, 18, 19, 20)));
+        List<Set<Integer>> groups = Arrays.asList(new HashSet<>(Arrays.asList(1, 2)),
+                new HashSet<>(Arrays.asList(3, 4)), new HashSet<>(Arrays.asList(50, 51)));
+        AuditLog audit = new AuditLog(file, 80);
+        gameState.setAuditLog(audit);
+        double paid = gameState.calculateWayWinnings(new WayTicket(groups, 2));
+        audit.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        String[] fields = lines.get(0).split("\\|");
+        assertEquals("1,2,3,4,50,51", fields[4]);
+        assertEquals("3w", fields[5]);
+        assertEquals("-", fields[6]);
+        assertEquals(String.format(Locale.ROOT, "%.2f", paid), fields[7]);
+        assertEquals(1, AuditLog.verify(file));
+
+        double total = gameState.getTotalWinnings();
+        gameState.setPlayerSpots(1);
+        gameState.setPlayerNumbers(new HashSet<>(Collections.singletonList(5)));
+        assertThrows(IllegalStateException.class, () -> gameState.calculateWinnings(1));
+        assertThrows(IllegalStateException.class, () -> gameState.calculateWayWinnings(new WayTicket(groups, 2)));
+        assertEquals(total, gameState.getTotalWinnings(), "nothing is paid without a record");
+        assertThrows(IllegalStateException.class,
+                () -> audit.append(1, Collections.singleton(1), Collections.singleton(1), 1, 1, 2.0));
+    }
+}
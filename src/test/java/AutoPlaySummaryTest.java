@@ -0,0 +1,53 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests the running totals kept during auto play
+
+class AutoPlaySummaryTest {
+
+    @Test
+    @DisplayName("Test summary tracks totals, best hit and histogram")
+    void testRecordTotals() {
+        AutoPlaySummary summary = new AutoPlaySummary();
+        summary.reset(4, 3);
+        summary.record(2, 1.0);
+        summary.record(4, 75.0);
+        summary.record(0, 0.0);
+
+        assertEquals(3, summary.getDrawingsPlayed());
+        assertEquals(76.0, summary.getTotalWon(), 1e-9);
+        assertEquals(4, summary.getBestHit());
+        assertArrayEquals(new long[]{1, 0, 1, 0, 1}, summary.getHitHistogram());
+        assertTrue(summary.describe().contains("3/3 drawings"));
+    }
+
+    @Test
+    @DisplayName("Test summary matches a long unattended run of the game state")
+    void testLongRunMatchesGameState() {
+        GameState gameState = new GameState();
+        gameState.setPlayerSpots(8);
+        gameState.startNewDrawingSession(2000);
+        Set<Integer> picks = new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+        gameState.setPlayerNumbers(picks);
+
+        AutoPlaySummary summary = new AutoPlaySummary();
+        summary.reset(8, 2000);
+        while (gameState.hasMoreDrawings()) {
+            gameState.runDrawing();
+            int matches = gameState.getMatches().size();
+            summary.record(matches, gameState.calculateWinnings(matches));
+        }
+
+        assertEquals(2000, summary.getDrawingsPlayed());
+        assertEquals(gameState.getTotalWinnings(), summary.getTotalWon(), 1e-9);
+        long total = 0;
+        for (long count : summary.getHitHistogram()) total += count;
+        assertEquals(2000, total, "Every drawing should land in the histogram");
+    }
+}
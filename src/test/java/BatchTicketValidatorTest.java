@@ -0,0 +1,131 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+//Tests batch settlement of ticket files against GameState's rules
+
+class BatchTicketValidatorTest {
+
+    private static final Set<Integer> DRAWN = new TreeSet<>(Arrays.asList(
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20));
+
+    @Test
+    @DisplayName("Test valid, invalid, blank and comment lines are settled correctly")
+    void testLineKinds(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tickets.txt");
+        Files.write(file, Arrays.asList(
+                "# back office batch",
+                "1 5",                       // 1 of 1: $2
+                "4 1,2,3,70",                // 3 of 4: $5
+                "",
+                "8\t1 2 3 4 5 6 7 60\r",     // 7 of 8: $750, tabs and CRLF
+                "10 41,42,43,44,45,46,47,48,49,50",  // 0 of 10: $5
+                "3 1,2,3",                   // not a playable spot count
+                "4 1,2,3",                   // too few numbers
+                "4 1,2,3,81",                // out of range
+                "4 1,2,2,3",                 // repeated number
+                "4 1,x,3,4"),                // malformed
+                StandardCharsets.US_ASCII);
+
+        BatchTicketValidator.Settlement settlement = new BatchTicketValidator(DRAWN).validate(file);
+        assertEquals(11, settlement.getLines());
+        assertEquals(4, settlement.getValidTickets());
+        assertEquals(5, settlement.getInvalidTickets());
+        for (int reason = BatchTicketValidator.BAD_SPOTS; reason <= BatchTicketValidator.MALFORMED; reason++) {
+            assertEquals(1, settlement.getInvalid(reason), "reason " + reason);
+        }
+        assertEquals(2 + 5 + 750 + 5, settlement.getTotalPayout(), 1e-9);
+        assertEquals(1, settlement.getTickets(8, 7));
+        assertEquals(4, settlement.getWinnerCount());
+        assertEquals(2, settlement.getWinnerLine(0));
+        assertEquals(6, settlement.getWinnerLine(3));
+    }
+
+    @Test
+    @DisplayName("Test parallel chunks give the same totals as settling each ticket with GameState")
+    void testMatchesGameState(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tickets.txt");
+        BatchTicketValidator.generate(file, 400_000);  // about 10 MB, so several chunks
+
+        BatchTicketValidator.Settlement settlement =
+                new BatchTicketValidator(GameDefinition.STANDARD, DRAWN, new ForkJoinPool(4)).validate(file);
+
+        GameState gameState = new GameState();
+        gameState.setCurrentDrawnNumbers(DRAWN);
+        double expectedPayout = 0;
+        long expectedWinners = 0;
+        long lastWinnerLine = 0;
+        long line = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                String[] parts = text.split("[ ,]");
+                Set<Integer> numbers = new HashSet<>();
+                for (int i = 1; i < parts.length; i++) numbers.add(Integer.parseInt(parts[i]));
+                gameState.setPlayerSpots(Integer.parseInt(parts[0]));
+                gameState.setPlayerNumbers(numbers);
+                double won = gameState.calculateWinnings(gameState.getMatches().size());
+                expectedPayout += won;
+                if (won > 0) {
+                    expectedWinners++;
+                    lastWinnerLine = line;
+                }
+            }
+        }
+
+        assertEquals(line, settlement.getLines());
+        assertEquals(400_000, settlement.getValidTickets());
+        assertEquals(expectedPayout, settlement.getTotalPayout(), 1e-6);
+        assertEquals(expectedWinners, settlement.getWinnerCount());
+        assertEquals(lastWinnerLine, settlement.getWinnerLine(settlement.getWinnerCount() - 1),
+                "winner line numbers should be in file order across chunks");
+    }
+
+    @Test
+    @DisplayName("Test the report lists totals and winning lines")
+    void testReport(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tickets.txt");
+        Files.write(file, Arrays.asList("1 5", "1 70"), StandardCharsets.US_ASCII);
+        Path report = dir.resolve("report.txt");
+        BatchTicketValidator.Settlement settlement = new BatchTicketValidator(DRAWN).validate(file);
+        settlement.writeReport(report, DRAWN);
+
+        List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+        assertTrue(lines.contains("valid=2"));
+        assertTrue(lines.contains("payout=2.00"));
+        assertTrue(lines.contains("1 1 1"), "one 1-spot ticket with 1 match");
+        assertTrue(lines.contains("1 1 1 2.00"), "winner on line 1");
+    }
+
+    @Test
+    @DisplayName("Test a line running far past the end of a chunk is malformed, not cut short")
+    void testOverlongLineAcrossChunks(@TempDir Path dir) throws Exception {
+        // Two chunks split near byte 2,205,000; the long line spans 2,200,000 to 2,220,000
+        Path file = dir.resolve("tickets.txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 550_000; i++) text.append("1 5\n");
+        StringBuilder longLine = new StringBuilder("4 1,2,3,4");
+        while (longLine.length() < 19_999) longLine.append(' ');
+        text.append(longLine).append('\n');
+        for (int i = 0; i < 547_500; i++) text.append("1 5\n");
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        BatchTicketValidator.Settlement settlement = new BatchTicketValidator(DRAWN).validate(file);
+        assertEquals(550_000 + 1 + 547_500, settlement.getLines());
+        assertEquals(550_000 + 547_500, settlement.getValidTickets());
+        assertEquals(1, settlement.getInvalid(BatchTicketValidator.MALFORMED));
+        assertEquals(1, settlement.getInvalidTickets());
+    }
+}
@@ -0,0 +1,124 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+
+//Tests the display feed frame format and delivery to connected clients
+
+class DrawBroadcasterTest {
+
+    @Test
+    @DisplayName("Test frames round-trip through encode and decode")
+    void testFrameRoundTrip() {
+        Set<Integer> numbers = new TreeSet<>(Arrays.asList(1, 8, 9, 33, 64, 65, 80));
+        ByteBuffer frame = DrawBroadcaster.encode(1234, numbers, 80);
+        assertEquals(16, frame.remaining(), "80 numbers should fit a 16 byte frame");
+
+        DrawFeedClient.Drawing drawing = DrawFeedClient.decode(frame);
+        assertNotNull(drawing);
+        assertEquals(1234, drawing.getDrawingNumber());
+        assertEquals(numbers, drawing.getNumbers());
+        assertFalse(frame.hasRemaining(), "Decode should consume the whole frame");
+    }
+
+    @Test
+    @DisplayName("Test partial frames wait for more bytes")
+    void testPartialFrame() {
+        ByteBuffer frame = DrawBroadcaster.encode(7, new HashSet<>(Arrays.asList(5)), 80);
+        frame.limit(10);
+        assertNull(DrawFeedClient.decode(frame));
+        assertEquals(0, frame.position(), "Partial decode should not consume bytes");
+    }
+
+    @Test
+    @DisplayName("Test every connected display receives published drawings")
+    void testBroadcastToClients() throws Exception {
+        DrawEngine engine = new DrawEngine();
+        DrawBroadcaster broadcaster = new DrawBroadcaster(0);
+        engine.addDrawListener(broadcaster::publish);
+        broadcaster.start();
+
+        List<SocketChannel> displays = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                displays.add(SocketChannel.open(new InetSocketAddress("localhost", broadcaster.getPort())));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (broadcaster.getClientCount() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, broadcaster.getClientCount(), "All displays should be connected");
+
+            engine.runDraw();
+            engine.runDraw();
+
+            for (SocketChannel display : displays) {
+                ByteBuffer buffer = ByteBuffer.allocate(64);
+                while (buffer.position() < 32) {
+                    assertTrue(display.read(buffer) >= 0, "Feed should stay open");
+                }
+                buffer.flip();
+                assertEquals(1, DrawFeedClient.decode(buffer).getDrawingNumber());
+                DrawFeedClient.Drawing second = DrawFeedClient.decode(buffer);
+                assertEquals(2, second.getDrawingNumber());
+                assertEquals(engine.getLastDrawnNumbers(), second.getNumbers());
+            }
+        } finally {
+            for (SocketChannel display : displays) display.close();
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a display that stops reading is dropped once its queue is full")
+    void testSlowClientDropped() throws Exception {
+        DrawBroadcaster broadcaster = new DrawBroadcaster(0);
+        broadcaster.start();
+        SocketChannel display = SocketChannel.open();
+        try {
+            display.socket().setReceiveBufferSize(1024);
+            display.connect(new InetSocketAddress("localhost", broadcaster.getPort()));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (broadcaster.getClientCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, broadcaster.getClientCount());
+
+            // Never read: once the socket buffers fill, frames queue up until the limit
+            Set<Integer> numbers = new HashSet<>(Arrays.asList(1, 2, 3));
+            int published = 0;
+            deadline = System.currentTimeMillis() + 20000;
+            while (broadcaster.getClientsDropped() == 0 && System.currentTimeMillis() < deadline) {
+                for (int i = 0; i < 10000; i++) broadcaster.publish(++published, numbers);
+                Thread.sleep(20);
+            }
+            assertEquals(1, broadcaster.getClientsDropped(), "the stalled display should be dropped");
+            assertEquals(0, broadcaster.getClientCount());
+        } finally {
+            display.close();
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a feed that was never started can be stopped and releases its port")
+    void testStopWithoutStart() throws Exception {
+        DrawBroadcaster broadcaster = new DrawBroadcaster(0);
+        int port = broadcaster.getPort();
+        broadcaster.publish(1, new HashSet<>(Arrays.asList(1, 2, 3)));  // dropped, nothing to send it
+        broadcaster.stop();
+
+        try (ServerSocketChannel rebound = ServerSocketChannel.open()) {
+            rebound.bind(new InetSocketAddress(port));
+        }
+        assertEquals(0, broadcaster.getFramesSent());
+    }
+}
@@ -0,0 +1,105 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.*;
+
+//Tests batched ticket settlement and the HTTP front end
+
+class DrawEngineTest {
+
+    @Test
+    @DisplayName("Test queued tickets settle with the next drawing")
+    void testBatchSettlement() {
+        DrawEngine engine = new DrawEngine();
+        Set<Integer> numbers = new HashSet<>(Arrays.asList(5, 10, 15, 20));
+        DrawEngine.Ticket ticket = engine.submit(4, numbers);
+
+        assertEquals(1, ticket.getDrawingNumber(), "First ticket should play in drawing 1");
+        assertFalse(ticket.isSettled(), "Ticket should be pending before the drawing");
+
+        int drawing = engine.runDraw();
+        assertEquals(1, drawing);
+        assertTrue(ticket.isSettled(), "Ticket should settle with its drawing");
+
+        Set<Integer> hits = new HashSet<>(numbers);
+        hits.retainAll(engine.getLastDrawnNumbers());
+        assertEquals(hits.size(), ticket.getMatches());
+        assertEquals(GameState.payoutFor(4, hits.size()), ticket.getWinnings());
+        assertEquals(2, engine.getOpenDrawingNumber(), "New tickets should go to drawing 2");
+    }
+
+    @Test
+    @DisplayName("Test a drawing that cannot settle rejects its tickets and keeps numbering in step")
+    void testFailedSettlementRejects(@TempDir Path dir) throws Exception {
+        DrawEngine engine = new DrawEngine();
+        AuditLog closed = new AuditLog(dir.resolve("audit.log"), 80);
+        closed.close();
+        engine.setAuditLog(closed);  // every settlement now throws
+        DrawEngine.Ticket first = engine.submit(4, new HashSet<>(Arrays.asList(5, 10, 15, 20)));
+        DrawEngine.Ticket second = engine.submit(1, Collections.singleton(7));
+
+        assertThrows(IllegalStateException.class, engine::runDraw);
+        assertTrue(first.isRejected(), "the ticket that failed is not left pending");
+        assertTrue(second.isRejected(), "nor is the rest of its batch");
+        assertEquals(1, engine.getLastDrawingNumber());
+        assertEquals(2, engine.getOpenDrawingNumber());
+
+        engine.setAuditLog(null);
+        DrawEngine.Ticket next = engine.submit(1, Collections.singleton(7));
+        assertEquals(2, next.getDrawingNumber());
+        assertEquals(2, engine.runDraw());
+        assertTrue(next.isSettled());
+        assertFalse(next.isRejected());
+    }
+
+    @Test
+    @DisplayName("Test invalid tickets are rejected")
+    void testValidation() {
+        DrawEngine engine = new DrawEngine();
+        assertThrows(IllegalArgumentException.class, () -> engine.submit(5, new HashSet<>(Arrays.asList(1, 2, 3, 4, 5))));
+        assertThrows(IllegalArgumentException.class, () -> engine.submit(4, new HashSet<>(Arrays.asList(1, 2, 3))));
+        assertThrows(IllegalArgumentException.class, () -> engine.submit(1, new HashSet<>(Arrays.asList(81))));
+    }
+
+    @Test
+    @DisplayName("Test submitting and fetching a ticket over HTTP")
+    void testHttpRoundTrip() throws Exception {
+        DrawEngine engine = new DrawEngine();
+        KenoServer server = new KenoServer(engine, 0);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort();
+
+            HttpResponse<String> submitted = client.send(HttpRequest.newBuilder(URI.create(base + "/tickets"))
+                    .POST(HttpRequest.BodyPublishers.ofString("spots=1&numbers=7")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(202, submitted.statusCode());
+            assertTrue(submitted.body().contains("ticket=1"), submitted.body());
+
+            engine.runDraw();
+
+            HttpResponse<String> result = client.send(HttpRequest.newBuilder(URI.create(base + "/tickets?id=1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, result.statusCode());
+            assertTrue(result.body().contains("status=SETTLED"), result.body());
+
+            HttpResponse<String> bad = client.send(HttpRequest.newBuilder(URI.create(base + "/tickets"))
+                    .POST(HttpRequest.BodyPublishers.ofString("spots=3&numbers=1,2,3")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, bad.statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+}
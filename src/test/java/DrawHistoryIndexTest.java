@@ -0,0 +1,107 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests the draw history store and posting bitmap queries against a plain set scan
+
+class DrawHistoryIndexTest {
+
+    private DrawHistory history;
+    private List<Set<Integer>> draws;
+
+    @BeforeEach
+    void setUp() {
+        history = new DrawHistory();
+        draws = new ArrayList<>();
+        GameState gameState = new GameState();
+        // 300 draws spans several posting words and a partial last word
+        for (int i = 0; i < 300; i++) {
+            Set<Integer> draw = gameState.runDrawing();
+            draws.add(draw);
+            history.append(draw);
+        }
+    }
+
+    @Test
+    @DisplayName("Test history round-trips stored drawings")
+    void testHistoryRoundTrip() {
+        assertEquals(300, history.size(), "History should hold every appended drawing");
+        for (int d = 0; d < draws.size(); d++) {
+            assertEquals(draws.get(d), history.getNumbers(d), "Drawing " + d + " should round-trip");
+        }
+    }
+
+    @Test
+    @DisplayName("Test game state records each drawing in its history")
+    void testGameStateRecordsHistory() {
+        GameState gameState = new GameState();
+        Set<Integer> first = gameState.runDrawing();
+        gameState.runDrawing();
+        assertEquals(2, gameState.getDrawHistory().size(), "Should record two drawings");
+        assertEquals(first, gameState.getDrawHistory().getNumbers(0), "First drawing should be stored");
+    }
+
+    @Test
+    @DisplayName("Test co-occurrence count matches a set scan")
+    void testCountContainingAll() {
+        DrawHistoryIndex index = DrawHistoryIndex.build(history);
+        int[][] queries = {{7}, {7, 23}, {7, 23, 51}, {1, 80}};
+        for (int[] query : queries) {
+            for (int lastN : new int[]{1, 50, 64, 130, 300, 1000}) {
+                int expected = 0;
+                for (int d = Math.max(0, draws.size() - lastN); d < draws.size(); d++) {
+                    boolean all = true;
+                    for (int num : query) {
+                        all &= draws.get(d).contains(num);
+                    }
+                    if (all) expected++;
+                }
+                assertEquals(expected, index.countContainingAll(lastN, query),
+                        "Co-occurrence of " + Arrays.toString(query) + " over last " + lastN);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test ticket hit queries match a set scan")
+    void testTicketHitQueries() {
+        DrawHistoryIndex index = DrawHistoryIndex.build(history);
+        Set<Integer> ticket = new HashSet<>(Arrays.asList(3, 11, 19, 27, 42, 55, 63, 78));
+
+        for (int lastN : new int[]{10, 64, 200, 300}) {
+            long[] expectedHistogram = new long[ticket.size() + 1];
+            List<Integer> expectedDraws = new ArrayList<>();
+            for (int d = Math.max(0, draws.size() - lastN); d < draws.size(); d++) {
+                Set<Integer> hits = new HashSet<>(ticket);
+                hits.retainAll(draws.get(d));
+                expectedHistogram[hits.size()]++;
+                if (hits.size() >= 2) expectedDraws.add(d);
+            }
+
+            assertArrayEquals(expectedHistogram, index.hitHistogram(ticket, lastN),
+                    "Hit histogram over last " + lastN);
+            assertEquals(expectedDraws.size(), index.countWithAtLeast(ticket, 2, lastN),
+                    "At-least-2 count over last " + lastN);
+            int[] found = index.drawsWithAtLeast(ticket, 2, lastN);
+            assertEquals(expectedDraws.size(), found.length, "Should find every qualifying drawing");
+            for (int i = 0; i < found.length; i++) {
+                assertEquals((int) expectedDraws.get(i), found[i], "Drawing indexes should match in order");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test queries on an empty index")
+    void testEmptyIndex() {
+        DrawHistoryIndex index = new DrawHistoryIndex();
+        assertEquals(0, index.countContainingAll(10, 1, 2));
+        assertEquals(0, index.countWithAtLeast(Arrays.asList(1, 2, 3, 4), 0, 10));
+        assertEquals(0, index.drawsWithAtLeast(Arrays.asList(1, 2), 1, 10).length);
+    }
+}
@@ -0,0 +1,60 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests drawings generated ahead of time on the pregenerator thread
+
+class DrawPregeneratorTest {
+
+    @Test
+    @DisplayName("Test the ring fills up and every drawing is valid")
+    void testDrawingsAreValid() throws InterruptedException {
+        GameDefinition definition = GameDefinition.STANDARD;
+        try (DrawPregenerator pregenerator = new DrawPregenerator(definition, new Random(1), 8)) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pregenerator.available() < 8 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+            assertEquals(8, pregenerator.available(), "ring should fill to its capacity and stop");
+
+            for (int i = 0; i < 100; i++) {
+                int[] draw = pregenerator.take();
+                Set<Integer> numbers = new HashSet<>();
+                for (int num : draw) {
+                    assertTrue(num >= 1 && num <= definition.getPoolSize());
+                    numbers.add(num);
+                }
+                assertEquals(definition.getDrawSize(), numbers.size(), "numbers must be distinct");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test runDrawing takes drawings from the pregenerator in order")
+    void testGameStateUsesDrawSource() throws InterruptedException {
+        GameDefinition definition = GameDefinition.STANDARD;
+        GameState gameState = new GameState(definition);
+        try (DrawPregenerator pregenerator = new DrawPregenerator(definition, new Random(7), 4)) {
+            gameState.setDrawSource(pregenerator);
+            for (int i = 0; i < 50; i++) {
+                Set<Integer> drawn = gameState.runDrawing();
+                assertEquals(definition.getDrawSize(), drawn.size());
+                assertEquals(drawn, gameState.getCurrentDrawnNumbers());
+            }
+            assertEquals(50, gameState.getCurrentDrawingNumber());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a draw source for another game definition is rejected")
+    void testDefinitionMismatch() {
+        GameState gameState = new GameState(GameDefinition.STANDARD);
+        GameDefinition other = new GameDefinition("Small", 40, 10, Map.of(1, new double[]{0, 2}));
+        try (DrawPregenerator pregenerator = new DrawPregenerator(other, new Random(), 4)) {
+            assertThrows(IllegalArgumentException.class, () -> gameState.setDrawSource(pregenerator));
+        }
+    }
+}
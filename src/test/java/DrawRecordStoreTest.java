@@ -0,0 +1,73 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.*;
+
+//Tests the paged drawing record store behind the history window
+
+class DrawRecordStoreTest {
+
+    @Test
+    @DisplayName("Test records round-trip across several pages")
+    void testRoundTrip(@TempDir Path dir) throws Exception {
+        GameState gameState = new GameState();
+        Set<Integer> player = new TreeSet<>(Arrays.asList(3, 17, 42, 80));
+        List<Set<Integer>> draws = new ArrayList<>();
+        int count = DrawRecordStore.PAGE_RECORDS * 3 + 10;
+        try (DrawRecordStore store = new DrawRecordStore(dir.resolve("draws.dat"), 80)) {
+            for (int i = 0; i < count; i++) {
+                Set<Integer> drawn = gameState.runDrawing();
+                draws.add(drawn);
+                Set<Integer> matched = new TreeSet<>(player);
+                matched.retainAll(drawn);
+                assertEquals(i, store.append(i + 1, drawn, player, 4, matched.size(), i * 0.5));
+            }
+
+            assertEquals(count, store.size());
+            // Out of order, so pages are loaded, evicted and reloaded
+            for (int i : new int[]{count - 1, 0, 300, 5, count - 2, 257}) {
+                DrawRecordStore.Record record = store.get(i);
+                assertEquals(i + 1, record.getDrawingNumber());
+                assertEquals(draws.get(i), record.getDrawnNumbers());
+                assertEquals(player, record.getPlayerNumbers());
+                assertEquals(4, record.getSpots());
+                assertEquals(record.getMatchedNumbers().size(), record.getMatches());
+                assertEquals(i * 0.5, record.getWinnings());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test a record appended to a cached page is visible")
+    void testAppendAfterRead() throws Exception {
+        try (DrawRecordStore store = DrawRecordStore.createTemporary(80)) {
+            Set<Integer> player = Collections.singleton(1);
+            store.append(1, new TreeSet<>(Arrays.asList(1, 2)), player, 1, 1, 2.0);
+            assertEquals(1, store.get(0).getDrawingNumber());  // caches the partial page
+
+            store.append(2, new TreeSet<>(Arrays.asList(3, 4)), player, 1, 0, 0.0);
+            assertEquals(2, store.get(1).getDrawingNumber());
+            assertEquals(new TreeSet<>(Arrays.asList(3, 4)), store.get(1).getDrawnNumbers());
+            assertThrows(IndexOutOfBoundsException.class, () -> store.get(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Test reopening a store finds its records")
+    void testReopen(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("draws.dat");
+        try (DrawRecordStore store = new DrawRecordStore(file, 80)) {
+            store.append(7, new TreeSet<>(Arrays.asList(5, 6)), Collections.singleton(5), 1, 1, 2.0);
+        }
+        try (DrawRecordStore reopened = new DrawRecordStore(file, 80)) {
+            assertEquals(1, reopened.size());
+            assertEquals(7, reopened.get(0).getDrawingNumber());
+        }
+    }
+}
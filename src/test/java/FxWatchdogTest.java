@@ -0,0 +1,78 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+//Tests stall detection with a plain single thread standing in for the FX thread
+
+class FxWatchdogTest {
+
+    //Blocks the calling thread; named so it can be found in the captured stack
+    private static void slowHandler(CountDownLatch release) throws InterruptedException {
+        release.await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Test a responsive UI thread records no stalls")
+    void testResponsive() throws Exception {
+        ExecutorService ui = Executors.newSingleThreadExecutor();
+        // Generous threshold: a GC or Flight Recorder pause in the test JVM is not a UI stall
+        FxWatchdog watchdog = new FxWatchdog(ui::execute, 5, 2000);
+        for (int i = 0; i < 20; i++) {
+            watchdog.check();
+            Thread.sleep(5);
+        }
+        ui.shutdown();
+        ui.awaitTermination(1, TimeUnit.SECONDS);
+
+        assertEquals(0, watchdog.getStallCount());
+        assertTrue(watchdog.getResponseLatency().getCount() > 0);
+        assertEquals(0, watchdog.getCurrentStallMillis());
+    }
+
+    @Test
+    @DisplayName("Test a blocked UI thread is recorded with its stack")
+    void testStallCaptured() throws Exception {
+        ExecutorService ui = Executors.newSingleThreadExecutor();
+        FxWatchdog watchdog = new FxWatchdog(ui::execute, 5, 50);
+
+        // First ping teaches the watchdog which thread is the UI thread
+        watchdog.check();
+        Thread.sleep(20);
+        watchdog.check();
+        Thread.sleep(20);
+
+        CountDownLatch release = new CountDownLatch(1);
+        ui.execute(() -> {
+            try {
+                slowHandler(release);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        watchdog.check();          // ping queued behind the slow handler
+        Thread.sleep(120);
+        watchdog.check();          // past the threshold: stack captured and reported here
+        assertTrue(watchdog.getCurrentStallMillis() >= 50);
+        assertEquals(1, watchdog.getStallsDetected(), "a stall should be reported while still blocked");
+        assertEquals(0, watchdog.getStallCount(), "its duration is recorded only once it ends");
+        watchdog.check();          // still blocked: not reported twice
+        assertEquals(1, watchdog.getStallsDetected());
+
+        release.countDown();
+        ui.shutdown();
+        ui.awaitTermination(1, TimeUnit.SECONDS);
+
+        assertEquals(1, watchdog.getStallCount());
+        List<FxWatchdog.Stall> stalls = watchdog.getRecentStalls();
+        assertEquals(1, stalls.size());
+        assertTrue(stalls.get(0).getMillis() >= 100);
+        assertTrue(stalls.get(0).describeStack().contains("slowHandler"), stalls.get(0).describeStack());
+        assertTrue(watchdog.getStallDurations().getMax() >= 100_000_000L);
+    }
+}
@@ -0,0 +1,98 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests game definitions and running the engine on a variant other than 80/20
+
+class GameDefinitionTest {
+
+    // 40 numbers, 10 drawn, 2/3/5 spots
+    private static final GameDefinition SMALL = new GameDefinition("Small Keno", 40, 10, Map.of(
+            2, new double[]{0, 0, 8},
+            3, new double[]{0, 0, 2, 20},
+            5, new double[]{1, 0, 0, 3, 15, 200}));
+
+    @Test
+    @DisplayName("Test the standard definition matches the original payout table")
+    void testStandardPayouts() {
+        GameDefinition standard = GameDefinition.STANDARD;
+        assertEquals(80, standard.getPoolSize());
+        assertEquals(20, standard.getDrawSize());
+        assertEquals(new TreeSet<>(Arrays.asList(1, 4, 8, 10)), standard.getAllowedSpots());
+        assertEquals(2, standard.getWordsPerDraw());
+        assertEquals(8, standard.getGridRows());
+        assertEquals(10, standard.getGridColumns());
+        assertEquals("1, 4, 8, or 10", standard.describeSpots());
+
+        assertEquals(2.0, standard.payoutFor(1, 1));
+        assertEquals(75.0, standard.payoutFor(4, 4));
+        assertEquals(10000.0, standard.payoutFor(8, 8));
+        assertEquals(5.0, standard.payoutFor(10, 0));
+        assertEquals(25000.0, standard.payoutFor(10, 10));
+        assertEquals(0.0, standard.payoutFor(5, 5), "No table for 5 spots");
+        assertEquals(0.0, standard.payoutFor(4, 5), "More matches than spots");
+    }
+
+    @Test
+    @DisplayName("Test a variant draws from its own pool and pays its own table")
+    void testVariantGameState() {
+        GameState gameState = new GameState(SMALL);
+        gameState.startNewDrawingSession(50);
+        gameState.setPlayerSpots(5);
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5)));
+        while (gameState.hasMoreDrawings()) {
+            Set<Integer> drawn = gameState.runDrawing();
+            assertEquals(10, drawn.size());
+            for (int num : drawn) assertTrue(num >= 1 && num <= 40);
+            int matches = gameState.getMatches().size();
+            assertEquals(SMALL.payoutFor(5, matches), gameState.calculateWinnings(matches));
+        }
+        assertEquals(50, gameState.getDrawHistory().size());
+        assertEquals(1, gameState.getDrawHistory().getWordsPerDraw());
+    }
+
+    @Test
+    @DisplayName("Test tickets are validated against the variant")
+    void testVariantValidation() {
+        DrawEngine engine = new DrawEngine(SMALL, null);
+        assertThrows(IllegalArgumentException.class, () -> engine.submit(4, new HashSet<>(Arrays.asList(1, 2, 3, 4))));
+        assertThrows(IllegalArgumentException.class, () -> engine.submit(2, new HashSet<>(Arrays.asList(1, 41))));
+
+        DrawEngine.Ticket ticket = engine.submit(3, new HashSet<>(Arrays.asList(1, 2, 40)));
+        engine.runDraw();
+        Set<Integer> hits = new HashSet<>(ticket.getNumbers());
+        hits.retainAll(engine.getLastDrawnNumbers());
+        assertEquals(SMALL.payoutFor(3, hits.size()), ticket.getWinnings());
+    }
+
+    @Test
+    @DisplayName("Test odds and way tickets follow the variant")
+    void testVariantOddsAndWays() {
+        LiveOdds odds = new LiveOdds(SMALL);
+        odds.reset(2);
+        // P(both of 2 spots drawn) = C(10,2) / C(40,2)
+        assertEquals(45.0 / 780.0, odds.getProbability(2), 1e-12);
+        assertEquals(8 * 45.0 / 780.0, odds.getExpectedPayout(), 1e-12);
+
+        // Four groups of one played two at a time: six 2-spot ways
+        List<Set<Integer>> groups = new ArrayList<>();
+        for (int n = 1; n <= 4; n++) groups.add(Collections.singleton(n));
+        WayTicket ticket = new WayTicket(SMALL, Collections.emptySet(), groups, 2);
+        assertEquals(6, ticket.getWayCount());
+        assertEquals(3 * 8.0, ticket.evaluate(new HashSet<>(Arrays.asList(1, 2, 3, 20, 21, 22, 23, 24, 25, 26))));
+    }
+
+    @Test
+    @DisplayName("Test invalid definitions are rejected")
+    void testInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () -> new GameDefinition("x", 0, 1, Map.of(1, new double[]{0, 1})));
+        assertThrows(IllegalArgumentException.class, () -> new GameDefinition("x", 10, 11, Map.of(1, new double[]{0, 1})));
+        assertThrows(IllegalArgumentException.class, () -> new GameDefinition("x", 10, 5, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new GameDefinition("x", 10, 5, Map.of(2, new double[]{0, 0, 1, 5})));
+    }
+}
@@ -0,0 +1,150 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+//Tests the immutable snapshots GameState publishes after each change
+
+class GameStateSnapshotTest {
+
+    @Test
+    @DisplayName("Test snapshot follows drawings and winnings")
+    void testSnapshotFollowsState() {
+        GameState gameState = new GameState();
+        gameState.startNewDrawingSession(2);
+        gameState.setPlayerSpots(4);
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+        gameState.runDrawing();
+        double winnings = gameState.calculateWinnings(gameState.getMatches().size());
+
+        GameStateSnapshot state = gameState.getSnapshot();
+        assertEquals(1, state.getCurrentDrawingNumber());
+        assertEquals(2, state.getTotalDrawings());
+        assertEquals(4, state.getPlayerSpots());
+        assertEquals(gameState.getPlayerNumbers(), state.getPlayerNumbers());
+        assertEquals(gameState.getCurrentDrawnNumbers(), state.getCurrentDrawnNumbers());
+        assertEquals(gameState.getMatches(), state.getMatches());
+        assertEquals(winnings, state.getCurrentDrawingWinnings());
+        assertEquals(winnings, state.getTotalWinnings());
+        assertTrue(state.hasMoreDrawings());
+    }
+
+    @Test
+    @DisplayName("Test old snapshots do not change")
+    void testSnapshotIsImmutable() {
+        GameState gameState = new GameState();
+        gameState.startNewDrawingSession(3);
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(5, 6)));
+        GameStateSnapshot before = gameState.getSnapshot();
+
+        gameState.runDrawing();
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(7, 8)));
+        gameState.addToTotalWinnings(10.0);
+
+        assertEquals(0, before.getCurrentDrawingNumber());
+        assertEquals(new HashSet<>(Arrays.asList(5, 6)), before.getPlayerNumbers());
+        assertTrue(before.getCurrentDrawnNumbers().isEmpty());
+        assertEquals(0.0, before.getTotalWinnings());
+        assertThrows(UnsupportedOperationException.class, () -> before.getPlayerNumbers().add(9));
+        assertNotSame(before, gameState.getSnapshot());
+    }
+
+    @Test
+    @DisplayName("Test unchanged number sets are shared between snapshots")
+    void testUnchangedSetsReused() {
+        GameState gameState = new GameState();
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(1, 2, 3)));
+        gameState.runDrawing();
+        GameStateSnapshot before = gameState.getSnapshot();
+
+        gameState.calculateWinnings(1);
+        GameStateSnapshot after = gameState.getSnapshot();
+        assertSame(before.getPlayerNumbers(), after.getPlayerNumbers());
+        assertSame(before.getCurrentDrawnNumbers(), after.getCurrentDrawnNumbers());
+    }
+
+    @Test
+    @DisplayName("Test reset publishes an empty snapshot")
+    void testResetPublishes() {
+        GameState gameState = new GameState();
+        gameState.setPlayerSpots(8);
+        gameState.addToTotalWinnings(5.0);
+        gameState.resetForNewGame();
+
+        GameStateSnapshot state = gameState.getSnapshot();
+        assertEquals(0, state.getPlayerSpots());
+        assertEquals(0.0, state.getTotalWinnings());
+        assertTrue(state.getPlayerNumbers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test a reader thread always sees consistent snapshots")
+    void testConcurrentReader() throws InterruptedException {
+        GameState gameState = new GameState();
+        gameState.setPlayerSpots(10);
+        gameState.startNewDrawingSession(2000);
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)));
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> problem = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                GameStateSnapshot state = gameState.getSnapshot();
+                int drawn = state.getCurrentDrawnNumbers().size();
+                if (drawn != 0 && drawn != 20) problem.set("partial drawing: " + drawn);
+                if (state.getPlayerNumbers().size() != 10) problem.set("partial ticket");
+                if (state.getCurrentDrawingNumber() > state.getTotalDrawings()) problem.set("drawing past end");
+            }
+        });
+        reader.start();
+        while (gameState.hasMoreDrawings()) {
+            gameState.runDrawing();
+            gameState.calculateWinnings(gameState.getMatches().size());
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(problem.get());
+        assertEquals(2000, gameState.getSnapshot().getCurrentDrawingNumber());
+    }
+
+    @Test
+    @DisplayName("Test settleTicket sets the ticket and pays it in one snapshot")
+    void testSettleTicket() {
+        GameState gameState = new GameState();
+        gameState.setCurrentDrawnNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 50)));
+        GameStateSnapshot before = gameState.getSnapshot();
+
+        double winnings = gameState.settleTicket(4, new HashSet<>(Arrays.asList(1, 2, 3, 4)), 3);
+        GameStateSnapshot after = gameState.getSnapshot();
+        assertEquals(5.0, winnings);
+        assertEquals(4, after.getPlayerSpots());
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3, 4)), after.getPlayerNumbers());
+        assertEquals(5.0, after.getCurrentDrawingWinnings());
+        assertSame(before.getCurrentDrawnNumbers(), after.getCurrentDrawnNumbers());
+        assertThrows(UnsupportedOperationException.class, () -> gameState.getPlayerNumbers().add(9));
+        assertThrows(UnsupportedOperationException.class, () -> gameState.getCurrentDrawnNumbers().clear());
+    }
+
+    @Test
+    @DisplayName("Test a drawing after settling a shared read-only set does not modify it")
+    void testSettleDrawingThenRunDrawing() {
+        GameState gameState = new GameState();
+        gameState.setPlayerSpots(1);
+        gameState.setPlayerNumbers(new HashSet<>(Collections.singletonList(5)));
+        Set<Integer> shared = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(
+                1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20)));
+        gameState.settleDrawing(shared);
+
+        Set<Integer> drawn = gameState.runDrawing();
+        assertEquals(20, drawn.size());
+        assertEquals(20, shared.size());
+        assertEquals(2, gameState.getCurrentDrawingNumber());
+    }
+}
@@ -0,0 +1,91 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+//Tests the progressive jackpot pool and how GameState pays it
+
+class JackpotPoolTest {
+
+    @Test
+    @DisplayName("Test concurrent contributions are all counted")
+    void testConcurrentContributions() throws Exception {
+        JackpotPool pool = new JackpotPool(1000, 0.05);
+        int threads = 8;
+        int perThread = 50000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) pool.contribute();
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        assertEquals(5, pool.getContributionCents());
+        assertEquals(5L * threads * perThread, pool.getTotalContributedCents());
+        assertEquals(1000 + 5L * threads * perThread, pool.getPoolCents());
+    }
+
+    @Test
+    @DisplayName("Test claiming pays the pool and restarts it from the seed")
+    void testClaim() {
+        JackpotPool pool = new JackpotPool(1000, 0.02);
+        for (int i = 0; i < 10; i++) pool.contribute();
+
+        assertEquals(1020, pool.claim());
+        assertEquals(1000, pool.getPoolCents());
+        pool.contribute();
+        assertEquals(1002, pool.getPoolCents());
+        assertEquals(1, pool.getJackpotsPaid());
+        assertEquals(1020, pool.getTotalPaidCents());
+    }
+
+    @Test
+    @DisplayName("Test only the top 8- and 10-spot prizes are jackpot tiers")
+    void testJackpotTiers() {
+        assertTrue(JackpotPool.isJackpotTier(8, 8));
+        assertTrue(JackpotPool.isJackpotTier(10, 10));
+        assertFalse(JackpotPool.isJackpotTier(10, 9));
+        assertFalse(JackpotPool.isJackpotTier(4, 4));
+        assertFalse(JackpotPool.isJackpotTier(1, 1));
+    }
+
+    @Test
+    @DisplayName("Test GameState contributes every ticket and pays the pool on top of the prize")
+    void testGameStatePaysJackpot() {
+        JackpotPool pool = new JackpotPool(100_000, 0.02);
+        GameState gameState = new GameState();
+        gameState.setJackpotPool(pool);
+        gameState.setPlayerSpots(8);
+
+        assertEquals(GameState.payoutFor(8, 7), gameState.calculateWinnings(7));
+        assertEquals(100_002, pool.getPoolCents());
+
+        double winnings = gameState.calculateWinnings(8);
+        assertEquals(GameState.payoutFor(8, 8) + 1000.04, winnings, 1e-9);
+        assertEquals(100_000, pool.getPoolCents());
+    }
+
+    @Test
+    @DisplayName("Test sessions settled in parallel share one pool")
+    void testSessionsSharePool() {
+        JackpotPool pool = new JackpotPool(0, 0.01);
+        SessionManager manager = new SessionManager(pool);
+        for (int i = 0; i < 500; i++) {
+            manager.openSession().placeTicket(1, new HashSet<>(Arrays.asList(80)), 3);
+        }
+
+        Set<Integer> drawn = new HashSet<>();
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        for (int d = 1; d <= 3; d++) manager.settleAll(d, drawn);
+
+        assertEquals(1500, pool.getPoolCents());
+    }
+}
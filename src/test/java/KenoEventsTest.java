@@ -0,0 +1,66 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+//Tests that the engine's Flight Recorder events are recorded with the keno.jfc profile
+
+class KenoEventsTest {
+
+    @Test
+    @DisplayName("Test the recording profile loads and enables every Keno event")
+    void testProfileLoads() throws Exception {
+        Map<String, String> settings = KenoEvents.loadProfile().getSettings();
+        for (String name : Arrays.asList("keno.Draw", "keno.Match", "keno.Payout", "keno.Highlight", "keno.Results")) {
+            assertEquals("true", settings.get(name + "#enabled"), name);
+        }
+    }
+
+    @Test
+    @DisplayName("Test drawings and payouts are recorded with their sizes")
+    void testEngineEventsRecorded() throws Exception {
+        Path file = Files.createTempFile("keno", ".jfr");
+        try (Recording recording = new Recording(KenoEvents.loadProfile())) {
+            recording.start();
+            GameState gameState = new GameState();
+            gameState.startNewDrawingSession(5);
+            gameState.setPlayerSpots(4);
+            gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+            while (gameState.hasMoreDrawings()) {
+                gameState.runDrawing();
+                gameState.calculateWinnings(gameState.getMatches().size());
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        int draws = 0;
+        int payouts = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            String name = event.getEventType().getName();
+            if (name.equals("keno.Draw")) {
+                draws++;
+                assertEquals(20, event.getInt("drawSize"));
+                assertEquals(80, event.getInt("poolSize"));
+            } else if (name.equals("keno.Payout")) {
+                payouts++;
+                assertEquals(4, event.getInt("spots"));
+                assertEquals(1, event.getLong("ways"));
+            }
+        }
+        Files.deleteIfExists(file);
+
+        assertEquals(5, draws);
+        assertEquals(5, payouts);
+    }
+}
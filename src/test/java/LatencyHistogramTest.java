@@ -0,0 +1,45 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+//Tests bucket precision and percentiles of the latency histogram
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Test every value lands in a bucket within 1 percent")
+    void testBucketPrecision() {
+        long[] values = {0, 1, 127, 128, 129, 1000, 123_456, 9_999_999, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long high = LatencyHistogram.highestValueIn(index);
+            assertTrue(high >= value, "Bucket top should cover " + value);
+            assertTrue(high - value <= value / 100 + 1, "Bucket for " + value + " should be within 1%");
+        }
+    }
+
+    @Test
+    @DisplayName("Test percentiles of a uniform range")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000, histogram.percentile(0.50), 500);
+        assertEquals(99_000, histogram.percentile(0.99), 990);
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Test empty histogram reports zero")
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0.0, histogram.getMean());
+    }
+}
@@ -0,0 +1,59 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+//Tests the conditional odds shown while a drawing is revealed
+
+class LiveOddsTest {
+
+    @Test
+    @DisplayName("Test 1-spot odds before any reveal are 20 in 80")
+    void testOneSpotInitialOdds() {
+        LiveOdds odds = new LiveOdds();
+        odds.reset(1);
+        assertEquals(0.25, odds.getProbability(1), 1e-12);
+        assertEquals(0.75, odds.getProbability(0), 1e-12);
+        assertEquals(0.5, odds.getExpectedPayout(), 1e-12, "1-spot pays $2 a quarter of the time");
+    }
+
+    @Test
+    @DisplayName("Test probabilities always sum to one while revealing")
+    void testProbabilitiesSumToOne() {
+        LiveOdds odds = new LiveOdds();
+        odds.reset(10);
+        for (int i = 0; i < 20; i++) {
+            odds.reveal(i % 4 == 0);
+            double sum = 0.0;
+            for (int m = 0; m <= 10; m++) sum += odds.getProbability(m);
+            assertEquals(1.0, sum, 1e-9, "Probabilities after " + (i + 1) + " reveals");
+        }
+    }
+
+    @Test
+    @DisplayName("Test outcome is certain once every number is revealed")
+    void testFullyRevealed() {
+        LiveOdds odds = new LiveOdds();
+        odds.reset(8);
+        for (int i = 0; i < 20; i++) {
+            odds.reveal(i < 6);
+        }
+        assertEquals(6, odds.getHits());
+        assertEquals(1.0, odds.getProbability(6), 1e-12, "Six hits should be certain");
+        assertEquals(GameState.payoutFor(8, 6), odds.getExpectedPayout(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Test a hit can only raise the final match count")
+    void testHitsRuleOutLowerCounts() {
+        LiveOdds odds = new LiveOdds();
+        odds.reset(4);
+        odds.reveal(true);
+        odds.reveal(true);
+        assertEquals(0.0, odds.getProbability(0));
+        assertEquals(0.0, odds.getProbability(1));
+        assertTrue(odds.getProbability(2) > 0.0);
+    }
+}
@@ -0,0 +1,31 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+//Tests the synthetic load generator against an in-process draw engine
+
+class LoadGeneratorTest {
+
+    @Test
+    @DisplayName("Test a short run settles every submitted ticket and records each latency")
+    void testShortRun() throws InterruptedException {
+        DrawEngine engine = new DrawEngine();
+        LoadGenerator generator = new LoadGenerator(engine, 4, 2);
+        generator.run(600, 100);
+
+        long submitted = generator.getTicketsSubmitted();
+        assertTrue(submitted > 0, "players should have submitted tickets");
+        assertEquals(submitted, generator.getTicketsSettled(), "the final drawing settles the last tickets");
+        assertEquals(submitted, generator.getSubmitLatency().getCount());
+        assertEquals(submitted, generator.getSettlementLatency().getCount());
+        assertTrue(generator.getDrawLatency().getCount() >= 3, "drawings should run on the schedule");
+        assertEquals(generator.getDrawLatency().getCount(), engine.getLastDrawingNumber());
+
+        String report = generator.report(600);
+        assertTrue(report.startsWith("players=4"));
+        assertTrue(report.contains("submitted=" + submitted));
+    }
+}
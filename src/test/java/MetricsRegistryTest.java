@@ -0,0 +1,120 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+//Tests the metrics registry and its text export
+
+class MetricsRegistryTest {
+
+    @Test
+    @DisplayName("Test concurrent counter increments are all counted")
+    void testConcurrentCounter() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        int threads = 8;
+        int perThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) registry.counter("draws").increment();
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+
+        assertEquals((long) threads * perThread, registry.counter("draws").get());
+        assertSame(registry.counter("draws"), registry.counter("draws"), "same name gives the same counter");
+    }
+
+    @Test
+    @DisplayName("Test export lists counters, gauges and histograms")
+    void testExport() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("draws").add(3);
+        registry.gauge("jackpot", () -> 12.5);
+        LatencyHistogram settle = registry.histogram("settle");
+        settle.record(2_000);
+        settle.record(4_000);
+
+        String text = registry.export();
+        assertTrue(text.contains("draws 3\n"), text);
+        assertTrue(text.contains("draws_per_second "), text);
+        assertTrue(text.contains("jackpot 12.500\n"), text);
+        assertTrue(text.contains("settle_count 2\n"), text);
+        assertTrue(text.contains("settle_mean_us 3\n"), text);
+        assertTrue(text.contains("settle_max_us 4\n"), text);
+    }
+
+    @Test
+    @DisplayName("Test export uses a decimal point in comma-decimal locales")
+    void testExportIgnoresLocale() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.gauge("jackpot", () -> 1234.5);
+            String text = registry.export();
+            assertTrue(text.contains("jackpot 1234.500\n"), text);
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    @Test
+    @DisplayName("Test registered histograms are exported under their name")
+    void testRegisterHistogram() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LatencyHistogram external = new LatencyHistogram();
+        external.record(1_000_000);
+        registry.register("fx_pulse_response_time", external);
+
+        assertSame(external, registry.histogram("fx_pulse_response_time"));
+        assertTrue(registry.export().contains("fx_pulse_response_time_count 1\n"));
+    }
+
+    @Test
+    @DisplayName("Test drawings and settlements update the global registry")
+    void testGameStateUpdatesGlobal() {
+        MetricsRegistry global = MetricsRegistry.global();
+        long draws = global.counter("keno_draws").get();
+        long settled = global.counter("keno_tickets_settled").get();
+
+        GameState state = new GameState();
+        state.setPlayerSpots(1);
+        state.setPlayerNumbers(new HashSet<>(Collections.singletonList(7)));
+        state.runDrawing();
+        state.calculateWinnings(state.getMatches().size());
+
+        assertTrue(global.counter("keno_draws").get() >= draws + 1);
+        assertTrue(global.counter("keno_tickets_settled").get() >= settled + 1);
+        assertTrue(global.histogram("keno_settle_time").getCount() >= 1);
+        assertTrue(global.export().contains("jvm_heap_used_bytes "));
+    }
+
+    @Test
+    @DisplayName("Test writeTo replaces the file with the current export")
+    void testWriteTo(@TempDir Path dir) throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Path file = dir.resolve("metrics.txt");
+        registry.counter("draws").increment();
+        registry.writeTo(file);
+        registry.counter("draws").increment();
+        registry.writeTo(file);
+
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(text.contains("draws 2\n"), text);
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count(), "no temporary files left behind");
+        }
+    }
+}
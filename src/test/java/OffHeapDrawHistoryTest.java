@@ -0,0 +1,94 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+//Tests the off-heap draw history against the heap DrawHistory
+
+class OffHeapDrawHistoryTest {
+
+    @Test
+    @DisplayName("Test off-heap history stores the same bitmaps as the heap history")
+    void testMatchesHeapHistory() {
+        GameState gameState = new GameState();
+        DrawHistory heap = new DrawHistory();
+        OffHeapDrawHistory offHeap = new OffHeapDrawHistory(80);
+        for (int i = 0; i < 500; i++) {
+            Set<Integer> draw = gameState.runDrawing();
+            heap.append(draw);
+            assertEquals(i, offHeap.append(draw));
+        }
+
+        assertEquals(heap.size(), offHeap.size());
+        for (int d = 0; d < heap.size(); d++) {
+            for (int w = 0; w < heap.getWordsPerDraw(); w++) {
+                assertEquals(heap.word(d, w), offHeap.word(d, w), "drawing " + d + " word " + w);
+            }
+            assertEquals(heap.getNumbers(d), offHeap.getNumbers(d));
+        }
+        assertFalse(offHeap.isMapped());
+    }
+
+    @Test
+    @DisplayName("Test analytics give the same answers over either history")
+    void testAnalyticsOverOffHeap() {
+        OffHeapDrawHistory offHeap = new OffHeapDrawHistory(80);
+        GameState gameState = new GameState(GameDefinition.STANDARD, offHeap);
+        DrawHistory heap = new DrawHistory();
+        for (int i = 0; i < 300; i++) {
+            heap.append(gameState.runDrawing());
+        }
+
+        assertSame(offHeap, gameState.getDrawHistory());
+        DrawHistoryIndex fromHeap = DrawHistoryIndex.build(heap);
+        DrawHistoryIndex fromOffHeap = DrawHistoryIndex.build(offHeap);
+        for (int n = 1; n <= 80; n++) {
+            assertEquals(fromHeap.countContainingAll(300, n), fromOffHeap.countContainingAll(300, n), "draws containing " + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Test a mapped history is still there after reopening")
+    void testMappedReopen(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("draws.bin");
+        List<Set<Integer>> draws = new ArrayList<>();
+        GameState gameState = new GameState();
+        OffHeapDrawHistory history = OffHeapDrawHistory.mapped(file, 80);
+        for (int i = 0; i < 100; i++) {
+            Set<Integer> draw = gameState.runDrawing();
+            draws.add(draw);
+            history.append(draw);
+        }
+        assertTrue(history.isMapped());
+        history.close();
+
+        OffHeapDrawHistory reopened = OffHeapDrawHistory.mapped(file, 80);
+        assertEquals(100, reopened.size());
+        for (int d = 0; d < draws.size(); d++) {
+            assertEquals(draws.get(d), reopened.getNumbers(d));
+        }
+        reopened.append(draws.get(0));
+        assertEquals(101, reopened.size());
+        reopened.close();
+
+        assertThrows(IOException.class, () -> OffHeapDrawHistory.mapped(file, 40), "pool size must match");
+    }
+
+    @Test
+    @DisplayName("Test pools whose bitmap ends mid-word and on a word boundary")
+    void testOddPoolSizes() {
+        for (int poolSize : new int[]{10, 64, 65, 200}) {
+            OffHeapDrawHistory history = new OffHeapDrawHistory(poolSize);
+            Set<Integer> draw = new TreeSet<>(Arrays.asList(1, poolSize / 2, poolSize));
+            history.append(draw);
+            assertEquals(draw, history.getNumbers(0), "pool of " + poolSize);
+        }
+    }
+}
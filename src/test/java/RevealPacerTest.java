@@ -0,0 +1,54 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+//Tests the frame-time pacing of the drawing reveal
+
+class RevealPacerTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    @DisplayName("Test a screen that keeps up reveals one number per interval")
+    void testSteadyFrames() {
+        RevealPacer pacer = new RevealPacer(20, 500 * MS);
+        long now = 1_000 * MS;
+        pacer.start(now);
+        int revealed = 0;
+        // 60 frames per second for the whole drawing
+        for (long t = now; !pacer.isFinished(t); t += 16 * MS) {
+            int count = pacer.advance(t);
+            assertTrue(count <= 1, "no frame should reveal more than one number");
+            revealed += count;
+        }
+        assertEquals(20, revealed);
+        assertEquals(0, pacer.getCatchUpFrames());
+    }
+
+    @Test
+    @DisplayName("Test late frames collapse the numbers that came due")
+    void testLateFramesCatchUp() {
+        RevealPacer pacer = new RevealPacer(20, 500 * MS);
+        pacer.start(0);
+        assertEquals(1, pacer.advance(0), "first number shows at once");
+        assertEquals(3, pacer.advance(1_800 * MS), "numbers due at 500, 1000 and 1500 ms come out together");
+        assertEquals(4, pacer.getRevealed());
+        assertEquals(1, pacer.getCatchUpFrames());
+        assertEquals(1, pacer.getFrameIntervals().getCount());
+    }
+
+    @Test
+    @DisplayName("Test a stalled screen still finishes on the original schedule")
+    void testFinishesOnTime() {
+        RevealPacer pacer = new RevealPacer(20, 500 * MS);
+        pacer.start(0);
+        pacer.advance(0);
+        assertFalse(pacer.isFinished(9_999 * MS));
+        // One frame at the 10 second mark: everything left is revealed and the drawing is over
+        assertEquals(19, pacer.advance(10_000 * MS));
+        assertTrue(pacer.isFinished(10_000 * MS));
+        assertEquals(0, pacer.advance(12_000 * MS), "nothing left to reveal");
+    }
+}
@@ -0,0 +1,106 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+//Tests crash recovery of GameState from the session snapshot and journal
+
+class SessionJournalTest {
+
+    //Plays a few drawings of a 4-spot session
+    private static void play(GameState gameState, int drawings) {
+        for (int i = 0; i < drawings; i++) {
+            gameState.runDrawing();
+            gameState.calculateWinnings(gameState.getMatches().size());
+        }
+    }
+
+    private static void assertSameState(GameStateSnapshot expected, GameStateSnapshot actual) {
+        assertEquals(expected.getTotalWinnings(), actual.getTotalWinnings());
+        assertEquals(expected.getCurrentDrawingNumber(), actual.getCurrentDrawingNumber());
+        assertEquals(expected.getTotalDrawings(), actual.getTotalDrawings());
+        assertEquals(expected.getPlayerSpots(), actual.getPlayerSpots());
+        assertEquals(expected.getPlayerNumbers(), actual.getPlayerNumbers());
+        assertEquals(expected.getCurrentDrawnNumbers(), actual.getCurrentDrawnNumbers());
+        assertEquals(expected.getCurrentDrawingWinnings(), actual.getCurrentDrawingWinnings());
+    }
+
+    @Test
+    @DisplayName("Test a session is restored from the journal without a clean close")
+    void testRecoverFromJournal(@TempDir Path dir) throws Exception {
+        GameState gameState = new GameState();
+        SessionJournal journal = SessionJournal.open(dir, gameState);
+        assertFalse(journal.wasRecovered());
+        gameState.setJournal(journal);
+        gameState.setPlayerSpots(4);
+        gameState.setPlayerNumbers(new HashSet<>(Arrays.asList(5, 10, 15, 20)));
+        gameState.startNewDrawingSession(10);
+        play(gameState, 6);
+        GameStateSnapshot before = gameState.getSnapshot();
+        // No close(): the process "dies" here
+
+        GameState restarted = new GameState();
+        SessionJournal reopened = SessionJournal.open(dir, restarted);
+        assertTrue(reopened.wasRecovered());
+        assertSameState(before, restarted.getSnapshot());
+        assertTrue(restarted.hasMoreDrawings());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Test a long session replays only the log written since the last snapshot")
+    void testSnapshotBoundsReplay(@TempDir Path dir) throws Exception {
+        GameState gameState = new GameState();
+        SessionJournal journal = SessionJournal.open(dir, gameState);
+        gameState.setJournal(journal);
+        gameState.setPlayerSpots(1);
+        gameState.setPlayerNumbers(new HashSet<>(Collections.singletonList(40)));
+        gameState.startNewDrawingSession(5000);
+        play(gameState, 3000);
+        GameStateSnapshot before = gameState.getSnapshot();
+        journal.awaitBackgroundWork();  // snapshots are written on the journal's thread
+
+        GameState restarted = new GameState();
+        SessionJournal reopened = SessionJournal.open(dir, restarted);
+        assertTrue(reopened.getReplayedRecords() < SessionJournal.SNAPSHOT_EVERY,
+                "replayed " + reopened.getReplayedRecords() + " records");
+        assertSameState(before, restarted.getSnapshot());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Test a record torn by a crash is dropped and the rest is kept")
+    void testTornRecord(@TempDir Path dir) throws Exception {
+        GameState gameState = new GameState();
+        SessionJournal journal = SessionJournal.open(dir, gameState);
+        gameState.setJournal(journal);
+        gameState.setPlayerSpots(8);
+        gameState.setTotalWinnings(12.0);
+        GameStateSnapshot before = gameState.getSnapshot();
+        gameState.setTotalWinnings(99.0);
+
+        // Cut the last record in half
+        try (FileChannel log = FileChannel.open(dir.resolve("session.wal"), StandardOpenOption.WRITE)) {
+            log.truncate(log.size() - 5);
+        }
+
+        GameState restarted = new GameState();
+        SessionJournal reopened = SessionJournal.open(dir, restarted);
+        assertSameState(before, restarted.getSnapshot());
+
+        // New changes after the dropped record are journaled and recovered
+        restarted.setJournal(reopened);
+        restarted.setTotalWinnings(50.0);
+        GameState again = new GameState();
+        SessionJournal.open(dir, again).close();
+        assertEquals(50.0, again.getTotalWinnings());
+    }
+}
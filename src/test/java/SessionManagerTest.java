@@ -0,0 +1,108 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+//Tests independent sessions settled against shared drawings
+
+class SessionManagerTest {
+
+    @Test
+    @DisplayName("Test every session settles against the same drawing")
+    void testSharedDrawing() {
+        SessionManager manager = new SessionManager();
+        List<SessionManager.PlayerSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            SessionManager.PlayerSession session = manager.openSession();
+            session.placeTicket(4, new HashSet<>(Arrays.asList(i % 77 + 1, i % 77 + 2, i % 77 + 3, i % 77 + 4)), 2);
+            sessions.add(session);
+        }
+
+        Set<Integer> drawn = new HashSet<>();
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        manager.settleAll(1, drawn);
+
+        for (SessionManager.PlayerSession session : sessions) {
+            Set<Integer> hits = session.getPlayerNumbers();
+            hits.retainAll(drawn);
+            assertEquals(GameState.payoutFor(4, hits.size()), session.getCurrentDrawingWinnings(),
+                    "Session " + session.getId());
+            assertEquals(1, session.getCurrentDrawingNumber());
+            assertTrue(session.hasMoreDrawings());
+        }
+    }
+
+    @Test
+    @DisplayName("Test sessions stop settling after their drawings are used up")
+    void testDrawingsUsedUp() {
+        SessionManager manager = new SessionManager();
+        SessionManager.PlayerSession session = manager.openSession();
+        session.placeTicket(1, new HashSet<>(Arrays.asList(1)), 1);
+
+        Set<Integer> drawn = new HashSet<>();
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        manager.settleAll(1, drawn);
+        manager.settleAll(2, drawn);
+
+        assertEquals(2.0, session.getTotalWinnings(), "Only one drawing should be paid");
+        assertFalse(session.hasMoreDrawings());
+    }
+
+    @Test
+    @DisplayName("Test a session can place a new ticket after settling")
+    void testNewTicketAfterSettling() {
+        SessionManager manager = new SessionManager();
+        SessionManager.PlayerSession session = manager.openSession();
+        session.placeTicket(1, new HashSet<>(Arrays.asList(1)), 1);
+
+        Set<Integer> drawn = new HashSet<>();
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        manager.settleAll(1, drawn);
+
+        session.placeTicket(1, new HashSet<>(Arrays.asList(80)), 1);
+        manager.settleAll(2, drawn);
+        assertEquals(2.0, session.getTotalWinnings());
+        assertEquals(0.0, session.getCurrentDrawingWinnings());
+    }
+
+    @Test
+    @DisplayName("Test concurrent terminals and drawings keep totals consistent")
+    void testConcurrentSessions() throws Exception {
+        SessionManager manager = new SessionManager();
+        DrawEngine engine = new DrawEngine();
+        engine.addDrawListener(manager::settleAll);
+
+        int terminals = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<SessionManager.PlayerSession>> futures = new ArrayList<>();
+        for (int t = 0; t < terminals; t++) {
+            futures.add(pool.submit(() -> {
+                SessionManager.PlayerSession session = manager.openSession();
+                session.placeTicket(10, new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)), 50);
+                return session;
+            }));
+        }
+        List<SessionManager.PlayerSession> sessions = new ArrayList<>();
+        for (Future<SessionManager.PlayerSession> future : futures) sessions.add(future.get());
+        pool.shutdown();
+
+        double expected = 0.0;
+        for (int d = 0; d < 50; d++) {
+            engine.runDraw();
+            Set<Integer> hits = new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+            hits.retainAll(engine.getLastDrawnNumbers());
+            expected += GameState.payoutFor(10, hits.size());
+        }
+
+        assertEquals(terminals, manager.getSessionCount());
+        for (SessionManager.PlayerSession session : sessions) {
+            assertEquals(expected, session.getTotalWinnings(), 1e-9, "Identical tickets should win identically");
+            assertFalse(session.hasMoreDrawings());
+        }
+    }
+}
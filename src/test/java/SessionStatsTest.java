@@ -0,0 +1,91 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests the running session statistics GameState keeps as tickets settle
+
+class SessionStatsTest {
+
+    @Test
+    @DisplayName("Test mean, variance, streaks and RTP match values computed from the whole series")
+    void testRunningValues() {
+        SessionStats stats = new SessionStats(GameDefinition.STANDARD);
+        int[] matches = {0, 1, 0, 0, 3, 4, 0, 0, 0, 2};
+        double[] winnings = {0, 0, 0, 0, 1, 5, 0, 0, 0, 0};
+        for (int i = 0; i < matches.length; i++) stats.record(4, matches[i], winnings[i]);
+
+        double mean = Arrays.stream(winnings).average().orElse(0);
+        double squares = Arrays.stream(winnings).map(w -> (w - mean) * (w - mean)).sum();
+        SessionStats.Tally session = stats.getSession();
+        assertEquals(10, session.getTickets());
+        assertEquals(mean, session.getMean(), 1e-12);
+        assertEquals(squares / 9, session.getVariance(), 1e-12);
+        assertEquals(4, session.getLongestLosingStreak());
+        assertEquals(4, session.getLosingStreak());
+        assertEquals(5.0, session.getBiggestWin());
+        assertEquals(0.6, session.getReturnToPlayer(), 1e-12);
+
+        long[] hits = stats.getForSpots(4).getHitHistogram();
+        assertEquals(6, hits[0]);
+        assertEquals(1, hits[4]);
+        assertEquals(0, stats.getForSpots(8).getTickets());
+    }
+
+    @Test
+    @DisplayName("Test GameState updates the statistics as it settles and clears them on a new game")
+    void testGameStateStats() {
+        GameState gameState = new GameState();
+        gameState.setPlayerSpots(1);
+        gameState.setPlayerNumbers(new HashSet<>(Collections.singletonList(5)));
+        gameState.setCurrentDrawnNumbers(new HashSet<>(Arrays.asList(5, 6)));
+        gameState.calculateWinnings(1);
+        gameState.calculateWinnings(0);
+
+        SessionStats.Tally oneSpot = gameState.getSessionStats().getForSpots(1);
+        assertEquals(2, oneSpot.getTickets());
+        assertEquals(gameState.getTotalWinnings(), oneSpot.getTotalWon(), 1e-9);
+        assertEquals(1, oneSpot.getHitHistogram()[1]);
+        assertTrue(gameState.getSessionStats().describe(1).contains("1-spot: 2 tickets"));
+
+        gameState.resetForNewGame();
+        assertEquals(0, gameState.getSessionStats().getSession().getTickets());
+        assertEquals(0, gameState.getSessionStats().getForSpots(1).getTickets());
+    }
+
+    @Test
+    @DisplayName("Test restoring a session clears the statistics and labels them as this run only")
+    void testRestoreLabelsThisRun() {
+        GameState gameState = new GameState();
+        gameState.setPlayerSpots(1);
+        gameState.setPlayerNumbers(new HashSet<>(Collections.singletonList(5)));
+        gameState.setCurrentDrawnNumbers(new HashSet<>(Arrays.asList(5, 6)));
+        gameState.calculateWinnings(1);
+
+        GameState restarted = new GameState();
+        restarted.restore(gameState.getSnapshot());
+        assertEquals(0, restarted.getSessionStats().getSession().getTickets());
+        assertTrue(restarted.getSessionStats().isSinceRestore());
+        restarted.calculateWinnings(1);
+        assertTrue(restarted.getSessionStats().describe(1).startsWith("This run: 1 tickets"));
+
+        restarted.resetForNewGame();
+        assertFalse(restarted.getSessionStats().isSinceRestore());
+        assertTrue(restarted.getSessionStats().describe(1).startsWith("Session"));
+    }
+
+    @Test
+    @DisplayName("Test a way ticket is one sample of its total payout with one wager per way")
+    void testWayTicketSample() {
+        SessionStats stats = new SessionStats(GameDefinition.STANDARD);
+        stats.recordWays(4, 10.0);
+        SessionStats.Tally session = stats.getSession();
+        assertEquals(1, session.getTickets());
+        assertEquals(10.0, session.getMean(), 1e-9);
+        assertEquals(10.0 / (4 * JackpotPool.WAGER_CENTS / 100.0), session.getReturnToPlayer(), 1e-9);
+    }
+}
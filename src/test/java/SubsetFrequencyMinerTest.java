@@ -0,0 +1,85 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests k-subset counting, rank encoding and most/least frequent reporting
+
+class SubsetFrequencyMinerTest {
+
+    @Test
+    @DisplayName("Test subset counts match a set scan")
+    void testCountsMatchScan() {
+        GameState gameState = new GameState();
+        List<Set<Integer>> draws = new ArrayList<>();
+        for (int i = 0; i < 9000; i++) {
+            draws.add(gameState.runDrawing());
+        }
+
+        SubsetFrequencies frequencies = new SubsetFrequencyMiner(gameState.getDrawHistory()).mine();
+        assertEquals(9000, frequencies.getDrawings(), "Every drawing should be counted once");
+
+        int[][] subsets = {{5}, {1, 80}, {7, 23, 51}, {2, 3, 4, 5}, {10, 20, 30, 40}};
+        for (int[] subset : subsets) {
+            int expected = 0;
+            for (Set<Integer> draw : draws) {
+                boolean all = true;
+                for (int num : subset) all &= draw.contains(num);
+                if (all) expected++;
+            }
+            assertEquals(expected, frequencies.count(subset), "Count of " + Arrays.toString(subset));
+        }
+    }
+
+    @Test
+    @DisplayName("Test every drawing contributes C(20, k) subsets")
+    void testTotalsPerDrawing() {
+        DrawHistory history = new DrawHistory();
+        Set<Integer> draw = new HashSet<>();
+        for (int i = 1; i <= 20; i++) draw.add(i * 4);
+        history.append(draw);
+
+        SubsetFrequencies frequencies = new SubsetFrequencyMiner(history).mine();
+        long[] expectedTotals = {0, 20, 190, 1140, 4845};
+        for (int k = 1; k <= SubsetFrequencies.MAX_K; k++) {
+            long total = 0;
+            for (SubsetFrequencies.SubsetCount subset : frequencies.mostFrequent(k, 5000)) {
+                total += subset.getCount();
+            }
+            assertEquals(expectedTotals[k], total, "Subsets of size " + k);
+        }
+    }
+
+    @Test
+    @DisplayName("Test rank and unrank are inverses")
+    void testRankRoundTrip() {
+        SubsetFrequencies frequencies = new SubsetFrequencies(80, 20);
+        for (int rank = 0; rank < frequencies.subsetCount(3); rank += 997) {
+            int[] numbers = frequencies.unrank(rank, 3);
+            assertTrue(numbers[0] < numbers[1] && numbers[1] < numbers[2], "Unranked numbers should be sorted");
+            assertEquals(rank, frequencies.rank(numbers), "Rank should round-trip");
+        }
+        assertArrayEquals(new int[]{77, 78, 79, 80}, frequencies.unrank(frequencies.subsetCount(4) - 1, 4));
+    }
+
+    @Test
+    @DisplayName("Test most and least frequent are ordered")
+    void testExtremesOrdered() {
+        GameState gameState = new GameState();
+        for (int i = 0; i < 500; i++) gameState.runDrawing();
+        SubsetFrequencies frequencies = new SubsetFrequencyMiner(gameState.getDrawHistory()).mine();
+
+        List<SubsetFrequencies.SubsetCount> top = frequencies.mostFrequent(2, 10);
+        List<SubsetFrequencies.SubsetCount> bottom = frequencies.leastFrequent(2, 10);
+        assertEquals(10, top.size());
+        for (int i = 1; i < 10; i++) {
+            assertTrue(top.get(i - 1).getCount() >= top.get(i).getCount(), "Most frequent should descend");
+            assertTrue(bottom.get(i - 1).getCount() <= bottom.get(i).getCount(), "Least frequent should ascend");
+        }
+        assertTrue(top.get(0).getCount() >= bottom.get(0).getCount());
+    }
+}
@@ -0,0 +1,63 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+//Tests batched match counting against GameState.getMatches
+
+class TicketBatchTest {
+
+    @Test
+    @DisplayName("Test batch match counts equal GameState.getMatches for every ticket")
+    void testMatchesGameState() {
+        Random random = new Random(7);
+        GameState gameState = new GameState();
+        TicketBatch batch = new TicketBatch(GameDefinition.STANDARD, 16);  // grows past this
+        List<Set<Integer>> tickets = new ArrayList<>();
+        int[] spotMix = {1, 4, 8, 10};
+        for (int i = 0; i < 150_000; i++) {
+            Set<Integer> numbers = new HashSet<>();
+            int spots = spotMix[random.nextInt(spotMix.length)];
+            while (numbers.size() < spots) numbers.add(random.nextInt(80) + 1);
+            tickets.add(numbers);
+            assertEquals(i, batch.add(numbers));
+        }
+
+        Set<Integer> drawn = gameState.runDrawing();
+        long[] drawMask = NumberMask.toMask(drawn, 80);
+        int[] single = batch.countMatches(drawMask);
+        int[] parallel = batch.countMatchesParallel(drawMask, new ForkJoinPool(4));
+
+        double expectedPayout = 0;
+        for (int i = 0; i < tickets.size(); i++) {
+            gameState.setPlayerSpots(tickets.get(i).size());
+            gameState.setPlayerNumbers(tickets.get(i));
+            int matches = gameState.getMatches().size();
+            assertEquals(matches, single[i], "ticket " + i);
+            assertEquals(matches, parallel[i], "ticket " + i + " (parallel)");
+            expectedPayout += GameState.payoutFor(tickets.get(i).size(), matches);
+        }
+        assertEquals(expectedPayout, batch.totalPayout(single), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Test invalid tickets are rejected and variant pools are supported")
+    void testValidationAndVariants() {
+        TicketBatch batch = new TicketBatch(GameDefinition.STANDARD, 4);
+        assertThrows(IllegalArgumentException.class, () -> batch.add(new HashSet<>(Arrays.asList(1, 2, 3))));
+        assertThrows(IllegalArgumentException.class, () -> batch.add(Collections.singleton(81)));
+
+        GameDefinition big = new GameDefinition("Big", 150, 30, Map.of(2, new double[]{0, 1, 10}));
+        TicketBatch wide = new TicketBatch(big, 4);
+        wide.add(new HashSet<>(Arrays.asList(1, 150)));
+        wide.add(new HashSet<>(Arrays.asList(64, 65)));
+        long[] draw = NumberMask.toMask(new HashSet<>(Arrays.asList(150, 65, 64)), 150);
+        assertArrayEquals(new int[]{1, 2}, wide.countMatches(draw));
+        assertEquals(11.0, wide.totalPayout(wide.countMatches(draw)));
+    }
+}
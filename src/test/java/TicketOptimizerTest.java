@@ -0,0 +1,59 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests the suggested-picks optimizer against direct payout calculations
+
+class TicketOptimizerTest {
+
+    @Test
+    @DisplayName("Test payout lookup matches calculateWinnings")
+    void testPayoutForMatchesCalculateWinnings() {
+        GameState gameState = new GameState();
+        for (int spots : new int[]{1, 4, 8, 10}) {
+            gameState.setPlayerSpots(spots);
+            for (int matches = 0; matches <= spots; matches++) {
+                assertEquals(gameState.calculateWinnings(matches), GameState.payoutFor(spots, matches),
+                        spots + "-spot with " + matches + " matches");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test historical payout matches a drawing-by-drawing calculation")
+    void testHistoricalPayout() {
+        GameState gameState = new GameState();
+        List<Set<Integer>> draws = new ArrayList<>();
+        for (int i = 0; i < 200; i++) draws.add(gameState.runDrawing());
+
+        int[] ticket = {4, 9, 15, 22, 37, 48, 66, 71};
+        double expected = 0.0;
+        for (Set<Integer> draw : draws) {
+            int matches = 0;
+            for (int num : ticket) if (draw.contains(num)) matches++;
+            expected += GameState.payoutFor(8, matches);
+        }
+
+        TicketOptimizer optimizer = new TicketOptimizer(DrawHistoryIndex.build(gameState.getDrawHistory()));
+        assertEquals(expected, optimizer.historicalPayout(ticket), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Test optimizer finds a ticket covering a single past drawing")
+    void testOptimizerFindsPerfectTicket() {
+        GameState gameState = new GameState();
+        Set<Integer> draw = gameState.runDrawing();
+
+        TicketOptimizer optimizer = new TicketOptimizer(DrawHistoryIndex.build(gameState.getDrawHistory()));
+        TicketOptimizer.Result result = optimizer.optimize(4, 4, 42L);
+
+        assertEquals(4, result.getNumbers().size(), "Should suggest exactly 4 numbers");
+        assertTrue(draw.containsAll(result.getNumbers()), "Best 4-spot ticket should be all drawn numbers");
+        assertEquals(75.0, result.getTotalPayout(), 1e-9);
+    }
+}
@@ -0,0 +1,128 @@
+// Author: Sara Alaidroos, salai3, salai3@uic.edu
+// Author: Teresa Chirayil, tchir3, tchir3@uic.edu
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+//Tests way and king ticket settlement against expanding every way by hand
+
+class WayTicketTest {
+
+    private static Set<Integer> numbers(Integer... nums) {
+        return new HashSet<>(Arrays.asList(nums));
+    }
+
+    private static Set<Integer> randomDraw(Random random) {
+        Set<Integer> drawn = new HashSet<>();
+        while (drawn.size() < 20) drawn.add(random.nextInt(80) + 1);
+        return drawn;
+    }
+
+    //Reference answer: expand every way and pay it as a straight ticket
+    private static double expandAndPay(WayTicket ticket, Set<Integer> drawn) {
+        List<Set<Integer>> groups = ticket.getGroups();
+        double total = 0.0;
+        for (int m : ticket.getGroupsPerWay()) {
+            for (int subset = 0; subset < 1 << groups.size(); subset++) {
+                if (Integer.bitCount(subset) != m) continue;
+                Set<Integer> way = new HashSet<>(ticket.getKingNumbers());
+                for (int g = 0; g < groups.size(); g++) {
+                    if ((subset & (1 << g)) != 0) way.addAll(groups.get(g));
+                }
+                Set<Integer> hits = new HashSet<>(way);
+                hits.retainAll(drawn);
+                total += GameState.payoutFor(way.size(), hits.size());
+            }
+        }
+        return total;
+    }
+
+    @Test
+    @DisplayName("Test way ticket payouts match expanding every way")
+    void testWayTicketMatchesExpansion() {
+        // Eight groups of two played as 4-spot (2 groups), 8-spot (4 groups) and 10-spot (5 groups) ways
+        List<Set<Integer>> groups = new ArrayList<>();
+        for (int g = 0; g < 8; g++) groups.add(numbers(g * 2 + 1, g * 2 + 2));
+        WayTicket ticket = new WayTicket(groups, 2, 4, 5);
+        assertEquals(28 + 70 + 56, ticket.getWayCount());
+
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            Set<Integer> drawn = randomDraw(random);
+            assertEquals(expandAndPay(ticket, drawn), ticket.evaluate(drawn), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Test king ticket payouts match expanding every way")
+    void testKingTicketMatchesExpansion() {
+        // One king with groups of three: 4-spot ways; two kings with groups of four: 10-spot ways
+        List<Set<Integer>> threes = new ArrayList<>();
+        for (int g = 0; g < 10; g++) threes.add(numbers(g * 3 + 2, g * 3 + 3, g * 3 + 4));
+        WayTicket fourSpot = new WayTicket(numbers(1), threes, 1);
+        assertEquals(10, fourSpot.getWayCount());
+
+        List<Set<Integer>> fours = new ArrayList<>();
+        for (int g = 0; g < 6; g++) fours.add(numbers(g * 4 + 3, g * 4 + 4, g * 4 + 5, g * 4 + 6));
+        WayTicket tenSpot = new WayTicket(numbers(1, 2), fours, 2);
+        assertEquals(15, tenSpot.getWayCount());
+
+        Random random = new Random(5);
+        for (int trial = 0; trial < 200; trial++) {
+            Set<Integer> drawn = randomDraw(random);
+            assertEquals(expandAndPay(fourSpot, drawn), fourSpot.evaluate(drawn), 1e-9);
+            assertEquals(expandAndPay(tenSpot, drawn), tenSpot.evaluate(drawn), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Test a large way ticket is counted without expansion")
+    void testLargeWayTicket() {
+        // 40 single-number groups played as 4-spot ways: 91,390 ways
+        List<Set<Integer>> groups = new ArrayList<>();
+        for (int n = 1; n <= 40; n++) groups.add(numbers(n));
+        WayTicket ticket = new WayTicket(groups, 4);
+        assertEquals(91390, ticket.getWayCount());
+
+        // 20 of the numbers drawn: C(20,4) ways pay $75, 20*C(20,3) pay $5, C(20,2)^2 pay $1
+        Set<Integer> drawn = new HashSet<>();
+        for (int n = 1; n <= 20; n++) drawn.add(n);
+        assertEquals(4845 * 75.0 + 20 * 1140 * 5.0 + 190 * 190 * 1.0, ticket.evaluate(drawn), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Test invalid way tickets are rejected")
+    void testInvalidTickets() {
+        List<Set<Integer>> overlapping = Arrays.asList(numbers(1, 2), numbers(2, 3));
+        assertThrows(IllegalArgumentException.class, () -> new WayTicket(overlapping, 2));
+
+        // Two groups of three make 6-spot ways, which have no payout table
+        List<Set<Integer>> threes = Arrays.asList(numbers(1, 2, 3), numbers(4, 5, 6));
+        assertThrows(IllegalArgumentException.class, () -> new WayTicket(threes, 2));
+
+        List<Set<Integer>> fours = Arrays.asList(numbers(1, 2, 3, 4), numbers(5, 6, 7, 8), numbers(9, 10, 11, 12));
+        assertThrows(IllegalArgumentException.class, () -> new WayTicket(fours, 3));
+        assertThrows(IllegalArgumentException.class, () -> new WayTicket(fours, 4));
+    }
+
+    @Test
+    @DisplayName("Test GameState settles a way ticket and feeds the jackpot per way")
+    void testGameStateWayWinnings() {
+        JackpotPool pool = new JackpotPool(0, 0.01);
+        GameState gameState = new GameState();
+        gameState.setJackpotPool(pool);
+        List<Set<Integer>> groups = Arrays.asList(numbers(1, 2, 3, 4), numbers(5, 6, 7, 8), numbers(9, 10, 11, 12));
+        WayTicket ticket = new WayTicket(groups, 1, 2);
+
+        // Hits per group 3, 2 and 0: 4-spot ways pay $5 + $1, 8-spot ways pay $12 (5 hits) + 0 + 0
+        Set<Integer> drawn = numbers(1, 2, 3, 5, 6);
+        for (int n = 21; n <= 35; n++) drawn.add(n);
+        gameState.setCurrentDrawnNumbers(drawn);
+        assertEquals(18.0, gameState.calculateWayWinnings(ticket));
+        assertEquals(18.0, gameState.getSnapshot().getTotalWinnings());
+        assertEquals(6, pool.getTotalContributedCents());
+    }
+}